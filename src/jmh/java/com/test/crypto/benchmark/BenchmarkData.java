@@ -0,0 +1,93 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.utils.csv.record.CryptoCsvRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic datasets shared by the benchmarks. The data is seeded, so every run uses the same values.
+ */
+final class BenchmarkData {
+
+    private static final long START_TIMESTAMP = 1641009600000L;
+    private static final long TICK_INTERVAL_MILLIS = 60_000L;
+
+    private BenchmarkData() {
+    }
+
+    static String symbol(int index) {
+        return "SYM" + index;
+    }
+
+    /**
+     * A CSV file (timestamp, symbol, price) with one tick per minute, the symbols interleaved
+     * and the prices following a random walk.
+     */
+    static byte[] csv(int rows, int symbols) {
+        var csv = new StringBuilder(rows * 32).append("timestamp,symbol,price\n");
+        forEachTick(rows, symbols, (timestamp, symbol, price) -> csv.append(timestamp)
+                .append(',').append(symbol)
+                .append(',').append(price)
+                .append('\n'));
+
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The same ticks as {@link #csv(int, int)}, already bound to CSV records
+     */
+    static List<CryptoCsvRecord> records(int rows, int symbols) {
+        var records = new ArrayList<CryptoCsvRecord>(rows);
+        forEachTick(rows, symbols, (timestamp, symbol, price) -> {
+            var record = new CryptoCsvRecord();
+            record.setTimestamp(timestamp);
+            record.setSymbol(symbol);
+            record.setPrice(price);
+            records.add(record);
+        });
+        return records;
+    }
+
+    /**
+     * The same ticks as {@link #csv(int, int)}, as crypto entries
+     */
+    static List<CryptoEntity> ticks(int rows, int symbols) {
+        var ticks = new ArrayList<CryptoEntity>(rows);
+        forEachTick(rows, symbols, (timestamp, symbol, price) -> ticks.add(CryptoEntity.builder()
+                .timestamp(Instant.ofEpochMilli(timestamp))
+                .symbol(symbol)
+                .price(price)
+                .build()));
+        return ticks;
+    }
+
+    /**
+     * The first day of the ticks, in UTC
+     */
+    static Instant start() {
+        return Instant.ofEpochMilli(START_TIMESTAMP);
+    }
+
+    private interface TickConsumer {
+        void accept(long timestamp, String symbol, double price);
+    }
+
+    private static void forEachTick(int rows, int symbols, TickConsumer consumer) {
+        var random = new SplittableRandom(42);
+        var prices = new double[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            prices[symbol] = 10 + random.nextDouble(50_000);
+        }
+
+        for (int row = 0; row < rows; row++) {
+            int symbol = row % symbols;
+            prices[symbol] = Math.max(0.01, prices[symbol] * (1 + (random.nextDouble() - 0.5) / 100));
+            consumer.accept(START_TIMESTAMP + (row / symbols) * TICK_INTERVAL_MILLIS, symbol(symbol), Math.round(prices[symbol] * 100) / 100d);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.mapper.CryptoMapperImpl;
+import com.test.crypto.utils.csv.CryptoTickParser;
+import com.test.crypto.utils.csv.CsvParser;
+import com.test.crypto.utils.csv.record.CryptoCsvRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the OpenCSV bean binding followed by the mapping with the specialized tick parser, on the same file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private final CsvParser csvParser = new CsvParser();
+    private final CryptoMapper cryptoMapper = new CryptoMapperImpl();
+    private final CryptoTickParser cryptoTickParser = new CryptoTickParser();
+
+    private byte[] csv;
+
+    @Setup
+    public void setup() {
+        csv = BenchmarkData.csv(rows, 50);
+    }
+
+    @Benchmark
+    public void openCsvBeanBinding(Blackhole blackhole) {
+        var reader = new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8);
+        var csvRecords = csvParser.parseCSVToBean(reader, CryptoCsvRecord.class);
+        blackhole.consume(cryptoMapper.fromRecordList(csvRecords));
+    }
+
+    @Benchmark
+    public void tickParserToEntities(Blackhole blackhole) throws IOException {
+        cryptoTickParser.parseInChunks(new ByteArrayInputStream(csv), 10_000, blackhole::consume);
+    }
+
+    @Benchmark
+    public void tickParserToPrimitives(Blackhole blackhole) throws IOException {
+        cryptoTickParser.parse(new ByteArrayInputStream(csv), (timestamp, symbol, price) -> {
+            blackhole.consume(timestamp);
+            blackhole.consume(symbol);
+            blackhole.consume(price);
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.enums.EmbeddedFormat;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.repository.embedded.EmbeddedTickStore;
+import com.test.crypto.repository.embedded.MappedTickStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interval queries of the EMBEDDED storage engine, on files written in saves of {@code saveSize} ticks of all the
+ * symbols, like the uploads and the live feed. In the SEGMENTS format, the smaller the saves, the smaller the blocks
+ * of the sparse index. The MAPPED format keeps the prices of a symbol contiguous whatever the size of the saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddedTickStoreBenchmark {
+
+    @Param({"100"})
+    private int symbols;
+
+    @Param({"10000"})
+    private int ticksPerSymbol;
+
+    @Param({"1000", "100000"})
+    private int saveSize;
+
+    @Param({"SEGMENTS", "MAPPED"})
+    private EmbeddedFormat format;
+
+    private Path directory;
+    private CryptoTickStore tickStore;
+    private Closeable closeable;
+    private String symbol;
+    private Instant start;
+    private Instant end;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("crypto-embedded-");
+        var properties = new CryptoProperties();
+        properties.getStorage().getEmbedded().setDirectory(directory);
+        properties.getStorage().getEmbedded().setFsync(false);
+        var cryptoMetrics = new CryptoMetrics(new SimpleMeterRegistry());
+        if (format == EmbeddedFormat.MAPPED) {
+            var mappedTickStore = new MappedTickStore(cryptoMetrics, properties);
+            tickStore = mappedTickStore;
+            closeable = mappedTickStore::close;
+        } else {
+            var embeddedTickStore = new EmbeddedTickStore(cryptoMetrics, properties);
+            tickStore = embeddedTickStore;
+            closeable = embeddedTickStore::close;
+        }
+
+        var ticks = BenchmarkData.ticks(symbols * ticksPerSymbol, symbols);
+        for (int from = 0; from < ticks.size(); from += saveSize) {
+            tickStore.saveAll(ticks.subList(from, Math.min(from + saveSize, ticks.size())));
+        }
+
+        symbol = BenchmarkData.symbol(0);
+        start = BenchmarkData.start().plus(Duration.ofDays(1));
+        end = start.plus(Duration.ofDays(3));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        closeable.close();
+        try (var files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void scanInterval(Blackhole blackhole) {
+        tickStore.scanInterval(symbol, start, end, 5_000, blackhole::consume);
+    }
+
+    @Benchmark
+    public CryptoValues findPriceLimitsBySymbolInInterval() {
+        return tickStore.findPriceLimitsBySymbolInInterval(symbol, start, end);
+    }
+
+    @Benchmark
+    public CryptoValues findCryptoValuesBySymbol() {
+        return tickStore.findCryptoValuesBySymbol(symbol);
+    }
+}
@@ -0,0 +1,89 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoTickStore;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in of the Cassandra tick store for the benchmarks. The aggregates scan the ticks of the symbol,
+ * like Cassandra scans the partition.
+ */
+class InMemoryTickStore implements CryptoTickStore {
+
+    private final Map<String, List<CryptoEntity>> ticksBySymbol = new TreeMap<>();
+
+    @Override
+    public void saveAll(List<CryptoEntity> cryptoList) {
+        cryptoList.forEach(cryptoEntity -> ticksBySymbol.computeIfAbsent(cryptoEntity.getSymbol(), symbol -> new ArrayList<>()).add(cryptoEntity));
+        ticksBySymbol.values().forEach(ticks -> ticks.sort(Comparator.comparing(CryptoEntity::getTimestamp)));
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        return List.copyOf(ticksBySymbol.keySet());
+    }
+
+    @Override
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var ticks = ticksBySymbol.getOrDefault(symbol, List.of());
+        for (int first = 0; first < ticks.size(); first += pageSize) {
+            pageConsumer.accept(ticks.subList(first, Math.min(ticks.size(), first + pageSize)));
+        }
+    }
+
+    @Override
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var ticks = ticksBySymbol.getOrDefault(symbol, List.of()).stream()
+                .filter(tick -> !tick.getTimestamp().isBefore(start) && !tick.getTimestamp().isAfter(end))
+                .toList();
+        for (int first = 0; first < ticks.size(); first += pageSize) {
+            pageConsumer.accept(ticks.subList(first, Math.min(ticks.size(), first + pageSize)));
+        }
+    }
+
+    @Override
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        return findPriceLimitsBySymbolInInterval(symbol, Instant.MIN, Instant.MAX);
+    }
+
+    @Override
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return ticksBySymbol.getOrDefault(symbol, List.of()).stream()
+                .map(CryptoEntity::getTimestamp)
+                .filter(timestamp -> !timestamp.isBefore(start) && !timestamp.isAfter(end))
+                .toList();
+    }
+
+    @Override
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        Double minPrice = null;
+        Double maxPrice = null;
+        Instant oldest = null;
+        Instant newest = null;
+        for (var tick : ticksBySymbol.getOrDefault(symbol, List.of())) {
+            if (tick.getTimestamp().isBefore(start) || tick.getTimestamp().isAfter(end)) {
+                continue;
+            }
+            minPrice = minPrice == null ? tick.getPrice() : Math.min(minPrice, tick.getPrice());
+            maxPrice = maxPrice == null ? tick.getPrice() : Math.max(maxPrice, tick.getPrice());
+            oldest = oldest == null ? tick.getTimestamp() : oldest;
+            newest = tick.getTimestamp();
+        }
+
+        return CryptoValues.builder()
+                .symbol(minPrice == null ? null : symbol)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .oldest(oldest)
+                .newest(newest)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.mapper.CryptoMapperImpl;
+import com.test.crypto.utils.csv.record.CryptoCsvRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the bound CSV records to crypto entries, without the parsing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private final CryptoMapper cryptoMapper = new CryptoMapperImpl();
+
+    private List<CryptoCsvRecord> records;
+
+    @Setup
+    public void setup() {
+        records = BenchmarkData.records(rows, 50);
+    }
+
+    @Benchmark
+    public Object fromRecordList() {
+        return cryptoMapper.fromRecordList(records);
+    }
+}
@@ -0,0 +1,57 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.utils.CryptoNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalization of the min/max prices of many symbols
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalizationBenchmark {
+
+    @Param({"10000"})
+    private int symbols;
+
+    private final CryptoNormalizer cryptoNormalizer = new CryptoNormalizer();
+
+    private double[] minPrices;
+    private double[] maxPrices;
+
+    @Setup
+    public void setup() {
+        var random = new SplittableRandom(42);
+        minPrices = new double[symbols];
+        maxPrices = new double[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            minPrices[symbol] = 1 + random.nextDouble(50_000);
+            maxPrices[symbol] = minPrices[symbol] * (1 + random.nextDouble());
+        }
+    }
+
+    @Benchmark
+    public double getNormalisedValue() {
+        double sum = 0;
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            sum += cryptoNormalizer.getNormalisedValue(minPrices[symbol], maxPrices[symbol]);
+        }
+        return sum;
+    }
+}
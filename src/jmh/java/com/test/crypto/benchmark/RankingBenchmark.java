@@ -0,0 +1,110 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.CryptoService;
+import com.test.crypto.service.CryptoSymbolRegistry;
+import com.test.crypto.service.CryptoValuesReader;
+import com.test.crypto.service.cache.CryptoResultCache;
+import com.test.crypto.service.memory.InMemoryPriceStore;
+import com.test.crypto.utils.CryptoNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalization ranking of all the symbols through {@link CryptoService}, with the storage replaced by in-memory stand-ins.
+ * The scan reader aggregates the raw ticks of the interval, like the Cassandra query, the memory reader is the
+ * MEMORY query backend. Without the cache every invocation recomputes the normalized values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Param({"100"})
+    private int symbols;
+
+    @Param({"10000"})
+    private int ticksPerSymbol;
+
+    @Param({"scan", "memory"})
+    private String reader;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private ExecutorService executor;
+    private CryptoService cryptoService;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setup() {
+        var tickStore = new InMemoryTickStore();
+        tickStore.saveAll(BenchmarkData.ticks(symbols * ticksPerSymbol, symbols));
+
+        var properties = new CryptoProperties();
+        properties.getCache().setMaximumSize(cached ? 1_000 : 0);
+
+        var symbolRegistry = new CryptoSymbolRegistry(tickStore);
+        symbolRegistry.refresh();
+
+        executor = Executors.newFixedThreadPool(properties.getQuery().getParallelism());
+        cryptoService = new CryptoService(tickStore, null, null, valuesReader(tickStore, properties), symbolRegistry, null,
+                new CryptoNormalizer(), properties, new CryptoResultCache(properties), event -> { }, executor);
+
+        start = BenchmarkData.start().atZone(ZoneOffset.UTC).toLocalDate().plusDays(1);
+        end = start.plusDays(3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private CryptoValuesReader valuesReader(InMemoryTickStore tickStore, CryptoProperties properties) {
+        if ("memory".equals(reader)) {
+            var priceStore = new InMemoryPriceStore(tickStore, null, properties);
+            priceStore.hydrate();
+            return priceStore;
+        }
+
+        return (symbol, first, last) -> tickStore.findPriceLimitsBySymbolInInterval(symbol,
+                first.atStartOfDay(ZoneOffset.UTC).toInstant(), last.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1));
+    }
+
+    @Benchmark
+    public List<String> fullRanking() {
+        return cryptoService.getCryptoListOrderedByNormalization(start, end, SortingOrder.DESC, 0, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<String> top10() {
+        return cryptoService.getCryptoListOrderedByNormalization(start, end, SortingOrder.DESC, 0, 10);
+    }
+
+    @Benchmark
+    public String highestNormalized() {
+        return cryptoService.getHighestNormalizedCryptoByDate(start);
+    }
+}
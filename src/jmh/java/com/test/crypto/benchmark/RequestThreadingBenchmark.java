@@ -0,0 +1,114 @@
+package com.test.crypto.benchmark;
+
+import com.test.crypto.CryptoApplication;
+import com.test.crypto.service.CryptoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load test of the request execution modes (crypto.threads.virtual). The service is started on the EMBEDDED
+ * storage engine, on a random port and without rate limit, and loaded with {@code symbols} symbols. Every benchmark
+ * thread is a client sending a GET request on a keep-alive connection and waiting for the response, the symbol of the
+ * request is drawn at random. /crypto/info/{symbol} reads the summary in memory, /crypto/analytics/{symbol} scans
+ * the prices of the symbol on the analytics executor and blocks the request thread until the scan ends.
+ * The Throughput mode reports the requests per millisecond, the SampleTime mode the latency percentiles (p0.99).
+ * Run with -jvmArgsAppend -Djdk.tracePinnedThreads=short to report the virtual threads pinned by a monitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final String SYMBOL = "{symbol}";
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    @Param({"/crypto/info/{symbol}", "/crypto/analytics/{symbol}?start=2022-01-01&end=2022-01-31"})
+    private String path;
+
+    @Param({"100"})
+    private int symbols;
+
+    @Param({"2000"})
+    private int ticksPerSymbol;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("crypto-requests-");
+        context = new SpringApplicationBuilder(CryptoApplication.class).run(
+                "--spring.profiles.active=embedded",
+                "--server.port=0",
+                "--bucket4j.enabled=false",
+                "--logging.level.root=WARN",
+                "--crypto.threads.virtual=" + virtual,
+                "--crypto.storage.embedded.directory=" + directory,
+                "--crypto.storage.embedded.fsync=false");
+
+        var ticks = BenchmarkData.ticks(symbols * ticksPerSymbol, symbols);
+        var cryptoService = context.getBean(CryptoService.class);
+        for (int from = 0; from < ticks.size(); from += 10_000) {
+            cryptoService.saveAll(ticks.subList(from, Math.min(from + 10_000, ticks.size())));
+        }
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public String request() throws IOException, InterruptedException {
+        var symbol = BenchmarkData.symbol(ThreadLocalRandom.current().nextInt(symbols));
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + path.replace(SYMBOL, symbol))).GET().build();
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
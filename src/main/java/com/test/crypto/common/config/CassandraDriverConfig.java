@@ -0,0 +1,32 @@
+package com.test.crypto.common.config;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import org.springframework.boot.autoconfigure.cassandra.DriverConfigLoaderBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Driver options that spring.cassandra does not expose. The consistency, page size, timeout, throttling and pool
+ * heartbeat are set under spring.cassandra. The requests are routed by the default load balancing policy, which is
+ * token aware: the statements bound with their partition key go to a replica of the partition.
+ */
+@Configuration
+@ConditionalOnCassandraStorage
+public class CassandraDriverConfig {
+
+    @Bean
+    public DriverConfigLoaderBuilderCustomizer cryptoDriverConfigCustomizer(CryptoProperties cryptoProperties) {
+        var driverProperties = cryptoProperties.getDriver();
+        return builder -> {
+            builder.withInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE, driverProperties.getLocalConnections())
+                    .withInt(DefaultDriverOption.CONNECTION_MAX_REQUESTS, driverProperties.getMaxRequestsPerConnection());
+            // Only the idempotent statements are executed speculatively. The policy is named like in the driver
+            // configuration, so the internal class of the driver is not referenced
+            if (driverProperties.getMaxSpeculativeExecutions() > 0) {
+                builder.withString(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, "ConstantSpeculativeExecutionPolicy")
+                        .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, driverProperties.getMaxSpeculativeExecutions() + 1)
+                        .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, driverProperties.getSpeculativeDelay());
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.test.crypto.common.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers the bean only when the crypto entries are stored by the EMBEDDED storage engine.
+ * It can be combined with a {@link ConditionalOnProperty} on another property.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ConditionalOnProperty(name = "crypto.storage.engine", havingValue = "EMBEDDED")
+public @interface ConditionalOnEmbeddedStorage {
+}
@@ -0,0 +1,293 @@
+package com.test.crypto.common.config;
+
+import com.test.crypto.domain.enums.EmbeddedFormat;
+import com.test.crypto.domain.enums.QueryBackend;
+import com.test.crypto.domain.enums.StorageEngine;
+import com.test.crypto.domain.enums.StorageLayout;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "crypto")
+public class CryptoProperties {
+
+    private final Query query = new Query();
+    private final Ingest ingest = new Ingest();
+    private final Upload upload = new Upload();
+    private final Feed feed = new Feed();
+    private final Cache cache = new Cache();
+    private final Stream stream = new Stream();
+    private final Analytics analytics = new Analytics();
+    private final Storage storage = new Storage();
+    private final Threads threads = new Threads();
+    private final Driver driver = new Driver();
+
+    @Data
+    public static class Query {
+        /**
+         * Maximum number of symbol queries running at the same time
+         */
+        private int parallelism = 32;
+
+        /**
+         * Maximum duration of a single symbol query, counted from its submission so the wait for a free worker is
+         * included. A query still waiting or running when it expires is cancelled.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        /**
+         * Source of the interval values: ROLLUP reads the daily rollups, MEMORY keeps every price in memory
+         */
+        private QueryBackend backend = QueryBackend.ROLLUP;
+
+        /**
+         * Number of crypto entries read together when the MEMORY backend is loaded or the rollups are rebuilt
+         */
+        private int hydrationPageSize = 5_000;
+    }
+
+    @Data
+    public static class Ingest {
+        /**
+         * Number of CSV rows parsed, mapped and saved together. It bounds the memory used by an upload.
+         */
+        private int chunkSize = 10_000;
+
+        /**
+         * Maximum number of rows of an unlogged batch. A batch only contains rows of the same symbol partition.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Maximum number of batches sent and not yet acknowledged. The writers wait when the limit is reached.
+         */
+        private int maxInFlightBatches = 64;
+
+        /**
+         * Number of times a batch is resent after a transient failure (timeout, unavailable or overloaded nodes)
+         */
+        private int maxRetries = 3;
+
+        /**
+         * Delay before the first retry of a batch. It doubles with every retry.
+         */
+        private Duration retryBackoff = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class Upload {
+        /**
+         * Directory where the uploaded files wait for their processing. A file is deleted once its job is finished.
+         */
+        private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "crypto-uploads");
+
+        /**
+         * Number of uploads processed at the same time
+         */
+        private int workers = 2;
+
+        /**
+         * Maximum number of uploads waiting for a worker. The uploads are refused when the queue is full.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Number of CSV files parsed at the same time, by all the uploads
+         */
+        private int parseParallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Maximum number of parsed rows buffered or being saved, by all the uploads. A row takes about 100 bytes.
+         * The rows are split evenly between the upload workers, each upload waiting only for its own saves.
+         */
+        private int maxRowsInFlight = 200_000;
+
+        /**
+         * Number of rejected rows kept as samples by an upload job
+         */
+        private int rejectedSamples = 10;
+
+        /**
+         * Time a finished upload job can still be polled
+         */
+        private Duration retention = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Feed {
+        /**
+         * Maximum number of ticks of the live feeds saved together
+         */
+        private int maxBatchSize = 1_000;
+
+        /**
+         * Maximum time a tick waits for its batch to be full before the batch is saved anyway
+         */
+        private Duration maxLatency = Duration.ofMillis(200);
+
+        /**
+         * Maximum number of ticks accepted and not saved yet. The requests are refused when the limit is reached.
+         */
+        private int maxPendingTicks = 100_000;
+
+        /**
+         * Maximum number of ticks of a single request
+         */
+        private int maxRequestTicks = 10_000;
+
+        /**
+         * Number of batches saved at the same time
+         */
+        private int flushThreads = 2;
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * Maximum number of periods whose normalized values are cached
+         */
+        private long maximumSize = 1_000;
+
+        /**
+         * Time to live of a cached result. The entries are also evicted when an overlapping ingestion happens.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Stream {
+        /**
+         * Maximum number of ranking streams open at the same time, by all the clients
+         */
+        private int maxSubscribers = 1_000;
+
+        /**
+         * Time after which a ranking stream is closed by the server. The clients reconnect to get a fresh snapshot.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Analytics {
+        /**
+         * Maximum number of symbols scanned at the same time by the analytics
+         */
+        private int parallelism = 16;
+
+        /**
+         * Number of crypto entries read together while scanning a symbol
+         */
+        private int pageSize = 5_000;
+
+        /**
+         * Maximum duration of the scan of a single symbol, counted from its submission so the wait for a free worker
+         * is included. A scan still waiting or running when it expires is cancelled.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Storage {
+        /**
+         * Storage engine of the crypto entries, rollups and summaries. EMBEDDED runs without Cassandra.
+         */
+        private StorageEngine engine = StorageEngine.CASSANDRA;
+
+        /**
+         * Partition layout of the crypto entries. SYMBOL_MONTH bounds the partitions to one month of prices per symbol.
+         */
+        private StorageLayout layout = StorageLayout.SYMBOL;
+
+        private final Migration migration = new Migration();
+        private final Backfill backfill = new Backfill();
+        private final Embedded embedded = new Embedded();
+    }
+
+    @Data
+    public static class Backfill {
+        /**
+         * Rebuild at startup the daily rollups and the summaries of the symbols stored before they existed
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Migration {
+        /**
+         * Copy the crypto entries of the symbol partitions into the month partitions at startup
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of crypto entries read from a symbol partition and written to the month partitions together
+         */
+        private int pageSize = 5_000;
+    }
+
+    @Data
+    public static class Embedded {
+        /**
+         * File format of the crypto entries. MAPPED keeps one memory-mapped file per symbol, for long scans.
+         * Its prices older than the last one of their symbol go to an overflow, merged into the file once it holds
+         * an eighth of the prices, so an upload out of order rewrites the file a few times.
+         */
+        private EmbeddedFormat format = EmbeddedFormat.SEGMENTS;
+
+        /**
+         * Directory of the segment or symbol files of the EMBEDDED storage engine
+         */
+        private Path directory = Path.of("data", "crypto");
+
+        /**
+         * Size beyond which a new segment file is started
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Maximum number of prices of a block. A block is the unit of the sparse index, read entirely by the queries.
+         * In the MAPPED format, it is the number of prices summarized by an entry of the block index of a symbol file.
+         */
+        private int blockSize = 1_024;
+
+        /**
+         * Wait until the saved prices are on the disk. Without it, a crash can lose the last saves.
+         */
+        private boolean fsync = true;
+    }
+
+    @Data
+    public static class Threads {
+        /**
+         * Handle the requests and run the per symbol queries on virtual threads. The pools keep their size,
+         * which still caps the concurrent Cassandra round trips.
+         */
+        private boolean virtual = false;
+    }
+
+    @Data
+    public static class Driver {
+        /**
+         * Number of connections opened to each node of the local datacenter
+         */
+        private int localConnections = 1;
+
+        /**
+         * Maximum number of requests sent at the same time on a single connection
+         */
+        private int maxRequestsPerConnection = 1_024;
+
+        /**
+         * Maximum number of extra executions of a slow idempotent request, sent to the next replicas. 0 disables them.
+         */
+        private int maxSpeculativeExecutions = 1;
+
+        /**
+         * Time without a response after which the next speculative execution is sent
+         */
+        private Duration speculativeDelay = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,76 @@
+package com.test.crypto.common.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool used to fan out the per symbol queries. Its size caps the number of concurrent Cassandra round trips.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cryptoQueryExecutor(CryptoProperties cryptoProperties) {
+        return Executors.newFixedThreadPool(cryptoProperties.getQuery().getParallelism(), queryThreadFactory(cryptoProperties, "crypto-query-"));
+    }
+
+    /**
+     * Bounded pool scanning the prices of the symbols for the analytics, apart from the query pool,
+     * so the long scans never hold the rankings
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cryptoAnalyticsExecutor(CryptoProperties cryptoProperties) {
+        return Executors.newFixedThreadPool(cryptoProperties.getAnalytics().getParallelism(), queryThreadFactory(cryptoProperties, "crypto-analytics-"));
+    }
+
+    /**
+     * Bounded pool processing the uploaded files, with a bounded queue. A submission is rejected when the queue is full.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cryptoUploadExecutor(CryptoProperties cryptoProperties) {
+        var uploadProperties = cryptoProperties.getUpload();
+        return new ThreadPoolExecutor(uploadProperties.getWorkers(), uploadProperties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(uploadProperties.getQueueCapacity()), new CustomizableThreadFactory("crypto-upload-"));
+    }
+
+    /**
+     * Pool saving the batches of the live feed ticks, either when they are full or when their latency expires
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService cryptoFeedExecutor(CryptoProperties cryptoProperties) {
+        return Executors.newScheduledThreadPool(cryptoProperties.getFeed().getFlushThreads(), new CustomizableThreadFactory("crypto-feed-"));
+    }
+
+    /**
+     * Single thread sending the ranking stream events, so a slow client never holds an ingestion
+     * and every client receives its events in order
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cryptoStreamExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("crypto-stream-"));
+    }
+
+    /**
+     * Work-stealing pool parsing the files of the uploads, shared by all the upload workers
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cryptoParseExecutor(CryptoProperties cryptoProperties) {
+        return Executors.newWorkStealingPool(cryptoProperties.getUpload().getParseParallelism());
+    }
+
+    /**
+     * Threads of the pools blocking on Cassandra, virtual when crypto.threads.virtual is enabled
+     */
+    private static ThreadFactory queryThreadFactory(CryptoProperties cryptoProperties, String prefix) {
+        return cryptoProperties.getThreads().isVirtual() ? Thread.ofVirtual().name(prefix, 1).factory() : new CustomizableThreadFactory(prefix);
+    }
+}
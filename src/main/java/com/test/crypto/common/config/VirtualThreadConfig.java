@@ -0,0 +1,24 @@
+package com.test.crypto.common.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in handling of the requests on virtual threads, enabled by crypto.threads.virtual.
+ * The handlers block on the Cassandra round trips, so a virtual thread per request keeps accepting requests
+ * where the bounded Tomcat pool would be exhausted by threads waiting on I/O.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "crypto.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
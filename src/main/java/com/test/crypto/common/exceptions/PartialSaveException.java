@@ -0,0 +1,19 @@
+package com.test.crypto.common.exceptions;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Failure of a save after a part of the crypto entries was written, so their derived values can still be updated
+ */
+@Getter
+public class PartialSaveException extends InternalException {
+    private final transient List<CryptoEntity> savedCryptoList;
+
+    public PartialSaveException(String message, List<CryptoEntity> savedCryptoList) {
+        super(message);
+        this.savedCryptoList = List.copyOf(savedCryptoList);
+    }
+}
@@ -0,0 +1,7 @@
+package com.test.crypto.common.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -3,7 +3,9 @@ package com.test.crypto.common.exceptions.handler;
 import com.test.crypto.common.exceptions.BadRequestException;
 import com.test.crypto.common.exceptions.InternalException;
 import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
 import com.test.crypto.common.exceptions.dto.ApiError;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -29,6 +31,17 @@ public class RestErrorHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * The bodies of the generated interfaces are validated against the required fields of the API models
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public static ResponseEntity<ApiError> handleConstraintViolationException(
+            ConstraintViolationException exception) {
+        ApiError error = new ApiError(HttpStatus.BAD_REQUEST.value(), exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(InternalException.class)
     public static ResponseEntity<ApiError> handleInternalException(
             InternalException exception) {
@@ -36,4 +49,12 @@ public class RestErrorHandler extends ResponseEntityExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public static ResponseEntity<ApiError> handleServiceUnavailableException(
+            ServiceUnavailableException exception) {
+        ApiError error = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
 }
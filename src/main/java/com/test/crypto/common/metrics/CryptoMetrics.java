@@ -0,0 +1,71 @@
+package com.test.crypto.common.metrics;
+
+import com.test.crypto.utils.csv.CsvParseResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Application meters, exposed with the Spring ones on {@code /actuator/prometheus}.
+ * The latency of every API operation is already recorded by Spring as {@code http.server.requests}, tagged with the URI.
+ */
+@Component
+@RequiredArgsConstructor
+public class CryptoMetrics {
+
+    public static final String QUERY_TIMER = "crypto.repository.query";
+    public static final String INGEST_ROWS = "crypto.ingest.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Run a storage query and record its duration, tagged with the query name
+     */
+    public <T> T timeQuery(String query, Supplier<T> call) {
+        return Timer.builder(QUERY_TIMER)
+                .description("Duration of the storage queries")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(call);
+    }
+
+    /**
+     * Count the rows parsed and rejected by an upload. The rows written are counted by the batch writer.
+     */
+    public void recordUpload(CsvParseResult parseResult) {
+        ingestRows("parsed").increment(parseResult.accepted());
+        ingestRows("rejected").increment(parseResult.rejected());
+    }
+
+    /**
+     * Count the ticks received from the live feeds
+     */
+    public void recordFeedTicks(int ticks) {
+        ingestRows("received").increment(ticks);
+    }
+
+    /**
+     * Count the ticks of the live feeds lost because their batch could not be saved
+     */
+    public void recordFeedFailure(int ticks) {
+        ingestRows("failed").increment(ticks);
+    }
+
+    /**
+     * Count the rows skipped because they were already stored or repeated in the same chunk
+     */
+    public void recordDuplicates(int rows) {
+        ingestRows("duplicate").increment(rows);
+    }
+
+    private Counter ingestRows(String outcome) {
+        return Counter.builder(INGEST_ROWS)
+                .description("Number of ingested CSV rows, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
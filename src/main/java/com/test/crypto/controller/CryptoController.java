@@ -1,42 +1,68 @@
 package com.test.crypto.controller;
 
+import com.test.crypto.commons.model.CryptoAnalyticsDto;
 import com.test.crypto.commons.model.CryptoValuesDto;
+import com.test.crypto.commons.model.NormalizedCryptoDto;
 import com.test.crypto.commons.model.SortingOrderDto;
 import com.test.crypto.commons.ports.application.CryptoApi;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.CryptoAnalyticsService;
 import com.test.crypto.service.CryptoService;
 import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.stream.RankingStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static com.test.crypto.controller.CryptoRequestParams.getEnd;
+import static com.test.crypto.controller.CryptoRequestParams.getLimit;
+import static com.test.crypto.controller.CryptoRequestParams.getOffset;
+import static com.test.crypto.controller.CryptoRequestParams.getStart;
+
 @RestController
 @RequiredArgsConstructor
 public class CryptoController implements CryptoApi {
 
     private final CryptoService cryptoService;
     private final CryptoMapper cryptoMapper;
+    private final RankingStreamService rankingStreamService;
+    private final CryptoAnalyticsService cryptoAnalyticsService;
 
     @Override
-    public ResponseEntity<List<String>> getCryptoListOrderedByNormalization(Optional<LocalDate> start, Optional<LocalDate> end, Optional<SortingOrderDto> sortingOrder) {
-        if (start.isEmpty()) {
-            start = Optional.of(LocalDate.now().minusMonths(1));
-        }
-
-        if (end.isEmpty()) {
-            end = Optional.of(LocalDate.now());
-        }
+    public ResponseEntity<List<String>> getCryptoListOrderedByNormalization(Optional<LocalDate> start, Optional<LocalDate> end, Optional<SortingOrderDto> sortingOrder,
+                                                                            Optional<Integer> limit, Optional<Integer> offset) {
+        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(getStart(start), getEnd(end), getSortingOrder(sortingOrder),
+                getOffset(offset), getLimit(limit));
+        return new ResponseEntity<>(cryptoListOrderedByNormalization, HttpStatus.OK);
+    }
 
-        if (sortingOrder.isEmpty()) {
-            sortingOrder = Optional.of(SortingOrderDto.DESC);
-        }
+    @Override
+    public ResponseEntity<List<NormalizedCryptoDto>> getNormalizedCryptoList(Optional<LocalDate> start, Optional<LocalDate> end, Optional<SortingOrderDto> sortingOrder,
+                                                                             Optional<Integer> limit, Optional<Integer> offset) {
+        var normalizedCryptoList = cryptoService.getNormalizedCryptoList(getStart(start), getEnd(end), getSortingOrder(sortingOrder),
+                getOffset(offset), getLimit(limit));
+        return new ResponseEntity<>(cryptoMapper.toDtoList(normalizedCryptoList), HttpStatus.OK);
+    }
 
-        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(start.get(), end.get(), cryptoMapper.fromDto(sortingOrder.get()));
-        return new ResponseEntity<>(cryptoListOrderedByNormalization, HttpStatus.OK);
+    /**
+     * Server-Sent Events stream of the normalization ranking of a period. It is not part of the generated API,
+     * which cannot return an emitter; its events are described by the RankedCrypto and RankingUpdate models.
+     */
+    @GetMapping(value = "/crypto/normalize/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNormalizedCryptoList(@RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> start,
+                                                 @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end,
+                                                 @RequestParam(value = "order", required = false) Optional<SortingOrderDto> sortingOrder) {
+        return rankingStreamService.subscribe(getStart(start), getEnd(end), getSortingOrder(sortingOrder));
     }
 
     @Override
@@ -45,10 +71,31 @@ public class CryptoController implements CryptoApi {
         return new ResponseEntity<>(highestNormalizedCryptoByDate, HttpStatus.OK);
     }
 
+    @Override
+    public ResponseEntity<List<String>> getCryptoSymbols() {
+        return new ResponseEntity<>(cryptoService.getCryptoSymbols(), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<CryptoValuesDto> getCryptoValuesBySymbol(String symbol) {
         var cryptoValuesBySymbol = cryptoService.getCryptoValuesBySymbol(symbol);
         var cryptoValuesDto = cryptoMapper.toDto(cryptoValuesBySymbol);
         return new ResponseEntity<>(cryptoValuesDto, HttpStatus.OK);
     }
+
+    @Override
+    public ResponseEntity<List<CryptoAnalyticsDto>> getCryptoAnalytics(Optional<LocalDate> start, Optional<LocalDate> end) {
+        var cryptoAnalytics = cryptoAnalyticsService.getCryptoAnalytics(getStart(start), getEnd(end));
+        return new ResponseEntity<>(cryptoMapper.toAnalyticsDtoList(cryptoAnalytics), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<CryptoAnalyticsDto> getCryptoAnalyticsBySymbol(String symbol, Optional<LocalDate> start, Optional<LocalDate> end) {
+        var cryptoAnalytics = cryptoAnalyticsService.getCryptoAnalyticsBySymbol(symbol, getStart(start), getEnd(end));
+        return new ResponseEntity<>(cryptoMapper.toDto(cryptoAnalytics), HttpStatus.OK);
+    }
+
+    private SortingOrder getSortingOrder(Optional<SortingOrderDto> sortingOrder) {
+        return cryptoMapper.fromDto(sortingOrder.orElse(SortingOrderDto.DESC));
+    }
 }
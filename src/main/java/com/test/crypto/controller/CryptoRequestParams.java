@@ -0,0 +1,37 @@
+package com.test.crypto.controller;
+
+import com.test.crypto.common.exceptions.BadRequestException;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Defaults and checks of the query parameters shared by the blocking and the reactive crypto endpoints
+ */
+final class CryptoRequestParams {
+
+    private CryptoRequestParams() {
+    }
+
+    static LocalDate getStart(Optional<LocalDate> start) {
+        return start.orElseGet(() -> LocalDate.now().minusMonths(1));
+    }
+
+    static LocalDate getEnd(Optional<LocalDate> end) {
+        return end.orElseGet(LocalDate::now);
+    }
+
+    static int getLimit(Optional<Integer> limit) {
+        if (limit.isPresent() && limit.get() < 1) {
+            throw new BadRequestException("The limit must be at least 1.");
+        }
+        return limit.orElse(Integer.MAX_VALUE);
+    }
+
+    static int getOffset(Optional<Integer> offset) {
+        if (offset.isPresent() && offset.get() < 0) {
+            throw new BadRequestException("The offset must be at least 0.");
+        }
+        return offset.orElse(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.test.crypto.controller;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.commons.model.CryptoValuesDto;
+import com.test.crypto.commons.model.NormalizedCryptoDto;
+import com.test.crypto.commons.model.SortingOrderDto;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.ReactiveCryptoService;
+import com.test.crypto.service.mapper.CryptoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.test.crypto.controller.CryptoRequestParams.getEnd;
+import static com.test.crypto.controller.CryptoRequestParams.getLimit;
+import static com.test.crypto.controller.CryptoRequestParams.getOffset;
+import static com.test.crypto.controller.CryptoRequestParams.getStart;
+
+/**
+ * Non-blocking equivalent of {@link CryptoController}, under /reactive. The handlers return a {@link Mono},
+ * so the request thread is released while Cassandra answers, and the response is written once the values are merged.
+ * It is not part of the generated API, whose interfaces return the responses synchronously.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+@RequestMapping(value = "/reactive", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ReactiveCryptoController {
+
+    private final ReactiveCryptoService reactiveCryptoService;
+    private final CryptoMapper cryptoMapper;
+
+    @GetMapping("/crypto/normalize")
+    public Mono<ResponseEntity<List<String>>> getCryptoListOrderedByNormalization(@RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> start,
+                                                                                  @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end,
+                                                                                  @RequestParam(value = "order", required = false) Optional<SortingOrderDto> sortingOrder,
+                                                                                  @RequestParam(value = "limit", required = false) Optional<Integer> limit,
+                                                                                  @RequestParam(value = "offset", required = false) Optional<Integer> offset) {
+        return reactiveCryptoService.getCryptoListOrderedByNormalization(getStart(start), getEnd(end), getSortingOrder(sortingOrder), getOffset(offset), getLimit(limit))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/crypto/normalize/values")
+    public Mono<ResponseEntity<List<NormalizedCryptoDto>>> getNormalizedCryptoList(@RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> start,
+                                                                                   @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end,
+                                                                                   @RequestParam(value = "order", required = false) Optional<SortingOrderDto> sortingOrder,
+                                                                                   @RequestParam(value = "limit", required = false) Optional<Integer> limit,
+                                                                                   @RequestParam(value = "offset", required = false) Optional<Integer> offset) {
+        return reactiveCryptoService.getNormalizedCryptoList(getStart(start), getEnd(end), getSortingOrder(sortingOrder), getOffset(offset), getLimit(limit))
+                .map(normalizedCryptoList -> ResponseEntity.ok(cryptoMapper.toDtoList(normalizedCryptoList)));
+    }
+
+    @GetMapping("/crypto/normalize/highest")
+    public Mono<ResponseEntity<String>> getHighestNormalizedCryptoByDate(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return reactiveCryptoService.getHighestNormalizedCryptoByDate(date)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/crypto/info/{symbol}")
+    public Mono<ResponseEntity<CryptoValuesDto>> getCryptoValuesBySymbol(@PathVariable("symbol") String symbol) {
+        return reactiveCryptoService.getCryptoValuesBySymbol(symbol)
+                .map(cryptoValues -> ResponseEntity.ok(cryptoMapper.toDto(cryptoValues)));
+    }
+
+    @GetMapping("/crypto/symbols")
+    public Mono<ResponseEntity<List<String>>> getCryptoSymbols() {
+        return reactiveCryptoService.getCryptoSymbols()
+                .map(ResponseEntity::ok);
+    }
+
+    private SortingOrder getSortingOrder(Optional<SortingOrderDto> sortingOrder) {
+        return cryptoMapper.fromDto(sortingOrder.orElse(SortingOrderDto.DESC));
+    }
+}
@@ -0,0 +1,95 @@
+package com.test.crypto.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.BadRequestException;
+import com.test.crypto.commons.model.TickDto;
+import com.test.crypto.commons.model.TickIngestResultDto;
+import com.test.crypto.commons.ports.application.IngestApi;
+import com.test.crypto.service.TickIngestService;
+import com.test.crypto.service.mapper.CryptoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TickIngestController implements IngestApi {
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final TickIngestService tickIngestService;
+    private final CryptoMapper cryptoMapper;
+    private final CryptoProperties cryptoProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ResponseEntity<TickIngestResultDto> ingestTicks(List<TickDto> ticks) {
+        if (ticks == null || ticks.isEmpty()) {
+            throw new BadRequestException("No tick was sent.");
+        }
+        checkSize(ticks.size());
+        for (int index = 0; index < ticks.size(); index++) {
+            validate(index + 1, ticks.get(index));
+        }
+
+        return accept(ticks);
+    }
+
+    /**
+     * Same as {@link #ingestTicks(List)}, with one tick per line. It is mapped by hand, since the generated interface
+     * binds a single body type per operation and Jackson reads the lines one by one.
+     */
+    @PostMapping(value = "/ingest/ticks", consumes = APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TickIngestResultDto> ingestNdjsonTicks(InputStream body) throws IOException {
+        var ticks = new ArrayList<TickDto>();
+        try (var lines = objectMapper.readerFor(TickDto.class).<TickDto>readValues(body)) {
+            while (lines.hasNextValue()) {
+                var tick = lines.nextValue();
+                checkSize(ticks.size() + 1);
+                validate(ticks.size() + 1, tick);
+                ticks.add(tick);
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Tick " + (ticks.size() + 1) + " is not a valid JSON object.");
+        }
+
+        if (ticks.isEmpty()) {
+            throw new BadRequestException("No tick was sent.");
+        }
+        return accept(ticks);
+    }
+
+    private ResponseEntity<TickIngestResultDto> accept(List<TickDto> ticks) {
+        tickIngestService.submit(cryptoMapper.fromTickDtoList(ticks));
+        return new ResponseEntity<>(new TickIngestResultDto(ticks.size()), HttpStatus.ACCEPTED);
+    }
+
+    private void checkSize(int ticks) {
+        var maxRequestTicks = cryptoProperties.getFeed().getMaxRequestTicks();
+        if (ticks > maxRequestTicks) {
+            throw new BadRequestException("At most " + maxRequestTicks + " ticks can be sent in a request.");
+        }
+    }
+
+    /**
+     * The NDJSON ticks are not checked by the bean validation, so both formats are checked here
+     */
+    private static void validate(int position, TickDto tick) {
+        if (tick == null || tick.getTimestamp() == null || tick.getSymbol() == null || tick.getSymbol().isBlank() || tick.getPrice() == null) {
+            throw new BadRequestException("Tick " + position + " must have a timestamp, a symbol and a price.");
+        }
+        if (!Double.isFinite(tick.getPrice()) || tick.getPrice() <= 0) {
+            throw new BadRequestException("Tick " + position + " must have a strictly positive price.");
+        }
+    }
+}
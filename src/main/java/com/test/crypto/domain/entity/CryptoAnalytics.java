@@ -0,0 +1,29 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Statistics of the prices of a symbol within a period. The returns are between consecutive prices,
+ * the volatility is their standard deviation and the drawdown is relative to the highest price seen before.
+ */
+@Data
+@Builder
+public class CryptoAnalytics {
+    private String symbol;
+    private Long count;
+    private Instant first;
+    private Double firstPrice;
+    private Instant last;
+    private Double lastPrice;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double totalReturn;
+    private Double meanPrice;
+    private Double priceStandardDeviation;
+    private Double meanReturn;
+    private Double volatility;
+    private Double maxDrawdown;
+}
@@ -0,0 +1,64 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+/**
+ * Crypto entry partitioned by symbol and UTC month, so the size of a partition is bounded by one month of prices
+ * whatever the history of the symbol is. The month bucket is stored as yyyyMM, e.g. 202201.
+ */
+@Data
+@Builder
+@Table("crypto_by_month")
+public class CryptoBucketedEntity {
+    @PrimaryKeyColumn(
+            name = "symbol",
+            ordinal = 0,
+            type = PrimaryKeyType.PARTITIONED)
+    private String symbol;
+
+    @PrimaryKeyColumn(
+            name = "month",
+            ordinal = 1,
+            type = PrimaryKeyType.PARTITIONED)
+    private Integer month;
+
+    @PrimaryKeyColumn(
+            name = "timestamp",
+            ordinal = 2,
+            type = PrimaryKeyType.CLUSTERED)
+    private Instant timestamp;
+
+    @Column
+    private Double price;
+
+    /**
+     * @return The month bucket containing the timestamp
+     */
+    public static int monthOf(Instant timestamp) {
+        return monthOf(YearMonth.from(timestamp.atZone(ZoneOffset.UTC)));
+    }
+
+    /**
+     * @return The month buckets overlapping the interval, in chronological order
+     */
+    public static Stream<Integer> monthsBetween(LocalDate start, LocalDate end) {
+        var last = YearMonth.from(end);
+        return Stream.iterate(YearMonth.from(start), month -> !month.isAfter(last), month -> month.plusMonths(1))
+                .map(CryptoBucketedEntity::monthOf);
+    }
+
+    private static int monthOf(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+}
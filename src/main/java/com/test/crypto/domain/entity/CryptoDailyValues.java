@@ -0,0 +1,53 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Per symbol, per UTC day rollup of the crypto prices. It is maintained at ingest time, so the interval
+ * queries can merge a few daily rows instead of aggregating every price of the interval.
+ */
+@Data
+@Builder
+@Table("crypto_daily")
+public class CryptoDailyValues {
+    @PrimaryKeyColumn(
+            name = "symbol",
+            ordinal = 0,
+            type = PrimaryKeyType.PARTITIONED)
+    private String symbol;
+
+    @PrimaryKeyColumn(
+            name = "day",
+            ordinal = 1,
+            type = PrimaryKeyType.CLUSTERED)
+    private LocalDate day;
+
+    @Column
+    private Double minPrice;
+
+    @Column
+    private Double maxPrice;
+
+    @Column
+    private Instant firstTimestamp;
+
+    @Column
+    private Double firstPrice;
+
+    @Column
+    private Instant lastTimestamp;
+
+    @Column
+    private Double lastPrice;
+
+    @Column
+    private Long count;
+}
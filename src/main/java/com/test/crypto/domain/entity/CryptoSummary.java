@@ -0,0 +1,37 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * All time oldest/newest/min/max values of a crypto symbol. It is maintained at ingest time, so reading the values
+ * of a symbol does not aggregate its whole history.
+ */
+@Data
+@Builder
+@Table("crypto_summary")
+public class CryptoSummary {
+    @PrimaryKeyColumn(
+            name = "symbol",
+            ordinal = 0,
+            type = PrimaryKeyType.PARTITIONED)
+    private String symbol;
+
+    @Column
+    private Double minPrice;
+
+    @Column
+    private Double maxPrice;
+
+    @Column
+    private Instant oldest;
+
+    @Column
+    private Instant newest;
+}
@@ -0,0 +1,11 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NormalizedCrypto {
+    private String symbol;
+    private Double normalizedValue;
+}
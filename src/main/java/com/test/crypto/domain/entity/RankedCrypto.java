@@ -0,0 +1,14 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RankedCrypto {
+    private String symbol;
+    private Double normalizedValue;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer rank;
+}
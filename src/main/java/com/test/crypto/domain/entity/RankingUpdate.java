@@ -0,0 +1,20 @@
+package com.test.crypto.domain.entity;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Change of the ranking of a symbol caused by an ingestion. The previous rank is null if the symbol just entered the period.
+ */
+@Data
+@Builder
+public class RankingUpdate {
+    private String symbol;
+    private Double normalizedValue;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer rank;
+    private Integer previousRank;
+    private boolean newMinPrice;
+    private boolean newMaxPrice;
+}
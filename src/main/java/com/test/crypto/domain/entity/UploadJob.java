@@ -0,0 +1,147 @@
+package com.test.crypto.domain.entity;
+
+import com.test.crypto.domain.enums.UploadJobStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the processing of the CSV files uploaded together. The job is updated by the workers parsing the files
+ * and read concurrently by the status requests.
+ */
+@Getter
+public class UploadJob {
+
+    /**
+     * A row rejected by the parser
+     *
+     * @param file The name of the CSV file, or of the CSV entry of a ZIP archive
+     * @param line The line number in the file, the header being the line 1
+     * @param row The rejected row
+     */
+    public record RejectedRow(String file, long line, String row) {
+    }
+
+    private final UUID jobId;
+    private final List<String> files;
+    private final Instant submittedAt = Instant.now();
+    private final int maxRejectedSamples;
+
+    private volatile UploadJobStatus status = UploadJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger parsedFiles = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong accepted = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong duplicates = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rejected = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final List<RejectedRow> rejectedSamples = new ArrayList<>();
+
+    public UploadJob(UUID jobId, List<String> files, int maxRejectedSamples) {
+        this.jobId = jobId;
+        this.files = List.copyOf(files);
+        this.maxRejectedSamples = maxRejectedSamples;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = UploadJobStatus.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = UploadJobStatus.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = UploadJobStatus.FAILED;
+    }
+
+    /**
+     * Count a CSV file parsed to the end
+     */
+    public void fileParsed() {
+        parsedFiles.incrementAndGet();
+    }
+
+    /**
+     * Count the rows of a saved chunk
+     */
+    public void addAccepted(int rows) {
+        accepted.addAndGet(rows);
+    }
+
+    /**
+     * Count the rows of a chunk which were already stored
+     */
+    public void addDuplicates(int rows) {
+        duplicates.addAndGet(rows);
+    }
+
+    /**
+     * Count a rejected row and keep it if the samples are not full yet
+     */
+    public void reject(String file, long line, String row) {
+        rejected.incrementAndGet();
+        synchronized (rejectedSamples) {
+            if (rejectedSamples.size() < maxRejectedSamples) {
+                rejectedSamples.add(new RejectedRow(file, line, row));
+            }
+        }
+    }
+
+    public int getParsedFiles() {
+        return parsedFiles.get();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public List<RejectedRow> getRejectedSamples() {
+        synchronized (rejectedSamples) {
+            return List.copyOf(rejectedSamples);
+        }
+    }
+
+    /**
+     * @return The rows parsed per second, from the start of the processing until its end or now
+     */
+    public double getRowsPerSecond() {
+        var start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+
+        var end = finishedAt != null ? finishedAt : Instant.now();
+        var millis = Math.max(1, Duration.between(start, end).toMillis());
+        return (getAccepted() + getDuplicates() + getRejected()) * 1000d / millis;
+    }
+
+    public boolean isFinished() {
+        return status == UploadJobStatus.COMPLETED || status == UploadJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.test.crypto.domain.enums;
+
+/**
+ * File format of the EMBEDDED storage engine. The formats are not converted into each other.
+ */
+public enum EmbeddedFormat {
+    /**
+     * Segment files shared by all the symbols, written in blocks. Suited to many small saves of interleaved symbols.
+     */
+    SEGMENTS,
+    /**
+     * One memory-mapped file per symbol, with the prices sorted by timestamp. Suited to long scans.
+     */
+    MAPPED;
+}
@@ -0,0 +1,15 @@
+package com.test.crypto.domain.enums;
+
+/**
+ * Source of the crypto values of an interval, used by the normalization queries
+ */
+public enum QueryBackend {
+    /**
+     * The daily rollups stored in Cassandra
+     */
+    ROLLUP,
+    /**
+     * The prices held in memory, hydrated from Cassandra at startup
+     */
+    MEMORY;
+}
@@ -0,0 +1,15 @@
+package com.test.crypto.domain.enums;
+
+/**
+ * Storage engine of the crypto entries, rollups and summaries
+ */
+public enum StorageEngine {
+    /**
+     * The Cassandra tables, laid out by {@code crypto.storage.layout}
+     */
+    CASSANDRA,
+    /**
+     * Append-only segment files on the local disk, without any external infrastructure
+     */
+    EMBEDDED;
+}
@@ -0,0 +1,15 @@
+package com.test.crypto.domain.enums;
+
+/**
+ * Partition layout of the crypto entries
+ */
+public enum StorageLayout {
+    /**
+     * One partition per symbol, in the {@code crypto} table
+     */
+    SYMBOL,
+    /**
+     * One partition per symbol and UTC month, in the {@code crypto_by_month} table
+     */
+    SYMBOL_MONTH;
+}
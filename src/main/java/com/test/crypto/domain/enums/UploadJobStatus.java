@@ -0,0 +1,23 @@
+package com.test.crypto.domain.enums;
+
+/**
+ * Lifecycle of an upload job
+ */
+public enum UploadJobStatus {
+    /**
+     * The file is spooled and waits for a worker
+     */
+    QUEUED,
+    /**
+     * The file is being parsed and saved
+     */
+    RUNNING,
+    /**
+     * All the valid rows were saved
+     */
+    COMPLETED,
+    /**
+     * The processing stopped, the rows saved before the failure are kept
+     */
+    FAILED;
+}
@@ -0,0 +1,27 @@
+package com.test.crypto.domain.event;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published once a chunk of crypto entries has been saved. The listeners run synchronously, after the write.
+ *
+ * @param cryptoList The saved crypto entries
+ */
+public record CryptoIngestedEvent(List<CryptoEntity> cryptoList) {
+
+    /**
+     * @return The UTC days touched by the saved entries, grouped by symbol
+     */
+    public Map<String, Set<LocalDate>> getDaysBySymbol() {
+        return cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol,
+                        Collectors.mapping(cryptoEntity -> cryptoEntity.getTimestamp().atZone(ZoneOffset.UTC).toLocalDate(), Collectors.toSet())));
+    }
+}
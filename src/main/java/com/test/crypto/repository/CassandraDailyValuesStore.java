@@ -0,0 +1,33 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Stores the daily rollups in the {@code crypto_daily} table
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+public class CassandraDailyValuesStore implements CryptoDailyValuesStore {
+
+    private final CryptoDailyValuesRepository cryptoDailyValuesRepository;
+    private final CryptoStatements cryptoStatements;
+    private final CryptoMetrics cryptoMetrics;
+
+    @Override
+    public List<CryptoDailyValues> findBySymbolInInterval(String symbol, LocalDate start, LocalDate end) {
+        return cryptoMetrics.timeQuery("findDailyValuesBySymbolInInterval", () -> cryptoStatements.findDailyValuesBySymbolInInterval(symbol, start, end));
+    }
+
+    @Override
+    public void saveAll(List<CryptoDailyValues> dailyValues) {
+        cryptoMetrics.timeQuery("saveDailyValues", () -> cryptoDailyValuesRepository.saveAll(dailyValues));
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Stores the summaries in the {@code crypto_summary} table
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+public class CassandraSummaryStore implements CryptoSummaryStore {
+
+    private final CryptoSummaryRepository cryptoSummaryRepository;
+    private final CryptoMetrics cryptoMetrics;
+
+    @Override
+    public List<CryptoSummary> findAll() {
+        return cryptoMetrics.timeQuery("findAllSummaries", cryptoSummaryRepository::findAll);
+    }
+
+    @Override
+    public void save(CryptoSummary summary) {
+        cryptoMetrics.timeQuery("saveSummary", () -> cryptoSummaryRepository.save(summary));
+    }
+}
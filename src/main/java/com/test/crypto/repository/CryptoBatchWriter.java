@@ -0,0 +1,208 @@
+package com.test.crypto.repository;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.PartialSaveException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import com.test.crypto.domain.entity.CryptoEntity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Writes the crypto entries as unlogged batches grouped by partition, either the symbol partition of the
+ * {@code crypto} table or the symbol and month partition of the {@code crypto_by_month} table.
+ * A single partition unlogged batch is applied as one mutation by the replica, so a batch costs one round trip
+ * instead of one per row. The batches are sent asynchronously, with a bounded number of batches in flight.
+ */
+@Repository
+@ConditionalOnCassandraStorage
+public class CryptoBatchWriter implements MeterBinder {
+
+    private static final String INSERT_CRYPTO = "INSERT INTO crypto (symbol, timestamp, price) VALUES (?, ?, ?)";
+    private static final String INSERT_CRYPTO_BY_MONTH = "INSERT INTO crypto_by_month (symbol, month, timestamp, price) VALUES (?, ?, ?, ?)";
+
+    private final CqlSession cqlSession;
+    private final CryptoProperties.Ingest ingestProperties;
+    private final Semaphore inFlightBatches;
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong batchesFailed = new AtomicLong();
+
+    private final ConcurrentMap<String, PreparedStatement> insertStatements = new ConcurrentHashMap<>();
+
+    public CryptoBatchWriter(CqlSession cqlSession, CryptoProperties cryptoProperties) {
+        this.cqlSession = cqlSession;
+        this.ingestProperties = cryptoProperties.getIngest();
+        this.inFlightBatches = new Semaphore(ingestProperties.getMaxInFlightBatches());
+    }
+
+    /**
+     * Write the crypto entries in the {@code crypto} table and wait until all the batches are acknowledged.
+     * The caller is blocked while the in-flight limit is reached, which throttles the ingestion to the Cassandra pace.
+     *
+     * @param cryptoList The crypto entries
+     * @throws PartialSaveException If a batch failed after the others were written, with the rows written
+     */
+    public void write(List<CryptoEntity> cryptoList) {
+        write(cryptoList, INSERT_CRYPTO, CryptoEntity::getSymbol,
+                (insert, cryptoEntity) -> insert.bind(cryptoEntity.getSymbol(), cryptoEntity.getTimestamp(), cryptoEntity.getPrice()));
+    }
+
+    /**
+     * Write the crypto entries in the {@code crypto_by_month} table and wait until all the batches are acknowledged.
+     *
+     * @param cryptoList The crypto entries
+     */
+    public void writeBucketed(List<CryptoEntity> cryptoList) {
+        write(cryptoList, INSERT_CRYPTO_BY_MONTH, cryptoEntity -> Pair.of(cryptoEntity.getSymbol(), CryptoBucketedEntity.monthOf(cryptoEntity.getTimestamp())),
+                (insert, cryptoEntity) -> insert.bind(cryptoEntity.getSymbol(), CryptoBucketedEntity.monthOf(cryptoEntity.getTimestamp()),
+                        cryptoEntity.getTimestamp(), cryptoEntity.getPrice()));
+    }
+
+    private void write(List<CryptoEntity> cryptoList, String insertCql, Function<CryptoEntity, Object> partitionKey,
+                       BiFunction<PreparedStatement, CryptoEntity, BoundStatement> binder) {
+        var insert = getInsertStatement(insertCql);
+        var batches = cryptoList.stream()
+                .collect(Collectors.groupingBy(partitionKey))
+                .values().stream()
+                .flatMap(partitionRows -> split(partitionRows, ingestProperties.getBatchSize()))
+                .map(partitionRows -> Pair.of(partitionRows, writeBatch(partitionRows, cryptoEntity -> binder.apply(insert, cryptoEntity))))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(batches.stream().map(Pair::getRight).toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            var writtenRows = batches.stream()
+                    .filter(batch -> !batch.getRight().isCompletedExceptionally())
+                    .flatMap(batch -> batch.getLeft().stream())
+                    .toList();
+            if (writtenRows.isEmpty()) {
+                throw new InternalException("Crypto values could not be saved.");
+            }
+            throw new PartialSaveException("Crypto values could not be saved.", writtenRows);
+        }
+    }
+
+    /**
+     * @return The number of rows acknowledged by Cassandra since the start
+     */
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * @return The number of batches that failed after all the retries since the start
+     */
+    public long getBatchesFailed() {
+        return batchesFailed.get();
+    }
+
+    /**
+     * Expose the written rows and the failed batches as counters
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder(CryptoMetrics.INGEST_ROWS, rowsWritten, AtomicLong::get)
+                .description("Number of ingested CSV rows, by outcome")
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        FunctionCounter.builder("crypto.ingest.batches.failed", batchesFailed, AtomicLong::get)
+                .description("Number of batches that failed after all the retries")
+                .register(meterRegistry);
+    }
+
+    private CompletableFuture<Void> writeBatch(List<CryptoEntity> partitionRows, Function<CryptoEntity, BoundStatement> binder) {
+        var batch = BatchStatement.builder(BatchType.UNLOGGED)
+                .addStatements(partitionRows.stream()
+                        .<BatchableStatement<?>>map(binder)
+                        .toList())
+                .setIdempotence(true)
+                .build();
+
+        inFlightBatches.acquireUninterruptibly();
+
+        return execute(batch, 0)
+                .whenComplete((ignored, error) -> {
+                    inFlightBatches.release();
+                    if (error == null) {
+                        rowsWritten.addAndGet(partitionRows.size());
+                    } else {
+                        batchesFailed.incrementAndGet();
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> execute(BatchStatement batch, int attempt) {
+        return cqlSession.executeAsync(batch)
+                .toCompletableFuture()
+                .<Void>thenApply(resultSet -> null)
+                .exceptionallyCompose(error -> {
+                    var cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (attempt >= ingestProperties.getMaxRetries() || !isTransient(cause)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+
+                    var backoff = ingestProperties.getRetryBackoff().toMillis() << attempt;
+                    return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> execute(batch, attempt + 1));
+                });
+    }
+
+    private static <T> Stream<List<T>> split(List<T> rows, int batchSize) {
+        return IntStream.range(0, (rows.size() + batchSize - 1) / batchSize)
+                .mapToObj(batch -> rows.subList(batch * batchSize, Math.min(rows.size(), (batch + 1) * batchSize)));
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return error instanceof DriverTimeoutException
+                || error instanceof WriteTimeoutException
+                || error instanceof UnavailableException
+                || error instanceof OverloadedException
+                || error instanceof AllNodesFailedException;
+    }
+
+    /**
+     * The statements are prepared on the first write, after the schema has been created. The round trip is made
+     * outside the map, so the writer thread does not block in its bin lock; the first statement stored wins.
+     */
+    private PreparedStatement getInsertStatement(String insertCql) {
+        var statement = insertStatements.get(insertCql);
+        if (statement != null) {
+            return statement;
+        }
+
+        var prepared = cqlSession.prepare(insertCql);
+        var stored = insertStatements.putIfAbsent(insertCql, prepared);
+        return stored != null ? stored : prepared;
+    }
+}
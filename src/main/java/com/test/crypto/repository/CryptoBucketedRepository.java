@@ -0,0 +1,23 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import org.springframework.data.cassandra.repository.CassandraRepository;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CryptoBucketedRepository extends CassandraRepository<CryptoBucketedEntity, String> {
+
+    @Query("SELECT DISTINCT symbol, month FROM crypto_by_month")
+    List<CryptoBucketedEntity> findAllPartitions();
+
+    Slice<CryptoBucketedEntity> findBySymbolAndMonth(String symbol, Integer month, Pageable pageable);
+
+    @Query("SELECT * FROM crypto_by_month WHERE symbol = ?0 AND month = ?1 AND timestamp >= ?2 AND timestamp <= ?3")
+    Slice<CryptoBucketedEntity> findBySymbolAndMonthInInterval(String symbol, int month, Instant start, Instant end, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import org.springframework.data.cassandra.repository.CassandraRepository;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CryptoDailyValuesRepository extends CassandraRepository<CryptoDailyValues, String> {
+
+    @Query("SELECT * FROM crypto_daily WHERE symbol = ?0 ORDER BY day ASC LIMIT 1")
+    Optional<CryptoDailyValues> findFirstDayBySymbol(String symbol);
+
+    @Query("SELECT * FROM crypto_daily WHERE symbol = ?0 ORDER BY day DESC LIMIT 1")
+    Optional<CryptoDailyValues> findLastDayBySymbol(String symbol);
+}
@@ -0,0 +1,27 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoDailyValues;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Storage of the daily rollups. The implementation is selected by the {@code crypto.storage.engine} property.
+ */
+public interface CryptoDailyValuesStore {
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The first day of the period
+     * @param end The last day of the period
+     * @return The daily rollups of the symbol within the period
+     */
+    List<CryptoDailyValues> findBySymbolInInterval(String symbol, LocalDate start, LocalDate end);
+
+    /**
+     * Save the daily rollups, replacing the stored rollups of the same symbol and day
+     *
+     * @param dailyValues The daily rollups
+     */
+    void saveAll(List<CryptoDailyValues> dailyValues);
+}
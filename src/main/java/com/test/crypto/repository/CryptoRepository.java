@@ -3,6 +3,8 @@ package com.test.crypto.repository;
 import com.test.crypto.domain.entity.CryptoEntity;
 import org.springframework.data.cassandra.repository.CassandraRepository;
 import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,6 @@ public interface CryptoRepository extends CassandraRepository<CryptoEntity, Stri
 
     @Query("SELECT DISTINCT symbol FROM CRYPTO")
     List<CryptoEntity> findAllSymbols();
+
+    Slice<CryptoEntity> findBySymbol(String symbol, Pageable pageable);
 }
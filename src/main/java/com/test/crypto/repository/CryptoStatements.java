@@ -0,0 +1,192 @@
+package com.test.crypto.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The hot read queries, run as statements prepared once per session. The values are bound by position with their
+ * exact type and the rows are read by column index, without the reflection based entity mapping of the repositories.
+ * The statements are idempotent, so the driver can retry them and run speculative executions, and their bound
+ * partition key lets the token aware load balancing send them straight to a replica.
+ * The consistency, the default page size and the throttling come from the driver configuration (spring.cassandra.*).
+ */
+@Repository
+@ConditionalOnCassandraStorage
+public class CryptoStatements {
+
+    private static final String SELECT_CRYPTO_VALUES = "SELECT MAX(price), MIN(price), MAX(timestamp), MIN(timestamp) FROM crypto WHERE symbol = ?";
+    private static final String SELECT_PRICE_LIMITS_IN_INTERVAL = "SELECT MAX(price), MIN(price) FROM crypto WHERE symbol = ? AND timestamp >= ? AND timestamp <= ?";
+    private static final String SELECT_TIMESTAMPS_IN_INTERVAL = "SELECT timestamp FROM crypto WHERE symbol = ? AND timestamp >= ? AND timestamp <= ?";
+    private static final String SELECT_CRYPTO = "SELECT timestamp, price FROM crypto WHERE symbol = ?";
+    private static final String SELECT_CRYPTO_IN_INTERVAL = "SELECT timestamp, price FROM crypto WHERE symbol = ? AND timestamp >= ? AND timestamp <= ?";
+    private static final String SELECT_TIMESTAMPS_BY_MONTH_IN_INTERVAL = "SELECT timestamp FROM crypto_by_month WHERE symbol = ? AND month = ? AND timestamp >= ? AND timestamp <= ?";
+    private static final String SELECT_DAILY_VALUES_IN_INTERVAL = "SELECT day, minPrice, maxPrice, firstTimestamp, firstPrice, lastTimestamp, lastPrice, count "
+            + "FROM crypto_daily WHERE symbol = ? AND day >= ? AND day <= ?";
+
+    private final CqlSession cqlSession;
+
+    private final ConcurrentMap<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+    public CryptoStatements(CqlSession cqlSession) {
+        this.cqlSession = cqlSession;
+    }
+
+    /**
+     * @return The oldest/newest/min/max values of the symbol, with all the fields null if the symbol has no entry
+     */
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        var row = cqlSession.execute(prepare(SELECT_CRYPTO_VALUES).boundStatementBuilder()
+                .setString(0, symbol)
+                .setIdempotence(true)
+                .build()).one();
+
+        return CryptoValues.builder()
+                .symbol(getDouble(row, 0) == null ? null : symbol)
+                .maxPrice(getDouble(row, 0))
+                .minPrice(getDouble(row, 1))
+                .newest(row.getInstant(2))
+                .oldest(row.getInstant(3))
+                .build();
+    }
+
+    /**
+     * @return The min/max prices of the symbol within the interval, null if the symbol has no entry in the interval
+     */
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        var row = cqlSession.execute(bindInterval(SELECT_PRICE_LIMITS_IN_INTERVAL, symbol, start, end).build()).one();
+
+        return CryptoValues.builder()
+                .symbol(getDouble(row, 0) == null ? null : symbol)
+                .maxPrice(getDouble(row, 0))
+                .minPrice(getDouble(row, 1))
+                .build();
+    }
+
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return map(bindInterval(SELECT_TIMESTAMPS_IN_INTERVAL, symbol, start, end).build(), row -> row.getInstant(0));
+    }
+
+    public List<Instant> findTimestampsBySymbolAndMonthInInterval(String symbol, int month, Instant start, Instant end) {
+        return map(prepare(SELECT_TIMESTAMPS_BY_MONTH_IN_INTERVAL).boundStatementBuilder()
+                .setString(0, symbol)
+                .setInt(1, month)
+                .setInstant(2, start)
+                .setInstant(3, end)
+                .setIdempotence(true)
+                .build(), row -> row.getInstant(0));
+    }
+
+    public List<CryptoDailyValues> findDailyValuesBySymbolInInterval(String symbol, LocalDate start, LocalDate end) {
+        return map(prepare(SELECT_DAILY_VALUES_IN_INTERVAL).boundStatementBuilder()
+                .setString(0, symbol)
+                .setLocalDate(1, start)
+                .setLocalDate(2, end)
+                .setIdempotence(true)
+                .build(), row -> CryptoDailyValues.builder()
+                .symbol(symbol)
+                .day(row.getLocalDate(0))
+                .minPrice(getDouble(row, 1))
+                .maxPrice(getDouble(row, 2))
+                .firstTimestamp(row.getInstant(3))
+                .firstPrice(getDouble(row, 4))
+                .lastTimestamp(row.getInstant(5))
+                .lastPrice(getDouble(row, 6))
+                .count(row.isNull(7) ? null : row.getLong(7))
+                .build());
+    }
+
+    /**
+     * Read the crypto entries of a symbol page by page, in chronological order
+     */
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, prepare(SELECT_CRYPTO).boundStatementBuilder()
+                .setString(0, symbol)
+                .setPageSize(pageSize)
+                .setIdempotence(true)
+                .build(), pageSize, pageConsumer);
+    }
+
+    /**
+     * Read the crypto entries of a symbol within an interval page by page, in chronological order
+     */
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, bindInterval(SELECT_CRYPTO_IN_INTERVAL, symbol, start, end).setPageSize(pageSize).build(), pageSize, pageConsumer);
+    }
+
+    /**
+     * The driver fetches the next page while the rows are iterated, so a single page is held at a time
+     */
+    private void scan(String symbol, BoundStatement statement, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var page = new ArrayList<CryptoEntity>(pageSize);
+        for (var row : cqlSession.execute(statement)) {
+            page.add(CryptoEntity.builder()
+                    .symbol(symbol)
+                    .timestamp(row.getInstant(0))
+                    .price(getDouble(row, 1))
+                    .build());
+            if (page.size() == pageSize) {
+                pageConsumer.accept(page);
+                page = new ArrayList<>(pageSize);
+            }
+        }
+        if (!page.isEmpty()) {
+            pageConsumer.accept(page);
+        }
+    }
+
+    private BoundStatementBuilder bindInterval(String cql, String symbol, Instant start, Instant end) {
+        return prepare(cql).boundStatementBuilder()
+                .setString(0, symbol)
+                .setInstant(1, start)
+                .setInstant(2, end)
+                .setIdempotence(true);
+    }
+
+    private <T> List<T> map(BoundStatement statement, Function<Row, T> mapper) {
+        var result = new ArrayList<T>();
+        for (var row : cqlSession.execute(statement)) {
+            result.add(mapper.apply(row));
+        }
+        return result;
+    }
+
+    /**
+     * The primitive getter returns 0 for a null column, so the nulls of the aggregates are checked first
+     */
+    private static Double getDouble(Row row, int index) {
+        return row.isNull(index) ? null : row.getDouble(index);
+    }
+
+    /**
+     * The statements are prepared on their first use, after the schema has been created. The round trip is made
+     * outside the map, so it does not block the other statements; a statement prepared twice concurrently is
+     * the same for the driver, the first one stored wins.
+     */
+    private PreparedStatement prepare(String cql) {
+        var statement = statements.get(cql);
+        if (statement != null) {
+            return statement;
+        }
+
+        var prepared = cqlSession.prepare(cql);
+        var stored = statements.putIfAbsent(cql, prepared);
+        return stored != null ? stored : prepared;
+    }
+}
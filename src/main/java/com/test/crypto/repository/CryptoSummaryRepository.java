@@ -0,0 +1,9 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoSummary;
+import org.springframework.data.cassandra.repository.CassandraRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CryptoSummaryRepository extends CassandraRepository<CryptoSummary, String> {
+}
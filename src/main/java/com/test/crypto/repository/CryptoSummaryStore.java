@@ -0,0 +1,23 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoSummary;
+
+import java.util.List;
+
+/**
+ * Storage of the all time summaries. The implementation is selected by the {@code crypto.storage.engine} property.
+ */
+public interface CryptoSummaryStore {
+
+    /**
+     * @return The summaries of all the symbols
+     */
+    List<CryptoSummary> findAll();
+
+    /**
+     * Save the summary, replacing the stored summary of the same symbol
+     *
+     * @param summary The summary of a symbol
+     */
+    void save(CryptoSummary summary);
+}
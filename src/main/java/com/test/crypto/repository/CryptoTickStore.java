@@ -0,0 +1,69 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage of the raw crypto entries. The implementation is selected by the {@code crypto.storage.engine} property,
+ * and by the {@code crypto.storage.layout} property on Cassandra.
+ */
+public interface CryptoTickStore {
+
+    /**
+     * Save the crypto entries and wait until they are acknowledged
+     *
+     * @param cryptoList The crypto entries
+     */
+    void saveAll(List<CryptoEntity> cryptoList);
+
+    /**
+     * @return All the distinct crypto symbols
+     */
+    List<String> findAllSymbols();
+
+    /**
+     * Read all the crypto entries of a symbol page by page, in chronological order
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @param pageSize The number of crypto entries of a page
+     * @param pageConsumer Receives every page
+     */
+    void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer);
+
+    /**
+     * Read the crypto entries of a symbol within an interval page by page, in chronological order
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The start of the interval, inclusive
+     * @param end The end of the interval, inclusive
+     * @param pageSize The number of crypto entries of a page
+     * @param pageConsumer Receives every page
+     */
+    void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer);
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @return The oldest/newest/min/max values of the symbol. All the fields are null when the symbol does not exist.
+     */
+    CryptoValues findCryptoValuesBySymbol(String symbol);
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The start of the interval, inclusive
+     * @param end The end of the interval, inclusive
+     * @return The min/max prices of the symbol in the interval. The prices are null when there is no entry.
+     */
+    CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end);
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The start of the interval, inclusive
+     * @param end The end of the interval, inclusive
+     * @return The timestamps of the crypto entries of the symbol stored in the interval
+     */
+    List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end);
+}
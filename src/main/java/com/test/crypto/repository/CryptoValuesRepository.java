@@ -10,9 +10,9 @@ import java.time.Instant;
 @Repository
 public interface CryptoValuesRepository extends CassandraRepository<CryptoValues, String> {
 
-    @Query("SELECT symbol, MAX(price) as maxPrice, MIN(price) as minPrice, MAX(timestamp) as newest, MIN(timestamp) as oldest FROM crypto WHERE symbol = ?0")
-    CryptoValues findCryptoValuesBySymbol(String symbol);
+    @Query("SELECT symbol, MAX(price) as maxPrice, MIN(price) as minPrice, MAX(timestamp) as newest, MIN(timestamp) as oldest FROM crypto_by_month WHERE symbol = ?0 AND month = ?1")
+    CryptoValues findCryptoValuesBySymbolAndMonth(String symbol, int month);
 
-    @Query("SELECT symbol, MAX(price) as maxPrice, MIN(price) as minPrice FROM crypto WHERE symbol = ?0 AND timestamp >= ?1 AND timestamp <= ?2")
-    CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end);
+    @Query("SELECT symbol, MAX(price) as maxPrice, MIN(price) as minPrice FROM crypto_by_month WHERE symbol = ?0 AND month = ?1 AND timestamp >= ?2 AND timestamp <= ?3")
+    CryptoValues findPriceLimitsBySymbolAndMonthInInterval(String symbol, int month, Instant start, Instant end);
 }
@@ -0,0 +1,160 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.cassandra.core.query.CassandraPageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Stores the crypto entries in the {@code crypto_by_month} table, with one partition per symbol and UTC month.
+ * The queries only read the month partitions overlapping the requested interval and merge their results.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+@ConditionalOnProperty(name = "crypto.storage.layout", havingValue = "SYMBOL_MONTH")
+public class MonthPartitionedTickStore implements CryptoTickStore {
+
+    private final CryptoBatchWriter cryptoBatchWriter;
+    private final CryptoMetrics cryptoMetrics;
+    private final CryptoBucketedRepository cryptoBucketedRepository;
+    private final CryptoValuesRepository cryptoValuesRepository;
+    private final CryptoDailyValuesRepository cryptoDailyValuesRepository;
+    private final CryptoStatements cryptoStatements;
+
+    @Override
+    public void saveAll(List<CryptoEntity> cryptoList) {
+        cryptoBatchWriter.writeBucketed(cryptoList);
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        return cryptoMetrics.timeQuery("findAllSymbols", () -> cryptoBucketedRepository.findAllPartitions().stream()
+                .map(CryptoBucketedEntity::getSymbol)
+                .distinct()
+                .toList());
+    }
+
+    @Override
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        getMonths(symbol).forEach(month -> {
+            var slice = cryptoBucketedRepository.findBySymbolAndMonth(symbol, month, CassandraPageRequest.first(pageSize));
+            pageConsumer.accept(toCryptoList(slice.getContent()));
+            while (slice.hasNext()) {
+                slice = cryptoBucketedRepository.findBySymbolAndMonth(symbol, month, slice.nextPageable());
+                pageConsumer.accept(toCryptoList(slice.getContent()));
+            }
+        });
+    }
+
+    @Override
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var startDay = start.atZone(ZoneOffset.UTC).toLocalDate();
+        var endDay = end.atZone(ZoneOffset.UTC).toLocalDate();
+
+        CryptoBucketedEntity.monthsBetween(startDay, endDay).forEach(month -> {
+            var slice = cryptoBucketedRepository.findBySymbolAndMonthInInterval(symbol, month, start, end, CassandraPageRequest.first(pageSize));
+            pageConsumer.accept(toCryptoList(slice.getContent()));
+            while (slice.hasNext()) {
+                slice = cryptoBucketedRepository.findBySymbolAndMonthInInterval(symbol, month, start, end, slice.nextPageable());
+                pageConsumer.accept(toCryptoList(slice.getContent()));
+            }
+        });
+    }
+
+    @Override
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        return cryptoMetrics.timeQuery("findCryptoValuesBySymbol", () -> {
+            var months = getMonths(symbol).toList();
+            if (months.isEmpty()) {
+                return CryptoValues.builder().build();
+            }
+
+            return merge(symbol, months.stream()
+                    .map(month -> cryptoValuesRepository.findCryptoValuesBySymbolAndMonth(symbol, month)));
+        });
+    }
+
+    @Override
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        var startDay = start.atZone(ZoneOffset.UTC).toLocalDate();
+        var endDay = end.atZone(ZoneOffset.UTC).toLocalDate();
+
+        return cryptoMetrics.timeQuery("findPriceLimitsBySymbolInInterval", () -> merge(symbol, CryptoBucketedEntity.monthsBetween(startDay, endDay)
+                .map(month -> cryptoValuesRepository.findPriceLimitsBySymbolAndMonthInInterval(symbol, month, start, end))));
+    }
+
+    @Override
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        var startDay = start.atZone(ZoneOffset.UTC).toLocalDate();
+        var endDay = end.atZone(ZoneOffset.UTC).toLocalDate();
+
+        return cryptoMetrics.timeQuery("findTimestampsBySymbolInInterval", () -> CryptoBucketedEntity.monthsBetween(startDay, endDay)
+                .flatMap(month -> cryptoStatements.findTimestampsBySymbolAndMonthInInterval(symbol, month, start, end).stream())
+                .toList());
+    }
+
+    /**
+     * The months holding the symbol are bounded by its first and last daily rollups
+     */
+    private Stream<Integer> getMonths(String symbol) {
+        Optional<LocalDate> firstDay = cryptoMetrics.timeQuery("findFirstDayBySymbol",
+                () -> cryptoDailyValuesRepository.findFirstDayBySymbol(symbol).map(CryptoDailyValues::getDay));
+        Optional<LocalDate> lastDay = cryptoMetrics.timeQuery("findLastDayBySymbol",
+                () -> cryptoDailyValuesRepository.findLastDayBySymbol(symbol).map(CryptoDailyValues::getDay));
+        if (firstDay.isEmpty() || lastDay.isEmpty()) {
+            return Stream.empty();
+        }
+
+        return CryptoBucketedEntity.monthsBetween(firstDay.get(), lastDay.get());
+    }
+
+    private static List<CryptoEntity> toCryptoList(List<CryptoBucketedEntity> bucketedList) {
+        return bucketedList.stream()
+                .map(bucketed -> CryptoEntity.builder()
+                        .symbol(bucketed.getSymbol())
+                        .timestamp(bucketed.getTimestamp())
+                        .price(bucketed.getPrice())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Merge the values of the month partitions. The empty partitions are returned by Cassandra with all the fields null.
+     */
+    private static CryptoValues merge(String symbol, Stream<CryptoValues> monthValues) {
+        var values = monthValues.filter(Objects::nonNull).toList();
+        if (values.stream().allMatch(cryptoValues -> cryptoValues.getMinPrice() == null)) {
+            return CryptoValues.builder().build();
+        }
+
+        return CryptoValues.builder()
+                .symbol(symbol)
+                .minPrice(reduce(values.stream().map(CryptoValues::getMinPrice), BinaryOperator.minBy(Comparator.naturalOrder())))
+                .maxPrice(reduce(values.stream().map(CryptoValues::getMaxPrice), BinaryOperator.maxBy(Comparator.naturalOrder())))
+                .oldest(reduce(values.stream().map(CryptoValues::getOldest), BinaryOperator.minBy(Comparator.naturalOrder())))
+                .newest(reduce(values.stream().map(CryptoValues::getNewest), BinaryOperator.maxBy(Comparator.naturalOrder())))
+                .build();
+    }
+
+    private static <T> T reduce(Stream<T> values, BinaryOperator<T> operator) {
+        return values.filter(Objects::nonNull).reduce(operator).orElse(null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.domain.entity.CryptoValues;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking reads of the crypto values, aggregated by Cassandra over the daily rollups of a single partition.
+ * The rollups are maintained for both storage layouts, so the queries do not depend on the layout.
+ */
+@Repository
+public interface ReactiveCryptoValuesRepository extends ReactiveCassandraRepository<CryptoValues, String> {
+
+    @Query("SELECT symbol, MAX(maxPrice) as maxPrice, MIN(minPrice) as minPrice, MAX(lastTimestamp) as newest, MIN(firstTimestamp) as oldest FROM crypto_daily WHERE symbol = ?0")
+    Mono<CryptoValues> findCryptoValuesBySymbol(String symbol);
+
+    @Query("SELECT symbol, MAX(maxPrice) as maxPrice, MIN(minPrice) as minPrice, MAX(lastTimestamp) as newest, MIN(firstTimestamp) as oldest FROM crypto_daily WHERE symbol = ?0 AND day >= ?1 AND day <= ?2")
+    Mono<CryptoValues> findCryptoValuesBySymbolInInterval(String symbol, LocalDate start, LocalDate end);
+}
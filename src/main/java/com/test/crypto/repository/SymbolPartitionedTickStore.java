@@ -0,0 +1,67 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stores the crypto entries in the {@code crypto} table, with one partition per symbol.
+ * The reads go through the prepared {@link CryptoStatements}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+@ConditionalOnProperty(name = "crypto.storage.layout", havingValue = "SYMBOL", matchIfMissing = true)
+public class SymbolPartitionedTickStore implements CryptoTickStore {
+
+    private final CryptoBatchWriter cryptoBatchWriter;
+    private final CryptoMetrics cryptoMetrics;
+    private final CryptoRepository cryptoRepository;
+    private final CryptoStatements cryptoStatements;
+
+    @Override
+    public void saveAll(List<CryptoEntity> cryptoList) {
+        cryptoBatchWriter.write(cryptoList);
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        return cryptoMetrics.timeQuery("findAllSymbols", () -> cryptoRepository.findAllSymbols().stream()
+                .map(CryptoEntity::getSymbol)
+                .toList());
+    }
+
+    @Override
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        cryptoStatements.scan(symbol, pageSize, pageConsumer);
+    }
+
+    @Override
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        cryptoStatements.scanInterval(symbol, start, end, pageSize, pageConsumer);
+    }
+
+    @Override
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        return cryptoMetrics.timeQuery("findCryptoValuesBySymbol", () -> cryptoStatements.findCryptoValuesBySymbol(symbol));
+    }
+
+    @Override
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findPriceLimitsBySymbolInInterval",
+                () -> cryptoStatements.findPriceLimitsBySymbolInInterval(symbol, start, end));
+    }
+
+    @Override
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findTimestampsBySymbolInInterval", () -> cryptoStatements.findTimestampsBySymbolInInterval(symbol, start, end));
+    }
+}
@@ -0,0 +1,39 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.ConditionalOnEmbeddedStorage;
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.repository.CryptoDailyValuesStore;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Holds the daily rollups in memory, sorted by day. They are derived from the prices, so they are not persisted
+ * but rebuilt from the segments at startup.
+ */
+@Repository
+@ConditionalOnEmbeddedStorage
+public class EmbeddedDailyValuesStore implements CryptoDailyValuesStore {
+
+    private final ConcurrentMap<String, NavigableMap<LocalDate, CryptoDailyValues>> dailyValuesBySymbol = new ConcurrentHashMap<>();
+
+    @Override
+    public List<CryptoDailyValues> findBySymbolInInterval(String symbol, LocalDate start, LocalDate end) {
+        var dailyValues = dailyValuesBySymbol.get(symbol);
+        if (dailyValues == null) {
+            return List.of();
+        }
+        return List.copyOf(dailyValues.subMap(start, true, end, true).values());
+    }
+
+    @Override
+    public void saveAll(List<CryptoDailyValues> dailyValues) {
+        dailyValues.forEach(daily -> dailyValuesBySymbol.computeIfAbsent(daily.getSymbol(), symbol -> new ConcurrentSkipListMap<>())
+                .put(daily.getDay(), daily));
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.ConditionalOnEmbeddedStorage;
+import com.test.crypto.domain.entity.CryptoSummary;
+import com.test.crypto.repository.CryptoSummaryStore;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the summaries in memory. They are derived from the prices, so they are not persisted but rebuilt from
+ * the segments at startup.
+ */
+@Repository
+@ConditionalOnEmbeddedStorage
+public class EmbeddedSummaryStore implements CryptoSummaryStore {
+
+    private final ConcurrentMap<String, CryptoSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public List<CryptoSummary> findAll() {
+        return List.copyOf(summaries.values());
+    }
+
+    @Override
+    public void save(CryptoSummary summary) {
+        summaries.put(summary.getSymbol(), summary);
+    }
+}
@@ -0,0 +1,332 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.ConditionalOnEmbeddedStorage;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoTickStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the crypto entries in an append-only {@link TickSegmentLog} on the local disk, so the service runs without
+ * Cassandra. Every save appends one block per symbol, and a sparse index keeps the bounds of the blocks of every symbol
+ * in memory, sorted by their first timestamp. An interval query only reads the blocks overlapping the interval and
+ * merges them in timestamp order, and the blocks fully within the interval answer the price limits from their bounds.
+ * A timestamp saved twice keeps its latest price in the scans, like the Cassandra row it replaces, while the bounds
+ * of the older block still include the previous price. The ingestion deduplicates the timestamps, so it stays rare.
+ */
+@Slf4j
+@Repository
+@ConditionalOnEmbeddedStorage
+@ConditionalOnProperty(name = "crypto.storage.embedded.format", havingValue = "SEGMENTS", matchIfMissing = true)
+public class EmbeddedTickStore implements CryptoTickStore {
+
+    private static final Comparator<TickBlock> BLOCK_ORDER = Comparator.comparingLong(TickBlock::minTimestamp)
+            .thenComparingLong(TickBlock::sequence);
+
+    private final CryptoMetrics cryptoMetrics;
+    private final int blockSize;
+    private final TickSegmentLog tickSegmentLog;
+
+    private final ConcurrentMap<String, NavigableSet<TickBlock>> blocksBySymbol = new ConcurrentHashMap<>();
+
+    /**
+     * The appends are serialized, and the blocks are indexed once written, so a query never reads a partial block
+     */
+    private final Lock appendLock = new ReentrantLock();
+
+    public EmbeddedTickStore(CryptoMetrics cryptoMetrics, CryptoProperties cryptoProperties) {
+        var embeddedProperties = cryptoProperties.getStorage().getEmbedded();
+        this.cryptoMetrics = cryptoMetrics;
+        this.blockSize = embeddedProperties.getBlockSize();
+        try {
+            this.tickSegmentLog = TickSegmentLog.open(embeddedProperties.getDirectory(), embeddedProperties.getSegmentSize().toBytes(),
+                    embeddedProperties.isFsync(), this::index);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The crypto segments could not be opened in " + embeddedProperties.getDirectory(), e);
+        }
+        log.info("Opened {} crypto blocks of {} symbols in {}", blocksBySymbol.values().stream().mapToInt(NavigableSet::size).sum(),
+                blocksBySymbol.size(), embeddedProperties.getDirectory());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        tickSegmentLog.close();
+    }
+
+    @Override
+    public void saveAll(List<CryptoEntity> cryptoList) {
+        var blocks = new ArrayList<List<CryptoEntity>>();
+        cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol, LinkedHashMap::new, Collectors.toList()))
+                .forEach((symbol, symbolCryptoList) -> {
+                    var sorted = deduplicate(symbolCryptoList);
+                    for (int from = 0; from < sorted.size(); from += blockSize) {
+                        blocks.add(sorted.subList(from, Math.min(from + blockSize, sorted.size())));
+                    }
+                });
+        if (blocks.isEmpty()) {
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            var tickBlocks = tickSegmentLog.append(blocks);
+            for (int index = 0; index < blocks.size(); index++) {
+                index(blocks.get(index).get(0).getSymbol(), tickBlocks.get(index));
+            }
+        } catch (IOException e) {
+            log.error("The crypto values could not be appended to the segment log", e);
+            throw new InternalException("Crypto values could not be saved.");
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        return List.copyOf(blocksBySymbol.keySet());
+    }
+
+    @Override
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, Long.MIN_VALUE, Long.MAX_VALUE, pageSize, pageConsumer);
+    }
+
+    @Override
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, start.toEpochMilli(), end.toEpochMilli(), pageSize, pageConsumer);
+    }
+
+    /**
+     * The values are merged from the bounds of the blocks, without reading them
+     */
+    @Override
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        return cryptoMetrics.timeQuery("findCryptoValuesBySymbol", () -> {
+            var blocks = blocksBySymbol.get(symbol);
+            if (blocks == null || blocks.isEmpty()) {
+                return CryptoValues.builder().build();
+            }
+
+            return CryptoValues.builder()
+                    .symbol(symbol)
+                    .minPrice(blocks.stream().mapToDouble(TickBlock::minPrice).min().orElseThrow())
+                    .maxPrice(blocks.stream().mapToDouble(TickBlock::maxPrice).max().orElseThrow())
+                    .oldest(Instant.ofEpochMilli(blocks.stream().mapToLong(TickBlock::minTimestamp).min().orElseThrow()))
+                    .newest(Instant.ofEpochMilli(blocks.stream().mapToLong(TickBlock::maxTimestamp).max().orElseThrow()))
+                    .build();
+        });
+    }
+
+    /**
+     * Only the blocks crossing a bound of the interval are read
+     */
+    @Override
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findPriceLimitsBySymbolInInterval", () -> {
+            var startMillis = start.toEpochMilli();
+            var endMillis = end.toEpochMilli();
+            double minPrice = Double.MAX_VALUE;
+            double maxPrice = -Double.MAX_VALUE;
+            boolean found = false;
+
+            for (var block : getBlocks(symbol, startMillis, endMillis)) {
+                if (block.isWithin(startMillis, endMillis)) {
+                    minPrice = Math.min(minPrice, block.minPrice());
+                    maxPrice = Math.max(maxPrice, block.maxPrice());
+                    found = true;
+                    continue;
+                }
+                var cursor = new BlockCursor(block, read(block), startMillis);
+                while (cursor.hasNext() && cursor.timestamp() <= endMillis) {
+                    minPrice = Math.min(minPrice, cursor.price());
+                    maxPrice = Math.max(maxPrice, cursor.price());
+                    found = true;
+                    cursor.next();
+                }
+            }
+
+            if (!found) {
+                return CryptoValues.builder().build();
+            }
+            return CryptoValues.builder()
+                    .symbol(symbol)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .build();
+        });
+    }
+
+    @Override
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findTimestampsBySymbolInInterval", () -> {
+            var timestamps = new ArrayList<Instant>();
+            scanInterval(symbol, start, end, blockSize, page -> page.forEach(cryptoEntity -> timestamps.add(cryptoEntity.getTimestamp())));
+            return timestamps;
+        });
+    }
+
+    private void index(String symbol, TickBlock block) {
+        blocksBySymbol.computeIfAbsent(symbol, key -> new ConcurrentSkipListSet<>(BLOCK_ORDER)).add(block);
+    }
+
+    /**
+     * @return The blocks of the symbol overlapping the interval, sorted by their first timestamp
+     */
+    private List<TickBlock> getBlocks(String symbol, long start, long end) {
+        var blocks = blocksBySymbol.get(symbol);
+        if (blocks == null) {
+            return List.of();
+        }
+        return blocks.stream()
+                .takeWhile(block -> block.minTimestamp() <= end)
+                .filter(block -> block.overlaps(start, end))
+                .toList();
+    }
+
+    /**
+     * Merge the blocks overlapping the interval in timestamp order. A block is read once the merge reaches its first
+     * timestamp, so only the blocks overlapping each other are held at the same time.
+     * On a timestamp stored in several blocks, the latest written block comes first and the others are skipped.
+     */
+    private void scan(String symbol, long start, long end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var blocks = getBlocks(symbol, start, end).iterator();
+        var cursors = new PriorityQueue<BlockCursor>(Comparator.comparingLong(BlockCursor::timestamp)
+                .thenComparing(Comparator.comparingLong((BlockCursor cursor) -> cursor.block.sequence()).reversed()));
+        TickBlock nextBlock = blocks.hasNext() ? blocks.next() : null;
+        var page = new ArrayList<CryptoEntity>(pageSize);
+        long lastTimestamp = Long.MIN_VALUE;
+        boolean first = true;
+
+        while (true) {
+            while (nextBlock != null && (cursors.isEmpty() || nextBlock.minTimestamp() <= cursors.peek().timestamp())) {
+                var cursor = new BlockCursor(nextBlock, read(nextBlock), start);
+                if (cursor.hasNext() && cursor.timestamp() <= end) {
+                    cursors.add(cursor);
+                }
+                nextBlock = blocks.hasNext() ? blocks.next() : null;
+            }
+            var cursor = cursors.poll();
+            if (cursor == null) {
+                break;
+            }
+
+            if (first || cursor.timestamp() != lastTimestamp) {
+                first = false;
+                lastTimestamp = cursor.timestamp();
+                page.add(CryptoEntity.builder()
+                        .symbol(symbol)
+                        .timestamp(Instant.ofEpochMilli(cursor.timestamp()))
+                        .price(cursor.price())
+                        .build());
+                if (page.size() == pageSize) {
+                    pageConsumer.accept(page);
+                    page = new ArrayList<>(pageSize);
+                }
+            }
+            cursor.next();
+            if (cursor.hasNext() && cursor.timestamp() <= end) {
+                cursors.add(cursor);
+            }
+        }
+        if (!page.isEmpty()) {
+            pageConsumer.accept(page);
+        }
+    }
+
+    private ByteBuffer read(TickBlock block) {
+        try {
+            return tickSegmentLog.read(block);
+        } catch (IOException e) {
+            log.error("The crypto block {} could not be read", block, e);
+            throw new InternalException("Crypto values could not be retrieved.");
+        }
+    }
+
+    /**
+     * Sort the entries of a symbol by timestamp, keeping the last entry of a timestamp
+     */
+    static List<CryptoEntity> deduplicate(List<CryptoEntity> cryptoList) {
+        var sorted = new ArrayList<CryptoEntity>(cryptoList.size());
+        cryptoList.stream()
+                .sorted(Comparator.comparing(CryptoEntity::getTimestamp))
+                .forEachOrdered(cryptoEntity -> {
+                    if (!sorted.isEmpty() && sorted.get(sorted.size() - 1).getTimestamp().equals(cryptoEntity.getTimestamp())) {
+                        sorted.set(sorted.size() - 1, cryptoEntity);
+                    } else {
+                        sorted.add(cryptoEntity);
+                    }
+                });
+        return sorted;
+    }
+
+    /**
+     * Position in the prices of a block, starting at the first price not before the start of the interval
+     */
+    private static class BlockCursor {
+
+        private final TickBlock block;
+        private final ByteBuffer records;
+        private int index;
+
+        BlockCursor(TickBlock block, ByteBuffer records, long start) {
+            this.block = block;
+            this.records = records;
+            int low = 0;
+            int high = block.count();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestampAt(middle) < start) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            this.index = low;
+        }
+
+        boolean hasNext() {
+            return index < block.count();
+        }
+
+        long timestamp() {
+            return timestampAt(index);
+        }
+
+        double price() {
+            return records.getDouble(index * TickSegmentLog.RECORD_SIZE + Long.BYTES);
+        }
+
+        void next() {
+            index++;
+        }
+
+        private long timestampAt(int position) {
+            return records.getLong(position * TickSegmentLog.RECORD_SIZE);
+        }
+    }
+}
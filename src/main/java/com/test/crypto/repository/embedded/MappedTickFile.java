@@ -0,0 +1,732 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * The prices of a single symbol in a memory-mapped file of fixed-width records, sorted by timestamp without duplicates:
+ * <pre>
+ * header: magic int | version int | record count long | clean int, padded to 64 bytes
+ * records: record count x (epoch millis long | price double)
+ * footer: magic int | block size int | block count int | crc int | block count x (first timestamp long | min/max price double)
+ * </pre>
+ * The footer is the block index: every {@code blockSize} records are summarized by their first timestamp and their
+ * price limits. It is written after the records on a clean close, and read back at the next opening instead of the records.
+ * <p>
+ * The file is mapped beyond its records, so the appends are written in the mapping and the reads go through it
+ * without copying. An append is committed by the record count of the header, updated once its records are written.
+ * After a crash, the records beyond the count are ignored and the block index is rebuilt from the records, which are
+ * cut at the first one not after the previous one.
+ * <p>
+ * A save older than the last record is appended to an overflow file instead, kept sorted in memory and merged with the
+ * records by the reads:
+ * <pre>
+ * header: magic int | padding int | record count long
+ * records: record count x (epoch millis long | price double), a later record replacing an earlier one of the same timestamp
+ * </pre>
+ * The overflow is compacted, merged with the records into a new file renamed over the current one, once it holds more
+ * than a block and an eighth of the records, so the rewrites of an upload out of order are amortized. A save replacing
+ * a price of the records is compacted at once. After a crash between the rename and the reset of the overflow,
+ * the overflow records already in the file are dropped.
+ * The appends are serialized, while the reads run concurrently on a snapshot of the committed records.
+ */
+@Slf4j
+class MappedTickFile implements Closeable {
+
+    static final String SUFFIX = ".ticks";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    static final String OVERFLOW_SUFFIX = ".overflow";
+
+    private static final int MAGIC = 0x43544D46;
+    private static final int FOOTER_MAGIC = 0x43544D49;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int COUNT_OFFSET = 8;
+    private static final int CLEAN_OFFSET = 16;
+    private static final int RECORD_SIZE = Long.BYTES + Double.BYTES;
+    private static final int FOOTER_HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int FOOTER_ENTRY_SIZE = Long.BYTES + 2 * Double.BYTES;
+    private static final int INITIAL_CAPACITY = 4_096;
+    private static final int OVERFLOW_MAGIC = 0x43544D4F;
+    private static final int OVERFLOW_HEADER_SIZE = 16;
+    private static final int COMPACTION_RATIO = 8;
+    private static final long[] NO_TIMESTAMPS = new long[0];
+    private static final double[] NO_PRICES = new double[0];
+
+    /**
+     * A mapping is limited to 2 GB, which bounds the records of a symbol
+     */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final Path file;
+    private final String symbol;
+    private final int blockSize;
+    private final boolean fsync;
+    private final Lock appendLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Opened on the first save out of order. The records of the file are counted, including the replaced ones.
+     */
+    private final Path overflowFile;
+    private FileChannel overflowChannel;
+    private int overflowRecords;
+
+    private MappedTickFile(Path file, String symbol, int blockSize, boolean fsync) {
+        this.file = file;
+        this.overflowFile = file.resolveSibling(file.getFileName() + OVERFLOW_SUFFIX);
+        this.symbol = symbol;
+        this.blockSize = blockSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Create an empty file for the symbol
+     */
+    static MappedTickFile create(Path file, String symbol, int blockSize, boolean fsync) throws IOException {
+        var mappedTickFile = new MappedTickFile(file, symbol, blockSize, fsync);
+        mappedTickFile.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var buffer = map(mappedTickFile.channel, HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE);
+        writeHeader(buffer);
+        if (fsync) {
+            buffer.force();
+        }
+        mappedTickFile.snapshot = mappedTickFile.index(buffer, null, 0);
+        return mappedTickFile;
+    }
+
+    /**
+     * Open the file of the symbol, reading the block index back from the footer, or from the records after a crash
+     */
+    static MappedTickFile open(Path file, String symbol, int blockSize, boolean fsync) throws IOException {
+        var mappedTickFile = new MappedTickFile(file, symbol, blockSize, fsync);
+        var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            mappedTickFile.channel = channel;
+            mappedTickFile.recover();
+            mappedTickFile.recoverOverflow();
+        } catch (IOException e) {
+            channel.close();
+            if (mappedTickFile.overflowChannel != null) {
+                mappedTickFile.overflowChannel.close();
+            }
+            throw e;
+        }
+        return mappedTickFile;
+    }
+
+    String symbol() {
+        return symbol;
+    }
+
+    int count() {
+        return snapshot.count() + snapshot.overflowTimestamps().length;
+    }
+
+    /**
+     * Append the prices, or add them to the overflow when they do not all come after the last record
+     *
+     * @param cryptoList The prices of the symbol, sorted by timestamp without duplicates
+     */
+    void append(List<CryptoEntity> cryptoList) throws IOException {
+        if (cryptoList.isEmpty()) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            var current = snapshot;
+            if (cryptoList.get(0).getTimestamp().toEpochMilli() <= current.lastTimestamp()) {
+                overflow(current, cryptoList);
+                return;
+            }
+
+            var count = current.count() + cryptoList.size();
+            var buffer = reserve(current.buffer(), count);
+            var position = HEADER_SIZE + current.count() * RECORD_SIZE;
+            for (var cryptoEntity : cryptoList) {
+                buffer.putLong(position, cryptoEntity.getTimestamp().toEpochMilli());
+                buffer.putDouble(position + Long.BYTES, cryptoEntity.getPrice());
+                position += RECORD_SIZE;
+            }
+            if (fsync) {
+                buffer.force(HEADER_SIZE + current.count() * RECORD_SIZE, cryptoList.size() * RECORD_SIZE);
+            }
+            buffer.putLong(COUNT_OFFSET, count);
+            if (fsync) {
+                buffer.force(0, HEADER_SIZE);
+            }
+            snapshot = index(buffer, current, count);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Read the records of the interval in pages, straight from the mapping
+     */
+    void scan(long start, long end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var current = snapshot;
+        var to = current.upperBound(end);
+        var overflowTo = current.overflowUpperBound(end);
+        int index = current.lowerBound(start);
+        int overflowIndex = current.overflowLowerBound(start);
+        while (index < to || overflowIndex < overflowTo) {
+            var page = new ArrayList<CryptoEntity>(Math.min(pageSize, to - index + overflowTo - overflowIndex));
+            while ((index < to || overflowIndex < overflowTo) && page.size() < pageSize) {
+                long timestamp;
+                double price;
+                if (overflowIndex >= overflowTo || (index < to && current.timestamp(index) < current.overflowTimestamps()[overflowIndex])) {
+                    timestamp = current.timestamp(index);
+                    price = current.price(index++);
+                } else {
+                    timestamp = current.overflowTimestamps()[overflowIndex];
+                    price = current.overflowPrices()[overflowIndex++];
+                }
+                page.add(CryptoEntity.builder()
+                        .symbol(symbol)
+                        .timestamp(Instant.ofEpochMilli(timestamp))
+                        .price(price)
+                        .build());
+            }
+            pageConsumer.accept(page);
+        }
+    }
+
+    /**
+     * The price limits come from the block index, and the timestamps from the first and last records
+     */
+    CryptoValues values() {
+        var current = snapshot;
+        var overflowTimestamps = current.overflowTimestamps();
+        if (current.count() == 0 && overflowTimestamps.length == 0) {
+            return CryptoValues.builder().build();
+        }
+        var oldest = Long.MAX_VALUE;
+        if (current.count() > 0) {
+            oldest = current.timestamp(0);
+        }
+        if (overflowTimestamps.length > 0) {
+            oldest = Math.min(oldest, overflowTimestamps[0]);
+        }
+        return CryptoValues.builder()
+                .symbol(symbol)
+                .minPrice(Math.min(Arrays.stream(current.minPrices()).min().orElse(Double.MAX_VALUE),
+                        Arrays.stream(current.overflowPrices()).min().orElse(Double.MAX_VALUE)))
+                .maxPrice(Math.max(Arrays.stream(current.maxPrices()).max().orElse(-Double.MAX_VALUE),
+                        Arrays.stream(current.overflowPrices()).max().orElse(-Double.MAX_VALUE)))
+                .oldest(Instant.ofEpochMilli(oldest))
+                .newest(Instant.ofEpochMilli(current.lastTimestamp()))
+                .build();
+    }
+
+    /**
+     * Only the records of the blocks crossing a bound of the interval are read
+     */
+    CryptoValues priceLimits(long start, long end) {
+        var current = snapshot;
+        var from = current.lowerBound(start);
+        var to = current.upperBound(end);
+        var overflowFrom = current.overflowLowerBound(start);
+        var overflowTo = current.overflowUpperBound(end);
+        if (from >= to && overflowFrom >= overflowTo) {
+            return CryptoValues.builder().build();
+        }
+
+        double minPrice = Double.MAX_VALUE;
+        double maxPrice = -Double.MAX_VALUE;
+        for (int index = from; index < to; ) {
+            var block = index / blockSize;
+            if (index % blockSize == 0 && index + blockSize <= to) {
+                minPrice = Math.min(minPrice, current.minPrices()[block]);
+                maxPrice = Math.max(maxPrice, current.maxPrices()[block]);
+                index += blockSize;
+                continue;
+            }
+            var price = current.price(index++);
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+        }
+        for (int index = overflowFrom; index < overflowTo; index++) {
+            minPrice = Math.min(minPrice, current.overflowPrices()[index]);
+            maxPrice = Math.max(maxPrice, current.overflowPrices()[index]);
+        }
+        return CryptoValues.builder()
+                .symbol(symbol)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+    }
+
+    /**
+     * Write the block index in the footer and trim the file after it
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            var current = snapshot;
+            var blocks = current.firstTimestamps().length;
+            var footerPosition = HEADER_SIZE + current.count() * RECORD_SIZE;
+            var size = (long) footerPosition + FOOTER_HEADER_SIZE + (long) blocks * FOOTER_ENTRY_SIZE;
+            var buffer = size <= current.buffer().capacity() ? current.buffer() : map(channel, size);
+
+            var entries = buffer.slice(footerPosition + FOOTER_HEADER_SIZE, blocks * FOOTER_ENTRY_SIZE);
+            for (int block = 0; block < blocks; block++) {
+                entries.putLong(current.firstTimestamps()[block])
+                        .putDouble(current.minPrices()[block])
+                        .putDouble(current.maxPrices()[block]);
+            }
+            var crc = new CRC32C();
+            crc.update(entries.flip());
+            buffer.putInt(footerPosition, FOOTER_MAGIC)
+                    .putInt(footerPosition + Integer.BYTES, blockSize)
+                    .putInt(footerPosition + 2 * Integer.BYTES, blocks)
+                    .putInt(footerPosition + 3 * Integer.BYTES, (int) crc.getValue());
+            buffer.force();
+            buffer.putInt(CLEAN_OFFSET, 1);
+            buffer.force(0, HEADER_SIZE);
+            channel.truncate(size);
+        } finally {
+            channel.close();
+            if (overflowChannel != null) {
+                overflowChannel.close();
+            }
+            appendLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        var size = channel.size();
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read the whole header
+        }
+        var magic = header.getInt(0);
+        if (magic == 0 && header.getLong(COUNT_OFFSET) == 0) {
+            log.warn("The symbol file {} was created without a header, it is reset", file);
+            var buffer = map(channel, Math.max(size, HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE));
+            writeHeader(buffer);
+            snapshot = index(buffer, null, 0);
+            return;
+        }
+        if (magic != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("The file " + file + " is not a symbol file of version " + VERSION);
+        }
+
+        var count = header.getLong(COUNT_OFFSET);
+        if (count < 0 || HEADER_SIZE + count * RECORD_SIZE > size) {
+            log.warn("The symbol file {} counts {} records beyond its size, they are dropped", file, count);
+            count = (size - HEADER_SIZE) / RECORD_SIZE;
+        }
+        var capacity = Math.max(INITIAL_CAPACITY, Math.min(MAX_CAPACITY, count + count / 2));
+        var buffer = map(channel, Math.min(Integer.MAX_VALUE, Math.max(size, HEADER_SIZE + capacity * RECORD_SIZE)));
+
+        Snapshot recovered = null;
+        if (header.getInt(CLEAN_OFFSET) == 1) {
+            recovered = readFooter(buffer, (int) count);
+        }
+        if (recovered == null) {
+            var valid = validate(buffer, (int) count);
+            if (valid < count) {
+                log.warn("The symbol file {} is cut after {} records, dropping {} records out of order", file, valid, count - valid);
+                buffer.putLong(COUNT_OFFSET, valid);
+            }
+            recovered = index(buffer, null, valid);
+            log.info("Rebuilt the block index of the symbol file {} from {} records", file, valid);
+        }
+
+        buffer.putInt(CLEAN_OFFSET, 0);
+        if (fsync) {
+            buffer.force(0, HEADER_SIZE);
+        }
+        snapshot = recovered;
+    }
+
+    /**
+     * @return The block index of the footer written after the records, or null when it is missing or does not match them
+     */
+    private Snapshot readFooter(MappedByteBuffer buffer, int count) {
+        var size = buffer.capacity();
+        var footerPosition = HEADER_SIZE + count * RECORD_SIZE;
+        if (footerPosition + FOOTER_HEADER_SIZE > size
+                || buffer.getInt(footerPosition) != FOOTER_MAGIC
+                || buffer.getInt(footerPosition + Integer.BYTES) != blockSize) {
+            return null;
+        }
+        var blocks = buffer.getInt(footerPosition + 2 * Integer.BYTES);
+        if (blocks != (count + blockSize - 1) / blockSize
+                || footerPosition + FOOTER_HEADER_SIZE + (long) blocks * FOOTER_ENTRY_SIZE > size) {
+            return null;
+        }
+        var entries = buffer.slice(footerPosition + FOOTER_HEADER_SIZE, blocks * FOOTER_ENTRY_SIZE);
+        var crc = new CRC32C();
+        crc.update(entries.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(footerPosition + 3 * Integer.BYTES)) {
+            return null;
+        }
+
+        var snapshot = new Snapshot(buffer, blockSize, count, new long[blocks], new double[blocks], new double[blocks], NO_TIMESTAMPS, NO_PRICES);
+        for (int block = 0; block < blocks; block++) {
+            snapshot.firstTimestamps()[block] = entries.getLong();
+            snapshot.minPrices()[block] = entries.getDouble();
+            snapshot.maxPrices()[block] = entries.getDouble();
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return The number of leading records in strictly increasing timestamp order
+     */
+    private static int validate(MappedByteBuffer buffer, int count) {
+        long previous = Long.MIN_VALUE;
+        for (int index = 0; index < count; index++) {
+            var timestamp = buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+            if (index > 0 && timestamp <= previous) {
+                return index;
+            }
+            previous = timestamp;
+        }
+        return count;
+    }
+
+    /**
+     * Merge the prices into the overflow, the saved price replacing the one of the same timestamp. The overflow is
+     * compacted when it grows too large, or when a saved price replaces a record.
+     */
+    private void overflow(Snapshot current, List<CryptoEntity> cryptoList) throws IOException {
+        var timestamps = new long[cryptoList.size()];
+        var prices = new double[cryptoList.size()];
+        var replacesRecord = false;
+        for (int index = 0; index < cryptoList.size(); index++) {
+            timestamps[index] = cryptoList.get(index).getTimestamp().toEpochMilli();
+            prices[index] = cryptoList.get(index).getPrice();
+            replacesRecord |= current.contains(timestamps[index]);
+        }
+
+        var merged = mergeSorted(current.overflowTimestamps(), current.overflowPrices(), timestamps, prices);
+        if (replacesRecord || overflowRecords + cryptoList.size() > Math.max(blockSize, current.count() / COMPACTION_RATIO)) {
+            compact(current, merged.timestamps(), merged.prices());
+            return;
+        }
+
+        writeOverflow(timestamps, prices);
+        snapshot = current.withOverflow(merged.timestamps(), merged.prices());
+    }
+
+    private void writeOverflow(long[] timestamps, double[] prices) throws IOException {
+        if (overflowChannel == null) {
+            overflowChannel = FileChannel.open(overflowFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            resetOverflow();
+        }
+
+        var records = ByteBuffer.allocate(timestamps.length * RECORD_SIZE);
+        for (int index = 0; index < timestamps.length; index++) {
+            records.putLong(timestamps[index]).putDouble(prices[index]);
+        }
+        write(overflowChannel, records.flip(), OVERFLOW_HEADER_SIZE + (long) overflowRecords * RECORD_SIZE);
+        if (fsync) {
+            overflowChannel.force(false);
+        }
+        write(overflowChannel, ByteBuffer.allocate(Long.BYTES).putLong(0, overflowRecords + timestamps.length), COUNT_OFFSET);
+        if (fsync) {
+            overflowChannel.force(false);
+        }
+        overflowRecords += timestamps.length;
+    }
+
+    private void resetOverflow() throws IOException {
+        write(overflowChannel, ByteBuffer.allocate(OVERFLOW_HEADER_SIZE).putInt(0, OVERFLOW_MAGIC).putLong(COUNT_OFFSET, 0), 0);
+        if (fsync) {
+            overflowChannel.force(false);
+        }
+        overflowChannel.truncate(OVERFLOW_HEADER_SIZE);
+        overflowRecords = 0;
+    }
+
+    /**
+     * Read the overflow left by the previous opening. Its records already in the file were compacted before a crash.
+     */
+    private void recoverOverflow() throws IOException {
+        if (!Files.exists(overflowFile)) {
+            return;
+        }
+        overflowChannel = FileChannel.open(overflowFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var size = overflowChannel.size();
+        var header = read(overflowChannel, 0, (int) Math.min(size, OVERFLOW_HEADER_SIZE));
+        if (size < OVERFLOW_HEADER_SIZE || header.getInt(0) != OVERFLOW_MAGIC) {
+            log.warn("The overflow file {} has no header, it is reset", overflowFile);
+            resetOverflow();
+            return;
+        }
+
+        var count = header.getLong(COUNT_OFFSET);
+        if (count < 0 || OVERFLOW_HEADER_SIZE + count * RECORD_SIZE > size) {
+            log.warn("The overflow file {} counts {} records beyond its size, they are dropped", overflowFile, count);
+            count = (size - OVERFLOW_HEADER_SIZE) / RECORD_SIZE;
+        }
+        var records = read(overflowChannel, OVERFLOW_HEADER_SIZE, (int) count * RECORD_SIZE);
+        var overflow = new TreeMap<Long, Double>();
+        for (int index = 0; index < count; index++) {
+            overflow.put(records.getLong(), records.getDouble());
+        }
+        var current = snapshot;
+        overflow.keySet().removeIf(current::contains);
+
+        overflowRecords = (int) count;
+        snapshot = current.withOverflow(overflow.keySet().stream().mapToLong(Long::longValue).toArray(),
+                overflow.values().stream().mapToDouble(Double::doubleValue).toArray());
+        if (!overflow.isEmpty()) {
+            log.info("Read {} prices out of order from the overflow file {}", overflow.size(), overflowFile);
+        }
+    }
+
+    /**
+     * Write the records and the sorted prices into a new file, the prices replacing the records of the same timestamp,
+     * then empty the overflow
+     */
+    private void compact(Snapshot current, long[] timestamps, double[] prices) throws IOException {
+        var capacity = (long) current.count() + timestamps.length;
+        if (capacity > MAX_CAPACITY) {
+            throw new IOException("The symbol file " + file + " cannot hold more than " + MAX_CAPACITY + " records");
+        }
+        var temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        var mergedChannel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer;
+        int count = 0;
+        try {
+            buffer = map(mergedChannel, HEADER_SIZE + Math.max(INITIAL_CAPACITY, capacity) * RECORD_SIZE);
+            writeHeader(buffer);
+            int index = 0;
+            for (int saved = 0; saved < timestamps.length; saved++) {
+                var timestamp = timestamps[saved];
+                for (; index < current.count() && current.timestamp(index) < timestamp; index++) {
+                    putRecord(buffer, count++, current.timestamp(index), current.price(index));
+                }
+                if (index < current.count() && current.timestamp(index) == timestamp) {
+                    index++;
+                }
+                putRecord(buffer, count++, timestamp, prices[saved]);
+            }
+            for (; index < current.count(); index++) {
+                putRecord(buffer, count++, current.timestamp(index), current.price(index));
+            }
+            buffer.putLong(COUNT_OFFSET, count);
+            buffer.force();
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            mergedChannel.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        channel.close();
+        channel = mergedChannel;
+        snapshot = index(buffer, null, count);
+        if (overflowChannel != null) {
+            resetOverflow();
+        }
+    }
+
+    /**
+     * Merge two sorted sequences of prices, the saved price replacing the one of the same timestamp
+     */
+    private static SortedPrices mergeSorted(long[] timestamps, double[] prices, long[] savedTimestamps, double[] savedPrices) {
+        var mergedTimestamps = new long[timestamps.length + savedTimestamps.length];
+        var mergedPrices = new double[mergedTimestamps.length];
+        int index = 0;
+        int saved = 0;
+        int count = 0;
+        while (index < timestamps.length || saved < savedTimestamps.length) {
+            if (saved >= savedTimestamps.length || (index < timestamps.length && timestamps[index] < savedTimestamps[saved])) {
+                mergedTimestamps[count] = timestamps[index];
+                mergedPrices[count++] = prices[index++];
+                continue;
+            }
+            if (index < timestamps.length && timestamps[index] == savedTimestamps[saved]) {
+                index++;
+            }
+            mergedTimestamps[count] = savedTimestamps[saved];
+            mergedPrices[count++] = savedPrices[saved++];
+        }
+        return new SortedPrices(Arrays.copyOf(mergedTimestamps, count), Arrays.copyOf(mergedPrices, count));
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        var buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+            // read the whole range
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * @return The mapping, remapped larger when it cannot hold the records
+     */
+    private MappedByteBuffer reserve(MappedByteBuffer buffer, int count) throws IOException {
+        if (HEADER_SIZE + (long) count * RECORD_SIZE <= buffer.capacity()) {
+            return buffer;
+        }
+        if (count > MAX_CAPACITY) {
+            throw new IOException("The symbol file " + file + " cannot hold more than " + MAX_CAPACITY + " records");
+        }
+        var capacity = Math.max(count, Math.min(MAX_CAPACITY, 2L * (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE));
+        return map(channel, HEADER_SIZE + capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Extend the block index of the previous snapshot to the records up to {@code count}.
+     * Only the blocks from the last one of the previous snapshot are computed again.
+     */
+    private Snapshot index(MappedByteBuffer buffer, Snapshot previous, int count) {
+        var blocks = (count + blockSize - 1) / blockSize;
+        var from = previous == null ? 0 : previous.count() / blockSize;
+        var snapshot = previous == null
+                ? new Snapshot(buffer, blockSize, count, new long[blocks], new double[blocks], new double[blocks], NO_TIMESTAMPS, NO_PRICES)
+                : new Snapshot(buffer, blockSize, count, Arrays.copyOf(previous.firstTimestamps(), blocks),
+                Arrays.copyOf(previous.minPrices(), blocks), Arrays.copyOf(previous.maxPrices(), blocks),
+                previous.overflowTimestamps(), previous.overflowPrices());
+
+        for (int block = from; block < blocks; block++) {
+            double minPrice = Double.MAX_VALUE;
+            double maxPrice = -Double.MAX_VALUE;
+            for (int index = block * blockSize; index < Math.min(count, (block + 1) * blockSize); index++) {
+                minPrice = Math.min(minPrice, snapshot.price(index));
+                maxPrice = Math.max(maxPrice, snapshot.price(index));
+            }
+            snapshot.firstTimestamps()[block] = snapshot.timestamp(block * blockSize);
+            snapshot.minPrices()[block] = minPrice;
+            snapshot.maxPrices()[block] = maxPrice;
+        }
+        return snapshot;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer) {
+        buffer.putInt(0, MAGIC)
+                .putInt(Integer.BYTES, VERSION)
+                .putLong(COUNT_OFFSET, 0)
+                .putInt(CLEAN_OFFSET, 0);
+    }
+
+    private static void putRecord(MappedByteBuffer buffer, int index, long timestamp, double price) {
+        buffer.putLong(HEADER_SIZE + index * RECORD_SIZE, timestamp);
+        buffer.putDouble(HEADER_SIZE + index * RECORD_SIZE + Long.BYTES, price);
+    }
+
+    private record SortedPrices(long[] timestamps, double[] prices) {
+    }
+
+    /**
+     * The committed records, their block index and the sorted overflow at some point. The later appends are written
+     * beyond its records, and a compaction writes a new file, so a snapshot is read without locking while the file changes.
+     */
+    private record Snapshot(MappedByteBuffer buffer, int blockSize, int count,
+                            long[] firstTimestamps, double[] minPrices, double[] maxPrices,
+                            long[] overflowTimestamps, double[] overflowPrices) {
+
+        Snapshot withOverflow(long[] overflowTimestamps, double[] overflowPrices) {
+            return new Snapshot(buffer, blockSize, count, firstTimestamps, minPrices, maxPrices, overflowTimestamps, overflowPrices);
+        }
+
+        /**
+         * @return The last timestamp of the records and the overflow, the smallest long when both are empty
+         */
+        long lastTimestamp() {
+            var last = count == 0 ? Long.MIN_VALUE : timestamp(count - 1);
+            return overflowTimestamps.length == 0 ? last : Math.max(last, overflowTimestamps[overflowTimestamps.length - 1]);
+        }
+
+        boolean contains(long timestamp) {
+            var index = lowerBound(timestamp);
+            return index < count && timestamp(index) == timestamp;
+        }
+
+        int overflowLowerBound(long timestamp) {
+            var index = Arrays.binarySearch(overflowTimestamps, timestamp);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        int overflowUpperBound(long timestamp) {
+            return timestamp == Long.MAX_VALUE ? overflowTimestamps.length : overflowLowerBound(timestamp + 1);
+        }
+
+
+        long timestamp(int index) {
+            return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+        }
+
+        double price(int index) {
+            return buffer.getDouble(HEADER_SIZE + index * RECORD_SIZE + Long.BYTES);
+        }
+
+        /**
+         * @return The index of the first record not before the timestamp, searched in the block index first
+         */
+        int lowerBound(long timestamp) {
+            int low = 0;
+            int high = firstTimestamps.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (firstTimestamps[middle] < timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low == 0) {
+                return 0;
+            }
+
+            low = (low - 1) * blockSize;
+            high = Math.min(count, low + blockSize);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestamp(middle) < timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return The index of the first record after the timestamp
+         */
+        int upperBound(long timestamp) {
+            return timestamp == Long.MAX_VALUE ? count : lowerBound(timestamp + 1);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.ConditionalOnEmbeddedStorage;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoTickStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the crypto entries of every symbol in its own {@link MappedTickFile}, the MAPPED format of the EMBEDDED storage
+ * engine. The prices of a symbol are sorted by timestamp, so an interval is found by a binary search and read straight
+ * from the mapped file, without merging blocks, and the block index answers the price limits of the blocks fully within
+ * the interval. The saves of live prices are appended, while a save older than the last price of its symbol goes to
+ * an overflow file, merged into the symbol file once it holds an eighth of its prices. An upload out of order is slower
+ * to read until then, and rewrites the file a few times, so the history is best uploaded in chronological order.
+ */
+@Slf4j
+@Repository
+@ConditionalOnEmbeddedStorage
+@ConditionalOnProperty(name = "crypto.storage.embedded.format", havingValue = "MAPPED")
+public class MappedTickStore implements CryptoTickStore {
+
+    private final CryptoMetrics cryptoMetrics;
+    private final Path directory;
+    private final int blockSize;
+    private final boolean fsync;
+
+    private final ConcurrentMap<String, MappedTickFile> files = new ConcurrentHashMap<>();
+    private final Lock createLock = new ReentrantLock();
+
+    public MappedTickStore(CryptoMetrics cryptoMetrics, CryptoProperties cryptoProperties) {
+        var embeddedProperties = cryptoProperties.getStorage().getEmbedded();
+        this.cryptoMetrics = cryptoMetrics;
+        this.directory = embeddedProperties.getDirectory();
+        this.blockSize = embeddedProperties.getBlockSize();
+        this.fsync = embeddedProperties.isFsync();
+        try {
+            open();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("The crypto symbol files could not be opened in " + directory, e);
+        }
+        log.info("Opened {} crypto prices of {} symbols in {}", files.values().stream().mapToLong(MappedTickFile::count).sum(),
+                files.size(), directory);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (var file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.error("The crypto symbol file of {} could not be closed", file.symbol(), e);
+            }
+        }
+        files.clear();
+    }
+
+    @Override
+    public void saveAll(List<CryptoEntity> cryptoList) {
+        var cryptoListBySymbol = cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol, LinkedHashMap::new, Collectors.toList()));
+        for (var entry : cryptoListBySymbol.entrySet()) {
+            try {
+                getOrCreate(entry.getKey()).append(EmbeddedTickStore.deduplicate(entry.getValue()));
+            } catch (IOException | UncheckedIOException e) {
+                log.error("The crypto values of {} could not be appended to the symbol file", entry.getKey(), e);
+                throw new InternalException("Crypto values could not be saved.");
+            }
+        }
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        return List.copyOf(files.keySet());
+    }
+
+    @Override
+    public void scan(String symbol, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, Long.MIN_VALUE, Long.MAX_VALUE, pageSize, pageConsumer);
+    }
+
+    @Override
+    public void scanInterval(String symbol, Instant start, Instant end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        scan(symbol, start.toEpochMilli(), end.toEpochMilli(), pageSize, pageConsumer);
+    }
+
+    @Override
+    public CryptoValues findCryptoValuesBySymbol(String symbol) {
+        return cryptoMetrics.timeQuery("findCryptoValuesBySymbol", () -> {
+            var file = files.get(symbol);
+            return file == null ? CryptoValues.builder().build() : file.values();
+        });
+    }
+
+    @Override
+    public CryptoValues findPriceLimitsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findPriceLimitsBySymbolInInterval", () -> {
+            var file = files.get(symbol);
+            return file == null ? CryptoValues.builder().build() : file.priceLimits(start.toEpochMilli(), end.toEpochMilli());
+        });
+    }
+
+    @Override
+    public List<Instant> findTimestampsBySymbolInInterval(String symbol, Instant start, Instant end) {
+        return cryptoMetrics.timeQuery("findTimestampsBySymbolInInterval", () -> {
+            var timestamps = new ArrayList<Instant>();
+            scanInterval(symbol, start, end, blockSize, page -> page.forEach(cryptoEntity -> timestamps.add(cryptoEntity.getTimestamp())));
+            return timestamps;
+        });
+    }
+
+    private void scan(String symbol, long start, long end, int pageSize, Consumer<List<CryptoEntity>> pageConsumer) {
+        var file = files.get(symbol);
+        if (file != null) {
+            file.scan(start, end, pageSize, pageConsumer);
+        }
+    }
+
+    /**
+     * Open the symbol files of the directory. A merged file left by a crash before its rename is deleted,
+     * the symbol file it was replacing is still complete.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (var directoryFiles = Files.list(directory)) {
+            paths = directoryFiles.toList();
+        }
+        for (var path : paths) {
+            var fileName = path.getFileName().toString();
+            if (fileName.endsWith(MappedTickFile.SUFFIX + MappedTickFile.TEMPORARY_SUFFIX)) {
+                log.warn("Deleting the incomplete merged symbol file {}", path);
+                Files.delete(path);
+            } else if (fileName.endsWith(MappedTickFile.SUFFIX)) {
+                var symbol = URLDecoder.decode(fileName.substring(0, fileName.length() - MappedTickFile.SUFFIX.length()), StandardCharsets.UTF_8);
+                files.put(symbol, MappedTickFile.open(path, symbol, blockSize, fsync));
+            }
+        }
+    }
+
+    /**
+     * The file of a new symbol is created and mapped under a lock rather than in the map, so the lookups of the other
+     * symbols never wait for the file system, and a virtual thread creating it is not pinned to its carrier.
+     */
+    private MappedTickFile getOrCreate(String symbol) throws IOException {
+        var file = files.get(symbol);
+        if (file != null) {
+            return file;
+        }
+
+        createLock.lock();
+        try {
+            file = files.get(symbol);
+            if (file == null) {
+                file = MappedTickFile.create(directory.resolve(URLEncoder.encode(symbol, StandardCharsets.UTF_8) + MappedTickFile.SUFFIX),
+                        symbol, blockSize, fsync);
+                files.put(symbol, file);
+            }
+            return file;
+        } finally {
+            createLock.unlock();
+        }
+    }
+}
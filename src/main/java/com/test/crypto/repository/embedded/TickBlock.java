@@ -0,0 +1,22 @@
+package com.test.crypto.repository.embedded;
+
+/**
+ * Entry of the sparse index: a block of prices of a single symbol, written contiguously in a segment.
+ * The bounds of the block are kept in memory, so the blocks outside an interval are never read.
+ *
+ * @param sequence The write order of the block, used to keep the latest price of a timestamp saved twice
+ * @param segment The segment holding the block
+ * @param position The position of the first price of the block in the segment
+ * @param count The number of prices of the block, sorted by timestamp
+ */
+public record TickBlock(long sequence, int segment, long position, int count,
+                        long minTimestamp, long maxTimestamp, double minPrice, double maxPrice) {
+
+    public boolean overlaps(long start, long end) {
+        return minTimestamp <= end && maxTimestamp >= start;
+    }
+
+    public boolean isWithin(long start, long end) {
+        return minTimestamp >= start && maxTimestamp <= end;
+    }
+}
@@ -0,0 +1,272 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of price blocks, split in segment files of about {@code segmentSize} bytes.
+ * A block holds the prices of a single symbol, sorted by timestamp, after a header with the symbol, the bounds of the
+ * block and the checksum of the header fields before it and of the prices:
+ * <pre>
+ * magic int | symbol length short | symbol UTF-8 | count int | min/max timestamp long | min/max price double | crc int
+ * count x (epoch millis long | price double)
+ * </pre>
+ * The segments are read back at startup to rebuild the index. A block cut or corrupted by a crash fails its checksum,
+ * so its segment is truncated before it and the following appends overwrite it. The blocks written before the header
+ * was checksummed have another magic number, and their checksum only covers their prices.
+ * The appends must be serialized by the caller, while the reads can run concurrently.
+ */
+@Slf4j
+public class TickSegmentLog implements Closeable {
+
+    static final int MAGIC = 0x43545343;
+    static final int PRICES_CHECKSUM_MAGIC = 0x43545342;
+    static final int RECORD_SIZE = Long.BYTES + Double.BYTES;
+
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES + 2 * Long.BYTES + 2 * Double.BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean fsync;
+
+    /**
+     * The open segments, in write order. A block refers to its segment by position in this list.
+     */
+    private final List<FileChannel> segments = new CopyOnWriteArrayList<>();
+
+    private int nextSegmentId;
+    private long nextSequence;
+    private long end;
+
+    private TickSegmentLog(Path directory, long segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Open the log, creating the directory if needed, and read back the blocks of its segments
+     *
+     * @param directory The directory of the segment files
+     * @param segmentSize The size beyond which a new segment is started
+     * @param fsync Whether an append waits until the blocks are on the disk
+     * @param blockConsumer Receives the symbol and the index entry of every stored block, in write order
+     */
+    public static TickSegmentLog open(Path directory, long segmentSize, boolean fsync, BiConsumer<String, TickBlock> blockConsumer) throws IOException {
+        Files.createDirectories(directory);
+        var tickSegmentLog = new TickSegmentLog(directory, segmentSize, fsync);
+
+        List<Path> segmentFiles;
+        try (var files = Files.list(directory)) {
+            segmentFiles = files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX) && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (var segmentFile : segmentFiles) {
+            tickSegmentLog.recover(segmentFile, blockConsumer);
+        }
+        if (tickSegmentLog.segments.isEmpty()) {
+            tickSegmentLog.roll();
+        }
+        return tickSegmentLog;
+    }
+
+    /**
+     * Append the blocks with a single write
+     *
+     * @param blocks The prices of every block, of a single symbol each and sorted by timestamp
+     * @return The index entries of the blocks, in the same order
+     */
+    public List<TickBlock> append(List<List<CryptoEntity>> blocks) throws IOException {
+        var symbols = blocks.stream().map(block -> block.get(0).getSymbol().getBytes(StandardCharsets.UTF_8)).toList();
+        long size = 0;
+        for (int index = 0; index < blocks.size(); index++) {
+            size += HEADER_SIZE + symbols.get(index).length + (long) blocks.get(index).size() * RECORD_SIZE;
+        }
+        if (end > 0 && end + size > segmentSize) {
+            roll();
+        }
+
+        var buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        var tickBlocks = new ArrayList<TickBlock>(blocks.size());
+        for (int index = 0; index < blocks.size(); index++) {
+            tickBlocks.add(encode(buffer, symbols.get(index), blocks.get(index)));
+        }
+        buffer.flip();
+
+        var segment = segments.get(segments.size() - 1);
+        var position = end;
+        while (buffer.hasRemaining()) {
+            position += segment.write(buffer, position);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+        end = position;
+        return tickBlocks;
+    }
+
+    /**
+     * @return The prices of the block, as epoch millis and price pairs
+     */
+    public ByteBuffer read(TickBlock tickBlock) throws IOException {
+        var segment = segments.get(tickBlock.segment());
+        var buffer = ByteBuffer.allocate(tickBlock.count() * RECORD_SIZE);
+        var position = tickBlock.position();
+        while (buffer.hasRemaining()) {
+            var read = segment.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("The block ends after its segment");
+            }
+            position += read;
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (var segment : segments) {
+            segment.close();
+        }
+    }
+
+    private TickBlock encode(ByteBuffer buffer, byte[] symbol, List<CryptoEntity> cryptoList) {
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        double minPrice = Double.MAX_VALUE;
+        double maxPrice = -Double.MAX_VALUE;
+        var records = ByteBuffer.allocate(cryptoList.size() * RECORD_SIZE);
+        for (var cryptoEntity : cryptoList) {
+            var timestamp = cryptoEntity.getTimestamp().toEpochMilli();
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            minPrice = Math.min(minPrice, cryptoEntity.getPrice());
+            maxPrice = Math.max(maxPrice, cryptoEntity.getPrice());
+            records.putLong(timestamp).putDouble(cryptoEntity.getPrice());
+        }
+        records.flip();
+
+        var header = header(symbol, cryptoList.size(), minTimestamp, maxTimestamp, minPrice, maxPrice);
+        var crc = new CRC32C();
+        crc.update(header.duplicate());
+        crc.update(records.duplicate());
+        buffer.put(header)
+                .putInt((int) crc.getValue());
+        var position = end + buffer.position();
+        buffer.put(records);
+
+        return new TickBlock(nextSequence++, segments.size() - 1, position, cryptoList.size(), minTimestamp, maxTimestamp, minPrice, maxPrice);
+    }
+
+    /**
+     * @return The header fields of a block before its checksum
+     */
+    private static ByteBuffer header(byte[] symbol, int count, long minTimestamp, long maxTimestamp, double minPrice, double maxPrice) {
+        return ByteBuffer.allocate(HEADER_SIZE - Integer.BYTES + symbol.length)
+                .putInt(MAGIC)
+                .putShort((short) symbol.length)
+                .put(symbol)
+                .putInt(count)
+                .putLong(minTimestamp)
+                .putLong(maxTimestamp)
+                .putDouble(minPrice)
+                .putDouble(maxPrice)
+                .flip();
+    }
+
+    /**
+     * Read back the blocks of a segment, up to the first incomplete or corrupted block
+     */
+    private void recover(Path segmentFile, BiConsumer<String, TickBlock> blockConsumer) throws IOException {
+        var segment = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.add(segment);
+        nextSegmentId = parseSegmentId(segmentFile) + 1;
+
+        var size = segment.size();
+        long valid = 0;
+        var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(segment.position(0)), 1 << 16));
+        try {
+            while (valid < size) {
+                var magic = input.readInt();
+                if (magic != MAGIC && magic != PRICES_CHECKSUM_MAGIC) {
+                    break;
+                }
+                var symbol = new byte[input.readShort()];
+                input.readFully(symbol);
+                var count = input.readInt();
+                var minTimestamp = input.readLong();
+                var maxTimestamp = input.readLong();
+                var minPrice = input.readDouble();
+                var maxPrice = input.readDouble();
+                var checksum = input.readInt();
+                if (count <= 0 || (long) count * RECORD_SIZE > size) {
+                    break;
+                }
+                var records = new byte[count * RECORD_SIZE];
+                input.readFully(records);
+                var crc = new CRC32C();
+                if (magic == MAGIC) {
+                    crc.update(header(symbol, count, minTimestamp, maxTimestamp, minPrice, maxPrice));
+                }
+                crc.update(records);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                var position = valid + HEADER_SIZE + symbol.length;
+                blockConsumer.accept(new String(symbol, StandardCharsets.UTF_8),
+                        new TickBlock(nextSequence++, segments.size() - 1, position, count, minTimestamp, maxTimestamp, minPrice, maxPrice));
+                valid = position + records.length;
+            }
+        } catch (EOFException | NegativeArraySizeException e) {
+            log.debug("The segment {} ends with an incomplete block", segmentFile, e);
+        }
+
+        if (valid < size) {
+            log.warn("The segment {} is truncated at {}, dropping {} bytes of incomplete or corrupted blocks", segmentFile, valid, size - valid);
+            segment.truncate(valid);
+            if (fsync) {
+                segment.force(true);
+            }
+        }
+        end = valid;
+    }
+
+    /**
+     * Start a new segment. The previous segment is flushed to the disk first, so only the last segment can lose blocks.
+     */
+    private void roll() throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force(false);
+        }
+        var segmentFile = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        segments.add(FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        end = 0;
+    }
+
+    private static int parseSegmentId(Path segmentFile) {
+        var fileName = segmentFile.getFileName().toString();
+        return Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+}
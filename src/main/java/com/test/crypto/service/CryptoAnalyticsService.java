@@ -0,0 +1,111 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.domain.entity.CryptoAnalytics;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.utils.PriceStatistics;
+import com.test.crypto.utils.TimeoutTasks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Statistics of the prices of the symbols within a period: returns, volatility, drawdown, mean and first/last prices.
+ * Every symbol is read once, page by page, and its pages are folded into a {@link PriceStatistics},
+ * so the memory used does not depend on the number of prices.
+ */
+@Service
+@RequiredArgsConstructor
+public class CryptoAnalyticsService {
+
+    private final CryptoTickStore cryptoTickStore;
+    private final CryptoSymbolRegistry cryptoSymbolRegistry;
+    private final CryptoProperties cryptoProperties;
+
+    @Qualifier("cryptoAnalyticsExecutor")
+    private final Executor cryptoAnalyticsExecutor;
+
+    /**
+     * The symbols are scanned concurrently on the crypto analytics executor, so the latency is close to the slowest symbol.
+     *
+     * @param start The start date used for filtering
+     * @param end The end date used for filtering
+     * @return The statistics of the symbols with prices in the period, sorted by symbol
+     */
+    public List<CryptoAnalytics> getCryptoAnalytics(LocalDate start, LocalDate end) {
+        var analyticsFutures = cryptoSymbolRegistry.getSymbols().stream()
+                .map(symbol -> supplyWithTimeout(() -> computeCryptoAnalytics(symbol, start, end)))
+                .toList();
+
+        return analyticsFutures.stream()
+                .map(this::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The start date used for filtering
+     * @param end The end date used for filtering
+     * @return The statistics of the symbol in the period
+     */
+    public CryptoAnalytics getCryptoAnalyticsBySymbol(String symbol, LocalDate start, LocalDate end) {
+        var cryptoAnalytics = join(supplyWithTimeout(() -> computeCryptoAnalytics(symbol, start, end)));
+
+        if (cryptoAnalytics == null) {
+            throw new NotFoundException(String.format("Crypto currency with value %s has no price in the period.", symbol));
+        }
+        return cryptoAnalytics;
+    }
+
+    /**
+     * @return The statistics of the symbol, null if it has no price in the period
+     */
+    private CryptoAnalytics computeCryptoAnalytics(String symbol, LocalDate start, LocalDate end) {
+        var priceStatistics = new PriceStatistics();
+
+        cryptoTickStore.scanInterval(symbol, startOf(start), endOf(end), cryptoProperties.getAnalytics().getPageSize(),
+                page -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("The scan of " + symbol + " timed out.");
+                    }
+                    page.forEach(cryptoEntity -> priceStatistics.add(cryptoEntity.getTimestamp(), cryptoEntity.getPrice()));
+                });
+
+        return priceStatistics.getCount() == 0 ? null : priceStatistics.toAnalytics(symbol);
+    }
+
+    private static Instant startOf(LocalDate start) {
+        return start.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * The end date is inclusive, so the interval ends at the last millisecond of the day
+     */
+    private static Instant endOf(LocalDate end) {
+        return end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1);
+    }
+
+    /**
+     * Run the scan on the crypto analytics executor, within the analytics timeout counted from the submission.
+     * A scan timed out is interrupted, and stops at its next page.
+     */
+    private CompletableFuture<CryptoAnalytics> supplyWithTimeout(Supplier<CryptoAnalytics> scan) {
+        return TimeoutTasks.supplyWithTimeout(cryptoAnalyticsExecutor, cryptoProperties.getAnalytics().getTimeout(), scan);
+    }
+
+    private CryptoAnalytics join(CompletableFuture<CryptoAnalytics> future) {
+        return TimeoutTasks.join(future, "Crypto analytics could not be computed in time.");
+    }
+}
@@ -0,0 +1,172 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoDailyValuesStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CryptoDailyValuesService implements CryptoValuesReader {
+
+    private final CryptoDailyValuesStore cryptoDailyValuesStore;
+
+    /**
+     * The daily rows are updated with read-modify-write, so the concurrent uploads of the same symbol are serialized.
+     * The locks are held across Cassandra round trips, so they are not monitors, which would pin a virtual thread.
+     */
+    private final ConcurrentMap<String, Lock> symbolLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Merge the crypto entries into the daily rollups of their symbols.
+     *
+     * @param cryptoList The newly ingested crypto entries
+     */
+    public void updateDailyValues(List<CryptoEntity> cryptoList) {
+        cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol,
+                        Collectors.groupingBy(cryptoEntity -> toDay(cryptoEntity.getTimestamp()), TreeMap::new, Collectors.toList())))
+                .forEach(this::updateDailyValues);
+    }
+
+    /**
+     * Replace the daily rollups of a symbol with the rollups of its whole history, for the crypto entries stored
+     * before the rollups existed. The rollups are built in memory, one per day, and saved once the history is read.
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @param history Feeds every crypto entry of the symbol to its consumer, page by page
+     * @return The rebuilt rollups, sorted by day
+     */
+    public List<CryptoDailyValues> rebuildDailyValues(String symbol, Consumer<Consumer<List<CryptoEntity>>> history) {
+        var rebuiltDailyValues = new TreeMap<LocalDate, CryptoDailyValues>();
+        history.accept(page -> page.stream()
+                .collect(Collectors.groupingBy(cryptoEntity -> toDay(cryptoEntity.getTimestamp())))
+                .forEach((day, dayCryptoList) -> rebuiltDailyValues.merge(day, rollup(symbol, day, dayCryptoList), CryptoDailyValuesService::merge)));
+
+        var dailyValues = List.copyOf(rebuiltDailyValues.values());
+        var lock = symbolLocks.computeIfAbsent(symbol, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            cryptoDailyValuesStore.saveAll(dailyValues);
+        } finally {
+            lock.unlock();
+        }
+        return dailyValues;
+    }
+
+    /**
+     * Merge the daily rollups of a crypto symbol within a specified period
+     */
+    @Override
+    public CryptoValues getCryptoValuesInInterval(String symbol, LocalDate start, LocalDate end) {
+        var dailyValues = cryptoDailyValuesStore.findBySymbolInInterval(symbol, start, end);
+
+        if (dailyValues.isEmpty()) {
+            return CryptoValues.builder().build();
+        }
+
+        return CryptoValues.builder()
+                .symbol(symbol)
+                .minPrice(dailyValues.stream().map(CryptoDailyValues::getMinPrice).min(Comparator.naturalOrder()).orElseThrow())
+                .maxPrice(dailyValues.stream().map(CryptoDailyValues::getMaxPrice).max(Comparator.naturalOrder()).orElseThrow())
+                .oldest(dailyValues.stream().map(CryptoDailyValues::getFirstTimestamp).min(Comparator.naturalOrder()).orElseThrow())
+                .newest(dailyValues.stream().map(CryptoDailyValues::getLastTimestamp).max(Comparator.naturalOrder()).orElseThrow())
+                .build();
+    }
+
+    private void updateDailyValues(String symbol, TreeMap<LocalDate, List<CryptoEntity>> cryptoListByDay) {
+        var lock = symbolLocks.computeIfAbsent(symbol, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            Map<LocalDate, CryptoDailyValues> storedDailyValues = cryptoDailyValuesStore
+                    .findBySymbolInInterval(symbol, cryptoListByDay.firstKey(), cryptoListByDay.lastKey())
+                    .stream()
+                    .collect(Collectors.toMap(CryptoDailyValues::getDay, Function.identity()));
+
+            var updatedDailyValues = cryptoListByDay.entrySet().stream()
+                    .map(entry -> merge(storedDailyValues.get(entry.getKey()), rollup(symbol, entry.getKey(), entry.getValue())))
+                    .toList();
+
+            cryptoDailyValuesStore.saveAll(updatedDailyValues);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Build the rollup of the crypto entries of a single day
+     */
+    private static CryptoDailyValues rollup(String symbol, LocalDate day, List<CryptoEntity> cryptoList) {
+        var first = cryptoList.get(0);
+        var dailyValues = CryptoDailyValues.builder()
+                .symbol(symbol)
+                .day(day)
+                .minPrice(first.getPrice())
+                .maxPrice(first.getPrice())
+                .firstTimestamp(first.getTimestamp())
+                .firstPrice(first.getPrice())
+                .lastTimestamp(first.getTimestamp())
+                .lastPrice(first.getPrice())
+                .count((long) cryptoList.size())
+                .build();
+
+        for (var cryptoEntity : cryptoList.subList(1, cryptoList.size())) {
+            dailyValues.setMinPrice(Math.min(dailyValues.getMinPrice(), cryptoEntity.getPrice()));
+            dailyValues.setMaxPrice(Math.max(dailyValues.getMaxPrice(), cryptoEntity.getPrice()));
+            updateFirstAndLast(dailyValues, cryptoEntity.getTimestamp(), cryptoEntity.getPrice(), cryptoEntity.getTimestamp(), cryptoEntity.getPrice());
+        }
+
+        return dailyValues;
+    }
+
+    /**
+     * Merge two rollups of the same symbol and day. The stored rollup can be null if the day has no entries yet.
+     * Re-uploaded entries are counted again, the other values are not affected by duplicates.
+     */
+    private static CryptoDailyValues merge(CryptoDailyValues stored, CryptoDailyValues ingested) {
+        if (Objects.isNull(stored)) {
+            return ingested;
+        }
+
+        stored.setMinPrice(Math.min(stored.getMinPrice(), ingested.getMinPrice()));
+        stored.setMaxPrice(Math.max(stored.getMaxPrice(), ingested.getMaxPrice()));
+        stored.setCount(stored.getCount() + ingested.getCount());
+        updateFirstAndLast(stored, ingested.getFirstTimestamp(), ingested.getFirstPrice(), ingested.getLastTimestamp(), ingested.getLastPrice());
+
+        return stored;
+    }
+
+    private static void updateFirstAndLast(CryptoDailyValues dailyValues, Instant firstTimestamp, Double firstPrice, Instant lastTimestamp, Double lastPrice) {
+        if (firstTimestamp.isBefore(dailyValues.getFirstTimestamp())) {
+            dailyValues.setFirstTimestamp(firstTimestamp);
+            dailyValues.setFirstPrice(firstPrice);
+        }
+
+        if (lastTimestamp.isAfter(dailyValues.getLastTimestamp())) {
+            dailyValues.setLastTimestamp(lastTimestamp);
+            dailyValues.setLastPrice(lastPrice);
+        }
+    }
+
+    private static LocalDate toDay(Instant timestamp) {
+        return timestamp.atZone(ZoneOffset.UTC).toLocalDate();
+    }
+}
@@ -0,0 +1,101 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.repository.CryptoTickStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Drops the crypto entries already stored, so the re-uploaded files do not rewrite the same rows
+ * nor count them twice in the daily rollups.
+ * The entries outside the all time interval of their symbol are new without reading the database; only the ones
+ * overlapping it are checked against the timestamps stored in their interval, read one UTC day at a time. The interval
+ * is only trusted once the summary is verified to cover the whole history, otherwise every entry is checked.
+ */
+@Component
+@RequiredArgsConstructor
+public class CryptoDeduplicator {
+
+    private final CryptoTickStore cryptoTickStore;
+    private final CryptoSummaryService cryptoSummaryService;
+    private final CryptoSymbolRegistry cryptoSymbolRegistry;
+    private final CryptoMetrics cryptoMetrics;
+
+    /**
+     * The caller must hold the ingestion lock of the symbols, otherwise two concurrent chunks could both see
+     * the same entry as new.
+     *
+     * @param cryptoList The crypto entries to save
+     * @return The entries which are not stored yet, without the duplicates of the list itself, the first one winning
+     */
+    public List<CryptoEntity> filterNew(List<CryptoEntity> cryptoList) {
+        var bySymbol = new LinkedHashMap<String, List<CryptoEntity>>();
+        cryptoList.forEach(cryptoEntity -> bySymbol.computeIfAbsent(cryptoEntity.getSymbol(), symbol -> new ArrayList<>()).add(cryptoEntity));
+
+        var newCryptoList = new ArrayList<CryptoEntity>(cryptoList.size());
+        bySymbol.forEach((symbol, symbolCryptoList) -> newCryptoList.addAll(filterNew(symbol, symbolCryptoList)));
+
+        cryptoMetrics.recordDuplicates(cryptoList.size() - newCryptoList.size());
+        return newCryptoList;
+    }
+
+    private List<CryptoEntity> filterNew(String symbol, List<CryptoEntity> symbolCryptoList) {
+        var timestamps = new HashSet<Instant>();
+        var distinct = symbolCryptoList.stream()
+                .filter(cryptoEntity -> timestamps.add(cryptoEntity.getTimestamp()))
+                .toList();
+
+        if (!cryptoSymbolRegistry.contains(symbol)) {
+            return distinct;
+        }
+
+        var summary = cryptoSummaryService.getVerifiedCryptoValues(symbol);
+        var overlapping = distinct.stream()
+                .filter(cryptoEntity -> summary
+                        .map(values -> !cryptoEntity.getTimestamp().isBefore(values.getOldest()) && !cryptoEntity.getTimestamp().isAfter(values.getNewest()))
+                        .orElse(true))
+                .toList();
+        if (overlapping.isEmpty()) {
+            return distinct;
+        }
+
+        var stored = findStoredTimestamps(symbol, overlapping);
+        return distinct.stream()
+                .filter(cryptoEntity -> !stored.contains(cryptoEntity.getTimestamp()))
+                .toList();
+    }
+
+    /**
+     * A chunk merged from several files can span months, so the stored timestamps are read for each UTC day of the
+     * overlapping entries, between their first and last timestamp of the day. Only the ones of the chunk are kept,
+     * so the memory used is bounded by the chunk and a single day of stored prices.
+     *
+     * @return The timestamps of the overlapping entries which are already stored
+     */
+    private Set<Instant> findStoredTimestamps(String symbol, List<CryptoEntity> overlapping) {
+        var timestampsByDay = overlapping.stream()
+                .map(CryptoEntity::getTimestamp)
+                .collect(Collectors.groupingBy(timestamp -> LocalDate.ofInstant(timestamp, ZoneOffset.UTC), TreeMap::new,
+                        Collectors.toCollection(TreeSet::new)));
+
+        var stored = new HashSet<Instant>();
+        timestampsByDay.values().forEach(timestamps -> cryptoTickStore
+                .findTimestampsBySymbolInInterval(symbol, timestamps.first(), timestamps.last()).stream()
+                .filter(timestamps::contains)
+                .forEach(stored::add));
+        return stored;
+    }
+}
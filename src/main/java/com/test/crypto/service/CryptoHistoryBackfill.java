@@ -0,0 +1,44 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the daily rollups and the summaries of the symbols stored before they existed, so their prices appear in
+ * the rankings. A symbol gets its summary once its rollups are rebuilt, so the symbols with a summary are skipped
+ * and an interrupted backfill resumes with the remaining ones at the next startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+@ConditionalOnProperty(name = "crypto.storage.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class CryptoHistoryBackfill implements ApplicationRunner {
+
+    private final CryptoService cryptoService;
+    private final CryptoSummaryService cryptoSummaryService;
+    private final CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var symbols = cryptoSymbolRegistry.getSymbols().stream()
+                .filter(symbol -> !cryptoSummaryService.hasSummary(symbol))
+                .toList();
+        if (symbols.isEmpty()) {
+            return;
+        }
+
+        log.info("Rebuilding the daily rollups and summaries of {} crypto symbols", symbols.size());
+        for (var symbol : symbols) {
+            if (!cryptoSummaryService.hasSummary(symbol)) {
+                cryptoService.backfill(symbol);
+                log.info("Rebuilt the daily rollups and summary of {}", symbol);
+            }
+        }
+    }
+}
@@ -1,58 +1,154 @@
 package com.test.crypto.service;
 
+import com.test.crypto.common.config.CryptoProperties;
 import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.PartialSaveException;
 import com.test.crypto.domain.entity.CryptoEntity;
 import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
 import com.test.crypto.domain.enums.SortingOrder;
-import com.test.crypto.repository.CryptoRepository;
-import com.test.crypto.repository.CryptoValuesRepository;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.service.cache.CryptoResultCache;
 import com.test.crypto.utils.CryptoNormalizer;
+import com.test.crypto.utils.TimeoutTasks;
+import com.test.crypto.utils.TopKSelector;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 @AllArgsConstructor
 @Service
 public class CryptoService {
 
-    private final CryptoRepository cryptoRepository;
-    private final CryptoValuesRepository cryptoValuesRepository;
+    private final CryptoTickStore cryptoTickStore;
+    private final CryptoDailyValuesService cryptoDailyValuesService;
+    private final CryptoSummaryService cryptoSummaryService;
+    private final CryptoValuesReader cryptoValuesReader;
+    private final CryptoSymbolRegistry cryptoSymbolRegistry;
+    private final CryptoDeduplicator cryptoDeduplicator;
     private final CryptoNormalizer cryptoNormalizer;
+    private final CryptoProperties cryptoProperties;
+    private final CryptoResultCache cryptoResultCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
-    public void saveAll(List<CryptoEntity> cryptoList) {
-        cryptoRepository.saveAll(cryptoList);
+    @Qualifier("cryptoQueryExecutor")
+    private final Executor cryptoQueryExecutor;
+
+    private final ConcurrentMap<String, Lock> ingestionLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Save the crypto entries which are not stored yet and update the daily rollups used by the normalization queries
+     * and the all time summaries of the symbols.
+     * A {@link CryptoIngestedEvent} is published once the entries are saved.
+     * The chunks sharing a symbol are saved one at a time, so the deduplication and the rollups see the previous chunk.
+     *
+     * @param cryptoList The crypto entries
+     * @return The number of entries saved, the duplicates excluded
+     */
+    public int saveAll(List<CryptoEntity> cryptoList) {
+        var locks = cryptoList.stream()
+                .map(CryptoEntity::getSymbol)
+                .distinct()
+                .sorted()
+                .map(symbol -> ingestionLocks.computeIfAbsent(symbol, key -> new ReentrantLock()))
+                .toList();
+
+        locks.forEach(Lock::lock);
+        try {
+            var newCryptoList = cryptoDeduplicator.filterNew(cryptoList);
+            if (newCryptoList.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                cryptoTickStore.saveAll(newCryptoList);
+            } catch (PartialSaveException e) {
+                onSaved(e.getSavedCryptoList());
+                throw e;
+            }
+            onSaved(newCryptoList);
+            return newCryptoList.size();
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    /**
+     * Rebuild the daily rollups and the summary of a symbol from all its stored crypto entries.
+     * It holds the ingestion lock of the symbol, so no entry is saved meanwhile.
+     *
+     * @param symbol The symbol of the cryptocurrency
+     */
+    public void backfill(String symbol) {
+        backfill(symbol, storedHistory(symbol));
     }
 
     /**
-     * Returns a sorted list with all the crypto symbols withing a specified period
+     * Rebuild the daily rollups and the summary of a symbol from its whole history, read by the caller.
+     * The summary is saved last, so a symbol interrupted before it is rebuilt again.
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @param history Feeds every crypto entry of the symbol to its consumer, page by page
+     */
+    public void backfill(String symbol, Consumer<Consumer<List<CryptoEntity>>> history) {
+        var lock = ingestionLocks.computeIfAbsent(symbol, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            rebuild(symbol, history);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a sorted page of the crypto symbols withing a specified period
      *
      * @param start The start date used for filtering
      * @param end The end date used for filtering
      * @param sortingOrder The sorting order. It can be ASD or DESC.
-     * @return The list with sorted currency symbols.
+     * @param offset The number of top ranked cryptos skipped
+     * @param limit The maximum number of cryptos returned
+     * @return The list with sorted currency symbols
      */
-    public List<String> getCryptoListOrderedByNormalization(LocalDate start, LocalDate end, SortingOrder sortingOrder) {
-        Comparator<Pair<CryptoValues, Double>> normalizationComparator = sortingOrder == SortingOrder.ASC ? Comparator.comparing(Pair::getRight) : (c1, c2) -> c2.getRight().compareTo(c1.getRight());
-
-        var allCryptoSymbols = getCryptoSymbols();
-
-        return getCryptoValuesWithNormalisation(allCryptoSymbols, start, end)
-                .sorted(normalizationComparator)
-                .map(Pair::getLeft)
-                .map(CryptoValues::getSymbol)
+    public List<String> getCryptoListOrderedByNormalization(LocalDate start, LocalDate end, SortingOrder sortingOrder, int offset, int limit) {
+        return getNormalizedCryptoList(start, end, sortingOrder, offset, limit).stream()
+                .map(NormalizedCrypto::getSymbol)
                 .toList();
     }
 
+    /**
+     * Returns a sorted page of the crypto symbols withing a specified period, with their normalized value.
+     * Only the requested page is sorted, the normalized values of the period are cached until an ingestion touches it.
+     *
+     * @param start The start date used for filtering
+     * @param end The end date used for filtering
+     * @param sortingOrder The sorting order. It can be ASD or DESC.
+     * @param offset The number of top ranked cryptos skipped
+     * @param limit The maximum number of cryptos returned
+     * @return The list with sorted currency symbols and normalized values
+     */
+    public List<NormalizedCrypto> getNormalizedCryptoList(LocalDate start, LocalDate end, SortingOrder sortingOrder, int offset, int limit) {
+        return TopKSelector.select(getNormalizedCryptos(start, end), normalizationComparator(sortingOrder), offset, limit);
+    }
+
     /**
      * Returns the crypto symbol with the highers normalization for a specific date
      *
@@ -60,12 +156,9 @@ public class CryptoService {
      * @return Returns the crypto symbol
      */
     public String getHighestNormalizedCryptoByDate(LocalDate date) {
-        var allCryptoSymbols = getCryptoSymbols();
-
-        return getCryptoValuesWithNormalisation(allCryptoSymbols, date, date)
-                .max(Comparator.comparing(Pair::getRight))
-                .map(Pair::getLeft)
-                .map(CryptoValues::getSymbol)
+        return TopKSelector.select(getNormalizedCryptos(date, date), normalizationComparator(SortingOrder.DESC), 0, 1).stream()
+                .findFirst()
+                .map(NormalizedCrypto::getSymbol)
                 .orElseThrow(() -> new NotFoundException(String.format("Could not found any crypto for this date %s", date)));
     }
 
@@ -73,10 +166,49 @@ public class CryptoService {
      * Finds the oldest/newest/min/max values for a requested crypto symbol
      *
      * @param symbol The symbol of the cryptocurrency
-     * @return An object containing oldest/newest/min/max values for the specific crypto
+     * @return An object containing oldest/newest/min/max values for the specific crypto. It is read from the in memory summaries.
      */
     public CryptoValues getCryptoValuesBySymbol(String symbol) {
-        var cryptoValuesBySymbol = cryptoValuesRepository.findCryptoValuesBySymbol(symbol);
+        return cryptoSummaryService.getCryptoValues(symbol).orElseGet(() -> computeCryptoValuesBySymbol(symbol));
+    }
+
+    /**
+     * Returns the oldest/newest/min/max values of every crypto within a specified period. The symbols are queried concurrently.
+     *
+     * @param start The start date used for filtering
+     * @param end The end date used for filtering
+     * @return The values of the symbols with entries in the period
+     */
+    public List<CryptoValues> getCryptoValuesInInterval(LocalDate start, LocalDate end) {
+        return getCryptoValuesWithNormalisation(getCryptoSymbols(), start, end)
+                .map(Pair::getLeft)
+                .toList();
+    }
+
+    /**
+     * The ties are ranked by symbol, so the pages of a ranking are consistent
+     */
+    public static Comparator<NormalizedCrypto> normalizationComparator(SortingOrder sortingOrder) {
+        Comparator<NormalizedCrypto> byNormalizedValue = Comparator.comparing(NormalizedCrypto::getNormalizedValue);
+        return (sortingOrder == SortingOrder.ASC ? byNormalizedValue : byNormalizedValue.reversed())
+                .thenComparing(NormalizedCrypto::getSymbol);
+    }
+
+    private List<NormalizedCrypto> getNormalizedCryptos(LocalDate start, LocalDate end) {
+        return cryptoResultCache.getNormalizedCryptos(start, end, () -> getCryptoValuesWithNormalisation(getCryptoSymbols(), start, end)
+                .map(pair -> NormalizedCrypto.builder()
+                        .symbol(pair.getLeft().getSymbol())
+                        .normalizedValue(pair.getRight())
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Aggregate the values of a symbol without summary, which was ingested before the summaries existed.
+     * Its summary is created by the backfill, together with its daily rollups.
+     */
+    private CryptoValues computeCryptoValuesBySymbol(String symbol) {
+        var cryptoValuesBySymbol = cryptoTickStore.findCryptoValuesBySymbol(symbol);
 
         if (!cryptoExistsPredicate().test(cryptoValuesBySymbol)) {
             throw new NotFoundException(String.format("Crypto currency with value %s could not be found.", symbol));
@@ -86,20 +218,77 @@ public class CryptoService {
     }
 
     /**
-     * Calculate the normalisation for each crypto
+     * The derived values are also updated for the entries of a partial save, since they are stored and would be dropped
+     * as duplicates when saved again
+     */
+    private void onSaved(List<CryptoEntity> savedCryptoList) {
+        updateDerivedValues(savedCryptoList);
+        applicationEventPublisher.publishEvent(new CryptoIngestedEvent(savedCryptoList));
+    }
+
+    /**
+     * Merge the saved entries into the daily rollups and the summaries. The entries of a new symbol are its whole
+     * history, while a symbol stored before the summaries existed has no summary yet: its rollups and summary are
+     * rebuilt from all its entries instead, the saved ones included.
+     */
+    private void updateDerivedValues(List<CryptoEntity> newCryptoList) {
+        var backfilledSymbols = newCryptoList.stream()
+                .map(CryptoEntity::getSymbol)
+                .distinct()
+                .filter(symbol -> cryptoSymbolRegistry.contains(symbol) && !cryptoSummaryService.hasSummary(symbol))
+                .toList();
+        var updatedCryptoList = backfilledSymbols.isEmpty() ? newCryptoList : newCryptoList.stream()
+                .filter(cryptoEntity -> !backfilledSymbols.contains(cryptoEntity.getSymbol()))
+                .toList();
+
+        if (!updatedCryptoList.isEmpty()) {
+            cryptoDailyValuesService.updateDailyValues(updatedCryptoList);
+            cryptoSummaryService.updateSummaries(updatedCryptoList);
+        }
+        backfilledSymbols.forEach(symbol -> rebuild(symbol, storedHistory(symbol)));
+    }
+
+    private Consumer<Consumer<List<CryptoEntity>>> storedHistory(String symbol) {
+        return pageConsumer -> cryptoTickStore.scan(symbol, cryptoProperties.getQuery().getHydrationPageSize(), pageConsumer);
+    }
+
+    private void rebuild(String symbol, Consumer<Consumer<List<CryptoEntity>>> history) {
+        var dailyValues = cryptoDailyValuesService.rebuildDailyValues(symbol, history);
+        cryptoSummaryService.replaceSummary(symbol, dailyValues);
+    }
+
+    /**
+     * Calculate the normalisation for each crypto.
+     * The symbols are queried concurrently on the crypto query executor, so the latency is close to the slowest symbol.
      *
      * @param allCryptoSymbols All crypto distinct symbols
      * @param start The start date used for filtering
      * @param end The end date used for filtering
-     * @return Pairs of crypto information and normalisation value
+     * @return Pairs of crypto information and normalisation value, in the order of the symbols
      */
     private Stream<Pair<CryptoValues, Double>> getCryptoValuesWithNormalisation(List<String> allCryptoSymbols, LocalDate start, LocalDate end) {
-        return allCryptoSymbols.stream()
-                .map(symbol -> getCryptoValuesBySymbolInInterval(start, end, symbol))
+        var cryptoValuesFutures = allCryptoSymbols.stream()
+                .map(symbol -> supplyWithTimeout(() -> getCryptoValuesBySymbolInInterval(start, end, symbol)))
+                .toList();
+
+        return cryptoValuesFutures.stream()
+                .map(this::join)
                 .filter(cryptoExistsPredicate())
                 .map(cryptoValues -> Pair.of(cryptoValues, cryptoNormalizer.getNormalisedValue(cryptoValues.getMinPrice(), cryptoValues.getMaxPrice())));
     }
 
+    /**
+     * Run the query on the crypto query executor, within the query timeout counted from the submission.
+     * A query timed out is cancelled, so it does not keep a worker once its response is dropped.
+     */
+    private <T> CompletableFuture<T> supplyWithTimeout(Supplier<T> query) {
+        return TimeoutTasks.supplyWithTimeout(cryptoQueryExecutor, cryptoProperties.getQuery().getTimeout(), query);
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        return TimeoutTasks.join(future, "Crypto values could not be retrieved in time.");
+    }
+
     /**
      * Check if the crypto exists.
      * Cassandra is returning an instance of the CryptoValues object with all the fields null.
@@ -109,7 +298,8 @@ public class CryptoService {
     }
 
     /**
-     * Get the crypto information (oldest/newest/min/max) for a specific crypto symbol
+     * Get the crypto information (oldest/newest/min/max) for a specific crypto symbol.
+     * The values are read from the daily rollups, or from the prices held in memory with the MEMORY query backend.
      *
      * @param start The start date used for filtering
      * @param end The end date used for filtering
@@ -117,14 +307,13 @@ public class CryptoService {
      * @return The crypto information
      */
     private CryptoValues getCryptoValuesBySymbolInInterval(LocalDate start, LocalDate end, String symbol) {
-        return cryptoValuesRepository.findPriceLimitsBySymbolInInterval(symbol, start.atTime(LocalTime.MIN).toInstant(ZoneOffset.UTC),
-                end.atTime(LocalTime.MAX).toInstant(ZoneOffset.UTC));
+        return cryptoValuesReader.getCryptoValuesInInterval(symbol, start, end);
     }
 
     /**
      * @return All the distinct symbols of the crypto entries in database. The symbols are the actual table partitions.
      */
-    private List<String> getCryptoSymbols() {
-        return cryptoRepository.findAllSymbols().stream().map(CryptoEntity::getSymbol).collect(Collectors.toList());
+    public List<String> getCryptoSymbols() {
+        return cryptoSymbolRegistry.getSymbols();
     }
 }
@@ -0,0 +1,110 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.repository.CryptoBatchWriter;
+import com.test.crypto.repository.CryptoBucketedRepository;
+import com.test.crypto.repository.CryptoDailyValuesRepository;
+import com.test.crypto.repository.CryptoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.cassandra.core.query.CassandraPageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Copies the crypto entries of the {@code crypto} table into the month partitions of the {@code crypto_by_month} table.
+ * Each symbol partition is read page by page, so the memory used does not depend on the size of the partition.
+ * The daily rollups and the summary of every symbol are then rebuilt from its month partitions, since the month layout
+ * finds the months of a symbol from its rollups: the prices stored before the rollups existed are reachable once
+ * migrated. The rebuild reads the copied entries together with the ones already ingested in the month layout, from
+ * the first to the last day of both, so those keep their rollups. The writes are idempotent and the rebuild reads
+ * the whole table, so an interrupted migration can be run again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+@ConditionalOnProperty(name = "crypto.storage.migration.enabled", havingValue = "true")
+public class CryptoStorageMigration implements ApplicationRunner {
+
+    private final CryptoRepository cryptoRepository;
+    private final CryptoBatchWriter cryptoBatchWriter;
+    private final CryptoBucketedRepository cryptoBucketedRepository;
+    private final CryptoDailyValuesRepository cryptoDailyValuesRepository;
+    private final CryptoService cryptoService;
+    private final CryptoProperties cryptoProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var symbols = cryptoRepository.findAllSymbols().stream()
+                .map(CryptoEntity::getSymbol)
+                .toList();
+
+        log.info("Migrating {} crypto symbols to the month partitions", symbols.size());
+        symbols.forEach(symbol -> log.info("Migrated {} crypto entries of {}", migrate(symbol), symbol));
+    }
+
+    /**
+     * The copy runs under the ingestion lock of the symbol, like the rebuild, so no entry is saved in between
+     */
+    long migrate(String symbol) {
+        var migrated = new AtomicLong();
+        cryptoService.backfill(symbol, pageConsumer -> {
+            var days = copy(symbol, migrated);
+            cryptoDailyValuesRepository.findFirstDayBySymbol(symbol).map(CryptoDailyValues::getDay).ifPresent(days::add);
+            cryptoDailyValuesRepository.findLastDayBySymbol(symbol).map(CryptoDailyValues::getDay).ifPresent(days::add);
+            if (!days.isEmpty()) {
+                CryptoBucketedEntity.monthsBetween(days.first(), days.last()).forEach(month -> scanMonth(symbol, month, pageConsumer));
+            }
+        });
+        return migrated.get();
+    }
+
+    /**
+     * @return The UTC days of the copied crypto entries
+     */
+    private NavigableSet<LocalDate> copy(String symbol, AtomicLong migrated) {
+        var days = new TreeSet<LocalDate>();
+        var slice = cryptoRepository.findBySymbol(symbol, CassandraPageRequest.first(cryptoProperties.getStorage().getMigration().getPageSize()));
+        while (true) {
+            cryptoBatchWriter.writeBucketed(slice.getContent());
+            slice.getContent().forEach(cryptoEntity -> days.add(LocalDate.ofInstant(cryptoEntity.getTimestamp(), ZoneOffset.UTC)));
+            migrated.addAndGet(slice.getNumberOfElements());
+            if (!slice.hasNext()) {
+                return days;
+            }
+            slice = cryptoRepository.findBySymbol(symbol, slice.nextPageable());
+        }
+    }
+
+    private void scanMonth(String symbol, int month, Consumer<List<CryptoEntity>> pageConsumer) {
+        var slice = cryptoBucketedRepository.findBySymbolAndMonth(symbol, month, CassandraPageRequest.first(cryptoProperties.getStorage().getMigration().getPageSize()));
+        while (true) {
+            pageConsumer.accept(slice.getContent().stream()
+                    .map(bucketed -> CryptoEntity.builder()
+                            .symbol(bucketed.getSymbol())
+                            .timestamp(bucketed.getTimestamp())
+                            .price(bucketed.getPrice())
+                            .build())
+                    .toList());
+            if (!slice.hasNext()) {
+                return;
+            }
+            slice = cryptoBucketedRepository.findBySymbolAndMonth(symbol, month, slice.nextPageable());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoSummary;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoSummaryStore;
+import com.test.crypto.repository.CryptoTickStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * All time values of every crypto symbol, held in memory and persisted by the {@link CryptoSummaryStore}.
+ * There is one summary per symbol, so they are loaded entirely at startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class CryptoSummaryService {
+
+    private final CryptoSummaryStore cryptoSummaryStore;
+    private final CryptoTickStore cryptoTickStore;
+
+    private final ConcurrentMap<String, CryptoSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * The summary of a symbol is merged and written under its lock, so the persisted summary is never older than
+     * a concurrent update. The locks are held across the store writes, so they are not monitors.
+     */
+    private final ConcurrentMap<String, Lock> symbolLocks = new ConcurrentHashMap<>();
+
+    /**
+     * The symbols whose summary is known to cover their whole history: rebuilt, seeded from the stored entries
+     * or checked against them since startup. A loaded summary can predate the backfill, so it is checked first.
+     */
+    private final Set<String> verifiedSymbols = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Load the summaries from the store
+     */
+    @PostConstruct
+    public void load() {
+        cryptoSummaryStore.findAll().forEach(summary -> summaries.put(summary.getSymbol(), summary));
+    }
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @return The oldest/newest/min/max values of the symbol, empty if the symbol has no summary yet
+     */
+    public Optional<CryptoValues> getCryptoValues(String symbol) {
+        return Optional.ofNullable(summaries.get(symbol)).map(CryptoSummaryService::toCryptoValues);
+    }
+
+    /**
+     * The summary of a symbol is checked against its stored entries the first time it is read since startup,
+     * and widened to them if it only covers a part of the history.
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @return The oldest/newest/min/max values of the whole history of the symbol, empty if the symbol has no summary yet
+     */
+    public Optional<CryptoValues> getVerifiedCryptoValues(String symbol) {
+        if (!verifiedSymbols.contains(symbol) && summaries.containsKey(symbol)) {
+            verify(symbol);
+        }
+        return verifiedSymbols.contains(symbol) ? getCryptoValues(symbol) : Optional.empty();
+    }
+
+    /**
+     * Merge the crypto entries into the summaries of their symbols
+     *
+     * @param cryptoList The newly ingested crypto entries
+     */
+    public void updateSummaries(List<CryptoEntity> cryptoList) {
+        cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol))
+                .forEach((symbol, symbolCryptoList) -> merge(summarize(symbol, symbolCryptoList)));
+    }
+
+    /**
+     * A summary is only created from the whole history of its symbol, so a symbol with a summary also has its daily
+     * rollups. The symbols stored before the summaries existed have none until they are rebuilt.
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @return If the symbol has a summary
+     */
+    public boolean hasSummary(String symbol) {
+        return summaries.containsKey(symbol);
+    }
+
+    /**
+     * Replace the summary of a symbol with the one of its daily rollups, rebuilt from its whole history
+     *
+     * @param symbol The symbol of the cryptocurrency
+     * @param dailyValues All the daily rollups of the symbol
+     */
+    public void replaceSummary(String symbol, List<CryptoDailyValues> dailyValues) {
+        if (dailyValues.isEmpty()) {
+            return;
+        }
+
+        var summary = CryptoSummary.builder()
+                .symbol(symbol)
+                .minPrice(dailyValues.stream().mapToDouble(CryptoDailyValues::getMinPrice).min().orElseThrow())
+                .maxPrice(dailyValues.stream().mapToDouble(CryptoDailyValues::getMaxPrice).max().orElseThrow())
+                .oldest(dailyValues.stream().map(CryptoDailyValues::getFirstTimestamp).min(Comparator.naturalOrder()).orElseThrow())
+                .newest(dailyValues.stream().map(CryptoDailyValues::getLastTimestamp).max(Comparator.naturalOrder()).orElseThrow())
+                .build();
+        var lock = symbolLocks.computeIfAbsent(symbol, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            cryptoSummaryStore.save(summary);
+            summaries.put(symbol, summary);
+            verifiedSymbols.add(symbol);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void merge(CryptoSummary ingested) {
+        var lock = symbolLocks.computeIfAbsent(ingested.getSymbol(), key -> new ReentrantLock());
+        lock.lock();
+        try {
+            var stored = summaries.get(ingested.getSymbol());
+            var merged = merge(Objects.isNull(stored) ? seed(ingested) : stored, ingested);
+            cryptoSummaryStore.save(merged);
+            summaries.put(merged.getSymbol(), merged);
+            if (Objects.isNull(stored)) {
+                verifiedSymbols.add(merged.getSymbol());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void verify(String symbol) {
+        var lock = symbolLocks.computeIfAbsent(symbol, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            var stored = summaries.get(symbol);
+            if (Objects.isNull(stored) || verifiedSymbols.contains(symbol)) {
+                return;
+            }
+
+            var cryptoValues = cryptoTickStore.findCryptoValuesBySymbol(symbol);
+            if (Objects.nonNull(cryptoValues.getMinPrice()) && Objects.nonNull(cryptoValues.getOldest())) {
+                var merged = merge(stored, toSummary(symbol, cryptoValues));
+                if (!merged.equals(stored)) {
+                    cryptoSummaryStore.save(merged);
+                    summaries.put(symbol, merged);
+                }
+            }
+            verifiedSymbols.add(symbol);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A symbol without summary can have entries stored before the summaries existed, so its first summary starts from
+     * the values of all its stored entries, not only from the ingested ones.
+     */
+    private CryptoSummary seed(CryptoSummary ingested) {
+        var cryptoValues = cryptoTickStore.findCryptoValuesBySymbol(ingested.getSymbol());
+        if (Objects.isNull(cryptoValues.getMinPrice()) || Objects.isNull(cryptoValues.getOldest())) {
+            return ingested;
+        }
+
+        return toSummary(ingested.getSymbol(), cryptoValues);
+    }
+
+    private static CryptoSummary toSummary(String symbol, CryptoValues cryptoValues) {
+        return CryptoSummary.builder()
+                .symbol(symbol)
+                .minPrice(cryptoValues.getMinPrice())
+                .maxPrice(cryptoValues.getMaxPrice())
+                .oldest(cryptoValues.getOldest())
+                .newest(cryptoValues.getNewest())
+                .build();
+    }
+
+    private static CryptoSummary merge(CryptoSummary stored, CryptoSummary ingested) {
+        return CryptoSummary.builder()
+                .symbol(stored.getSymbol())
+                .minPrice(Math.min(stored.getMinPrice(), ingested.getMinPrice()))
+                .maxPrice(Math.max(stored.getMaxPrice(), ingested.getMaxPrice()))
+                .oldest(ingested.getOldest().isBefore(stored.getOldest()) ? ingested.getOldest() : stored.getOldest())
+                .newest(ingested.getNewest().isAfter(stored.getNewest()) ? ingested.getNewest() : stored.getNewest())
+                .build();
+    }
+
+    private static CryptoSummary summarize(String symbol, List<CryptoEntity> cryptoList) {
+        var first = cryptoList.get(0);
+        double minPrice = first.getPrice();
+        double maxPrice = first.getPrice();
+        var oldest = first.getTimestamp();
+        var newest = first.getTimestamp();
+
+        for (var cryptoEntity : cryptoList) {
+            minPrice = Math.min(minPrice, cryptoEntity.getPrice());
+            maxPrice = Math.max(maxPrice, cryptoEntity.getPrice());
+            if (cryptoEntity.getTimestamp().isBefore(oldest)) {
+                oldest = cryptoEntity.getTimestamp();
+            }
+            if (cryptoEntity.getTimestamp().isAfter(newest)) {
+                newest = cryptoEntity.getTimestamp();
+            }
+        }
+
+        return CryptoSummary.builder()
+                .symbol(symbol)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .oldest(oldest)
+                .newest(newest)
+                .build();
+    }
+
+    private static CryptoValues toCryptoValues(CryptoSummary summary) {
+        return CryptoValues.builder()
+                .symbol(summary.getSymbol())
+                .minPrice(summary.getMinPrice())
+                .maxPrice(summary.getMaxPrice())
+                .oldest(summary.getOldest())
+                .newest(summary.getNewest())
+                .build();
+    }
+}
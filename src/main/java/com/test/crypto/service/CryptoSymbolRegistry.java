@@ -0,0 +1,55 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In memory registry of the crypto symbols, so the rankings do not scan the whole table for the distinct partitions.
+ * It is loaded at startup, updated by every ingestion and reloaded periodically as a safety net.
+ * The symbols are never removed, since the crypto entries cannot be deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class CryptoSymbolRegistry {
+
+    private final CryptoTickStore cryptoTickStore;
+
+    private final NavigableSet<String> symbols = new ConcurrentSkipListSet<>();
+
+    /**
+     * @return All the known crypto symbols, sorted
+     */
+    public List<String> getSymbols() {
+        return List.copyOf(symbols);
+    }
+
+    /**
+     * @return If the symbol has crypto entries
+     */
+    public boolean contains(String symbol) {
+        return symbols.contains(symbol);
+    }
+
+    /**
+     * Load the distinct symbols from the database
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${crypto.symbols.refresh-interval:PT10M}", initialDelayString = "${crypto.symbols.refresh-interval:PT10M}")
+    public void refresh() {
+        symbols.addAll(cryptoTickStore.findAllSymbols());
+    }
+
+    @EventListener
+    public void onCryptoIngested(CryptoIngestedEvent event) {
+        event.cryptoList().forEach(cryptoEntity -> symbols.add(cryptoEntity.getSymbol()));
+    }
+}
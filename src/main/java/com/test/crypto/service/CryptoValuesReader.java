@@ -0,0 +1,20 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoValues;
+
+import java.time.LocalDate;
+
+/**
+ * Reads the crypto values of a symbol within a period. The implementation is selected by the
+ * {@code crypto.query.backend} property.
+ */
+public interface CryptoValuesReader {
+
+    /**
+     * @param symbol The symbol of the cryptocurrency
+     * @param start The first day of the period
+     * @param end The last day of the period
+     * @return The crypto information (oldest/newest/min/max). All the values are null if there is no entry in the period.
+     */
+    CryptoValues getCryptoValuesInInterval(String symbol, LocalDate start, LocalDate end);
+}
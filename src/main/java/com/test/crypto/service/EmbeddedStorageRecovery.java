@@ -0,0 +1,29 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.ConditionalOnEmbeddedStorage;
+import com.test.crypto.repository.CryptoTickStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the daily rollups and the summaries of the EMBEDDED storage engine from the stored prices.
+ * It runs while the application starts, so the requests are served once the rollups are complete.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnEmbeddedStorage
+public class EmbeddedStorageRecovery {
+
+    private final CryptoTickStore cryptoTickStore;
+    private final CryptoService cryptoService;
+
+    @PostConstruct
+    public void recover() {
+        var symbols = cryptoTickStore.findAllSymbols();
+        symbols.forEach(cryptoService::backfill);
+        log.info("Rebuilt the daily rollups and summaries of {} crypto symbols", symbols.size());
+    }
+}
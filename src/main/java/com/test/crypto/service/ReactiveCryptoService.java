@@ -0,0 +1,112 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.ConditionalOnCassandraStorage;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.repository.ReactiveCryptoValuesRepository;
+import com.test.crypto.service.cache.CryptoResultCache;
+import com.test.crypto.utils.CryptoNormalizer;
+import com.test.crypto.utils.TopKSelector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking counterpart of the {@link CryptoService} reads. The per symbol values are read with the reactive driver
+ * and merged as they arrive, so no thread waits for Cassandra. The rankings share the normalized values cache
+ * with the blocking reads.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnCassandraStorage
+public class ReactiveCryptoService {
+
+    private final ReactiveCryptoValuesRepository reactiveCryptoValuesRepository;
+    private final CryptoSummaryService cryptoSummaryService;
+    private final CryptoSymbolRegistry cryptoSymbolRegistry;
+    private final CryptoNormalizer cryptoNormalizer;
+    private final CryptoProperties cryptoProperties;
+    private final CryptoResultCache cryptoResultCache;
+
+    /**
+     * @see CryptoService#getCryptoListOrderedByNormalization(LocalDate, LocalDate, SortingOrder, int, int)
+     */
+    public Mono<List<String>> getCryptoListOrderedByNormalization(LocalDate start, LocalDate end, SortingOrder sortingOrder, int offset, int limit) {
+        return getNormalizedCryptoList(start, end, sortingOrder, offset, limit)
+                .map(normalizedCryptoList -> normalizedCryptoList.stream().map(NormalizedCrypto::getSymbol).toList());
+    }
+
+    /**
+     * @see CryptoService#getNormalizedCryptoList(LocalDate, LocalDate, SortingOrder, int, int)
+     */
+    public Mono<List<NormalizedCrypto>> getNormalizedCryptoList(LocalDate start, LocalDate end, SortingOrder sortingOrder, int offset, int limit) {
+        return getNormalizedCryptos(start, end)
+                .map(normalizedCryptos -> TopKSelector.select(normalizedCryptos, CryptoService.normalizationComparator(sortingOrder), offset, limit));
+    }
+
+    /**
+     * @see CryptoService#getHighestNormalizedCryptoByDate(LocalDate)
+     */
+    public Mono<String> getHighestNormalizedCryptoByDate(LocalDate date) {
+        return getNormalizedCryptoList(date, date, SortingOrder.DESC, 0, 1)
+                .flatMap(normalizedCryptoList -> Mono.justOrEmpty(normalizedCryptoList.stream().findFirst()))
+                .map(NormalizedCrypto::getSymbol)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Could not found any crypto for this date %s", date))));
+    }
+
+    /**
+     * Unlike {@link CryptoService#getCryptoValuesBySymbol(String)}, a missing summary is not seeded from the values read,
+     * since saving the summary blocks.
+     */
+    public Mono<CryptoValues> getCryptoValuesBySymbol(String symbol) {
+        return Mono.justOrEmpty(cryptoSummaryService.getCryptoValues(symbol))
+                .switchIfEmpty(Mono.defer(() -> reactiveCryptoValuesRepository.findCryptoValuesBySymbol(symbol))
+                        .filter(ReactiveCryptoService::exists))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Crypto currency with value %s could not be found.", symbol))));
+    }
+
+    public Mono<List<String>> getCryptoSymbols() {
+        return Mono.fromSupplier(cryptoSymbolRegistry::getSymbols);
+    }
+
+    /**
+     * The normalized values of every symbol of the period, from the cache or read from Cassandra.
+     * At most crypto.query.parallelism symbols are read at the same time, each within the query timeout.
+     */
+    private Mono<List<NormalizedCrypto>> getNormalizedCryptos(LocalDate start, LocalDate end) {
+        var queryProperties = cryptoProperties.getQuery();
+
+        return Mono.justOrEmpty(cryptoResultCache.getCachedNormalizedCryptos(start, end))
+                .switchIfEmpty(Mono.defer(() -> {
+                    var generation = cryptoResultCache.generation();
+                    return Flux.fromIterable(cryptoSymbolRegistry.getSymbols())
+                            .flatMap(symbol -> reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval(symbol, start, end)
+                                    .timeout(queryProperties.getTimeout())
+                                    .filter(ReactiveCryptoService::exists)
+                                    .map(cryptoValues -> NormalizedCrypto.builder()
+                                            .symbol(symbol)
+                                            .normalizedValue(cryptoNormalizer.getNormalisedValue(cryptoValues.getMinPrice(), cryptoValues.getMaxPrice()))
+                                            .build()), queryProperties.getParallelism())
+                            .collectList()
+                            .doOnNext(normalizedCryptos -> cryptoResultCache.putNormalizedCryptos(start, end, generation, normalizedCryptos));
+                }))
+                .onErrorMap(TimeoutException.class, e -> new InternalException("Crypto values could not be retrieved in time."));
+    }
+
+    /**
+     * Cassandra returns a row with all the aggregates null when the partition has no row in the interval
+     */
+    private static boolean exists(CryptoValues cryptoValues) {
+        return Objects.nonNull(cryptoValues.getMinPrice()) || Objects.nonNull(cryptoValues.getMaxPrice());
+    }
+}
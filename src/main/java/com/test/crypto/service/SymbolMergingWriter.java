@@ -0,0 +1,230 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the rows parsed concurrently from several files into one buffer per symbol, and saves a symbol buffer
+ * once it is full. The saves of a symbol are serialized, so its chunks are written in the order they were filled,
+ * while the saves of different symbols run in parallel.
+ * The rows buffered or being saved hold permits of the semaphore of the upload, which caps the memory in flight.
+ * A parser waiting for permits saves the largest buffer, so the buffered rows never hold all the permits; with nothing
+ * buffered, it waits for a save to release its rows. The permits are not shared with the other uploads, so an upload
+ * never waits for rows buffered by another one. The parsers run on a work-stealing pool: the saves and the waits are
+ * managed blocks, so the pool adds a thread for the other files meanwhile.
+ */
+class SymbolMergingWriter {
+
+    /**
+     * The lock is held while the chunk is saved, so it is not a monitor, which would pin a virtual thread
+     */
+    private static class SymbolBuffer {
+        private final Lock lock = new ReentrantLock();
+        private List<CryptoEntity> rows = new ArrayList<>();
+    }
+
+    private final int chunkSize;
+    private final Semaphore rowsInFlight;
+    private final Consumer<List<CryptoEntity>> chunkWriter;
+    private final Map<String, SymbolBuffer> buffers = new ConcurrentHashMap<>();
+
+    /**
+     * Counts the rows buffered and the permits released, so a parser finding nothing to save only waits
+     * until one of them changes
+     */
+    private final AtomicLong changes = new AtomicLong();
+    private final Lock changeLock = new ReentrantLock();
+    private final Condition changed = changeLock.newCondition();
+
+    /**
+     * @param chunkSize Number of rows of a symbol saved together
+     * @param rowsInFlight Permits of the rows buffered or being saved by the upload, at least the rows of a single add
+     * @param chunkWriter Saves the rows of a single symbol
+     */
+    SymbolMergingWriter(int chunkSize, Semaphore rowsInFlight, Consumer<List<CryptoEntity>> chunkWriter) {
+        this.chunkSize = chunkSize;
+        this.rowsInFlight = rowsInFlight;
+        this.chunkWriter = chunkWriter;
+    }
+
+    /**
+     * Add parsed rows to the buffers of their symbols, and save the buffers that are full.
+     * The caller waits while the rows in flight are at the cap.
+     */
+    void add(List<CryptoEntity> cryptoList) {
+        acquire(cryptoList.size());
+
+        cryptoList.stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol))
+                .forEach((symbol, symbolRows) -> {
+                    var buffer = buffers.computeIfAbsent(symbol, key -> new SymbolBuffer());
+                    buffer.lock.lock();
+                    try {
+                        buffer.rows.addAll(symbolRows);
+                        if (buffer.rows.size() >= chunkSize) {
+                            flush(buffer);
+                        }
+                    } finally {
+                        buffer.lock.unlock();
+                    }
+                });
+        signalChange();
+    }
+
+    /**
+     * Save the rows left in the buffers
+     */
+    void flushAll() {
+        buffers.values().forEach(buffer -> {
+            buffer.lock.lock();
+            try {
+                flush(buffer);
+            } finally {
+                buffer.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop the rows left in the buffers and release their permits. Used when the upload failed.
+     */
+    void discard() {
+        buffers.values().forEach(buffer -> {
+            buffer.lock.lock();
+            try {
+                rowsInFlight.release(buffer.rows.size());
+                buffer.rows = new ArrayList<>();
+            } finally {
+                buffer.lock.unlock();
+            }
+        });
+        signalChange();
+    }
+
+    private void acquire(int rows) {
+        try {
+            while (true) {
+                var observed = changes.get();
+                if (rowsInFlight.tryAcquire(rows)) {
+                    return;
+                }
+                if (!flushLargest()) {
+                    awaitChange(observed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The upload was interrupted.", e);
+        }
+    }
+
+    /**
+     * @return If buffered rows were saved
+     */
+    private boolean flushLargest() {
+        var largest = buffers.values().stream()
+                .max(Comparator.comparingInt(buffer -> buffer.rows.size()));
+        if (largest.isEmpty()) {
+            return false;
+        }
+
+        var buffer = largest.get();
+        buffer.lock.lock();
+        try {
+            return flush(buffer);
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until rows are buffered or permits are released since the count was observed
+     */
+    private void awaitChange(long observed) throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                changeLock.lock();
+                try {
+                    while (changes.get() == observed) {
+                        changed.await();
+                    }
+                } finally {
+                    changeLock.unlock();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return changes.get() != observed;
+            }
+        });
+    }
+
+    private void signalChange() {
+        changes.incrementAndGet();
+        changeLock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    /**
+     * The save blocks on the database, so the work-stealing pool adds a thread to parse the other files meanwhile
+     */
+    private void save(List<CryptoEntity> rows) throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean saved;
+
+            @Override
+            public boolean block() {
+                chunkWriter.accept(rows);
+                saved = true;
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return saved;
+            }
+        });
+    }
+
+    /**
+     * Called with the buffer lock held, which serializes the saves of the symbol
+     */
+    private boolean flush(SymbolBuffer buffer) {
+        if (buffer.rows.isEmpty()) {
+            return false;
+        }
+
+        var rows = buffer.rows;
+        buffer.rows = new ArrayList<>();
+        try {
+            save(rows);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The upload was interrupted.", e);
+        } finally {
+            rowsInFlight.release(rows.size());
+            signalChange();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests the ticks of the live price feeds. The ticks of all the requests are coalesced into one batch, saved when it
+ * is full or when its first tick has waited for the maximum latency, so a busy feed is written in large batches
+ * and a quiet one is still saved within the latency. The batches go through {@link CryptoService#saveAll(List)},
+ * so the duplicates are skipped and the rollups, summaries and rankings are kept up to date.
+ */
+@Slf4j
+@Service
+public class TickIngestService {
+
+    private final CryptoService cryptoService;
+    private final CryptoProperties cryptoProperties;
+    private final CryptoMetrics cryptoMetrics;
+    private final ScheduledExecutorService cryptoFeedExecutor;
+
+    private final AtomicInteger pendingTicks = new AtomicInteger();
+
+    private List<CryptoEntity> batch = new ArrayList<>();
+    private long batchGeneration;
+    private boolean flushScheduled;
+
+    public TickIngestService(CryptoService cryptoService, CryptoProperties cryptoProperties, CryptoMetrics cryptoMetrics,
+                             @Qualifier("cryptoFeedExecutor") ScheduledExecutorService cryptoFeedExecutor) {
+        this.cryptoService = cryptoService;
+        this.cryptoProperties = cryptoProperties;
+        this.cryptoMetrics = cryptoMetrics;
+        this.cryptoFeedExecutor = cryptoFeedExecutor;
+    }
+
+    /**
+     * Add the ticks to the current batch. The full batches are saved in the background.
+     *
+     * @param ticks The ticks received
+     * @throws ServiceUnavailableException If too many ticks are waiting to be saved
+     */
+    public void submit(List<CryptoEntity> ticks) {
+        var feedProperties = cryptoProperties.getFeed();
+        if (pendingTicks.addAndGet(ticks.size()) > feedProperties.getMaxPendingTicks()) {
+            pendingTicks.addAndGet(-ticks.size());
+            throw new ServiceUnavailableException("Too many ticks are waiting to be saved, the ticks can be sent again later.");
+        }
+        cryptoMetrics.recordFeedTicks(ticks.size());
+
+        var fullBatches = new ArrayList<List<CryptoEntity>>();
+        synchronized (this) {
+            for (var tick : ticks) {
+                batch.add(tick);
+                if (batch.size() >= feedProperties.getMaxBatchSize()) {
+                    fullBatches.add(swapBatch());
+                }
+            }
+
+            if (!batch.isEmpty() && !flushScheduled) {
+                var generation = batchGeneration;
+                cryptoFeedExecutor.schedule(() -> flushExpired(generation), feedProperties.getMaxLatency().toMillis(), TimeUnit.MILLISECONDS);
+                flushScheduled = true;
+            }
+        }
+
+        fullBatches.forEach(fullBatch -> cryptoFeedExecutor.execute(() -> save(fullBatch)));
+    }
+
+    /**
+     * @return The number of ticks accepted and not saved yet
+     */
+    public int getPendingTicks() {
+        return pendingTicks.get();
+    }
+
+    /**
+     * Save the current batch right away. It is called at shutdown, so the accepted ticks are not lost.
+     */
+    @PreDestroy
+    public void flush() {
+        List<CryptoEntity> current;
+        synchronized (this) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            current = swapBatch();
+        }
+        save(current);
+    }
+
+    /**
+     * Save the batch whose latency expired, unless it was already saved because it was full
+     */
+    private void flushExpired(long generation) {
+        List<CryptoEntity> expired;
+        synchronized (this) {
+            if (generation != batchGeneration || batch.isEmpty()) {
+                return;
+            }
+            expired = swapBatch();
+        }
+        save(expired);
+    }
+
+    private List<CryptoEntity> swapBatch() {
+        var current = batch;
+        batch = new ArrayList<>();
+        batchGeneration++;
+        flushScheduled = false;
+        return current;
+    }
+
+    private void save(List<CryptoEntity> ticks) {
+        try {
+            cryptoService.saveAll(ticks);
+        } catch (RuntimeException e) {
+            log.error("A batch of {} live ticks could not be saved", ticks.size(), e);
+            cryptoMetrics.recordFeedFailure(ticks.size());
+        } finally {
+            pendingTicks.addAndGet(-ticks.size());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.UploadJob;
+import com.test.crypto.utils.csv.CryptoTickParser;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipFile;
+
+/**
+ * Processes the uploaded CSV files in the background. An upload only spools its files to the local disk and queues
+ * its job, so the request thread is released at once. The jobs are run by a bounded pool of workers and kept in memory,
+ * where they can be polled until their retention expires.
+ * The files of a job, and the CSV entries of its ZIP archives, are parsed in parallel on a work-stealing pool.
+ * Their rows are merged per symbol before being saved, see {@link SymbolMergingWriter}.
+ */
+@Slf4j
+@Service
+public class UploadJobService {
+
+    private static final String CSV_EXTENSION = "csv";
+    private static final String ZIP_EXTENSION = "zip";
+
+    private final CryptoTickParser cryptoTickParser;
+    private final CryptoService cryptoService;
+    private final CryptoProperties cryptoProperties;
+    private final CryptoMetrics cryptoMetrics;
+    private final Executor cryptoUploadExecutor;
+    private final Executor cryptoParseExecutor;
+
+    private final Map<UUID, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    public UploadJobService(CryptoTickParser cryptoTickParser, CryptoService cryptoService, CryptoProperties cryptoProperties, CryptoMetrics cryptoMetrics,
+                            @Qualifier("cryptoUploadExecutor") Executor cryptoUploadExecutor,
+                            @Qualifier("cryptoParseExecutor") Executor cryptoParseExecutor) {
+        this.cryptoTickParser = cryptoTickParser;
+        this.cryptoService = cryptoService;
+        this.cryptoProperties = cryptoProperties;
+        this.cryptoMetrics = cryptoMetrics;
+        this.cryptoUploadExecutor = cryptoUploadExecutor;
+        this.cryptoParseExecutor = cryptoParseExecutor;
+    }
+
+    /**
+     * @return If the file name has an extension accepted by the uploads, CSV or ZIP
+     */
+    public static boolean isSupported(String fileName) {
+        var extension = FilenameUtils.getExtension(fileName);
+        return CSV_EXTENSION.equals(extension) || ZIP_EXTENSION.equals(extension);
+    }
+
+    /**
+     * Spool the files and queue their processing
+     *
+     * @param files The uploaded CSV files and ZIP archives of CSV files
+     * @return The queued job
+     * @throws ServiceUnavailableException If the queue of the workers is full
+     */
+    public UploadJob submit(List<MultipartFile> files) {
+        var uploadProperties = cryptoProperties.getUpload();
+        var job = new UploadJob(UUID.randomUUID(), files.stream().map(MultipartFile::getOriginalFilename).toList(), uploadProperties.getRejectedSamples());
+
+        var spoolFiles = new ArrayList<Path>();
+        try {
+            Files.createDirectories(uploadProperties.getSpoolDirectory());
+            for (var file : files) {
+                var spoolFile = uploadProperties.getSpoolDirectory()
+                        .resolve(job.getJobId() + "-" + spoolFiles.size() + "." + FilenameUtils.getExtension(file.getOriginalFilename()));
+                spoolFiles.add(spoolFile);
+                file.transferTo(spoolFile);
+            }
+        } catch (IOException e) {
+            log.error("The upload {} could not be spooled.", job.getJobId(), e);
+            delete(spoolFiles);
+            throw new InternalException("CSV could not be uploaded.");
+        }
+
+        jobs.put(job.getJobId(), job);
+        try {
+            cryptoUploadExecutor.execute(() -> process(job, spoolFiles));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            delete(spoolFiles);
+            throw new ServiceUnavailableException("Too many uploads are waiting, the CSV can be uploaded again later.");
+        }
+
+        return job;
+    }
+
+    /**
+     * @param jobId The id of the job
+     * @return The job, with its progress
+     * @throws NotFoundException If the job does not exist or its retention expired
+     */
+    public UploadJob getJob(UUID jobId) {
+        var job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("Upload job not found.");
+        }
+        return job;
+    }
+
+    /**
+     * Remove the jobs finished for longer than the retention
+     */
+    @Scheduled(fixedDelayString = "${crypto.upload.retention:PT1H}", initialDelayString = "${crypto.upload.retention:PT1H}")
+    public void removeExpiredJobs() {
+        var expiredBefore = Instant.now().minus(cryptoProperties.getUpload().getRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiredBefore));
+    }
+
+    /**
+     * Parse the spooled files in parallel and save the rows merged per symbol. The upload worker waits for all the files,
+     * then saves the rows left in the buffers.
+     */
+    void process(UploadJob job, List<Path> spoolFiles) {
+        job.start();
+
+        var writer = new SymbolMergingWriter(cryptoProperties.getIngest().getChunkSize(), new Semaphore(rowsInFlightPerUpload()), chunk -> {
+            var saved = cryptoService.saveAll(chunk);
+            job.addAccepted(saved);
+            job.addDuplicates(chunk.size() - saved);
+        });
+        var zipFiles = new ArrayList<ZipFile>();
+        try {
+            var parseTasks = listCsvFiles(job, spoolFiles, zipFiles).stream()
+                    .map(csvFile -> parseAsync(job, csvFile, writer))
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(parseTasks).join();
+            writer.flushAll();
+            job.complete();
+        } catch (CompletionException e) {
+            fail(job, e.getCause());
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            writer.discard();
+            zipFiles.forEach(UploadJobService::close);
+            delete(spoolFiles);
+        }
+    }
+
+    /**
+     * The expected failures are reported with their message, any other one is logged and the job still ends as failed
+     */
+    private static void fail(UploadJob job, Throwable failure) {
+        if (failure instanceof FileFailure || failure instanceof InternalException) {
+            job.fail(failure.getMessage());
+        } else {
+            log.error("The upload {} could not be processed.", job.getJobId(), failure);
+            job.fail("Upload could not be processed.");
+        }
+    }
+
+    @FunctionalInterface
+    private interface InputStreamSupplier {
+        InputStream open() throws IOException;
+    }
+
+    private record CsvFile(String fileName, InputStreamSupplier inputStreamSupplier) {
+    }
+
+    /**
+     * List the spooled CSV files and the CSV entries of the spooled ZIP archives. The archives are opened before
+     * any file is parsed, so an unreadable archive fails the job before any row is saved.
+     */
+    private static List<CsvFile> listCsvFiles(UploadJob job, List<Path> spoolFiles, List<ZipFile> zipFiles) {
+        var csvFiles = new ArrayList<CsvFile>();
+        for (int index = 0; index < spoolFiles.size(); index++) {
+            var spoolFile = spoolFiles.get(index);
+            var fileName = job.getFiles().get(index);
+
+            if (!ZIP_EXTENSION.equals(FilenameUtils.getExtension(spoolFile.toString()))) {
+                csvFiles.add(new CsvFile(fileName, () -> Files.newInputStream(spoolFile)));
+                continue;
+            }
+
+            try {
+                var zipFile = new ZipFile(spoolFile.toFile());
+                zipFiles.add(zipFile);
+                zipFile.stream()
+                        .filter(entry -> !entry.isDirectory() && CSV_EXTENSION.equals(FilenameUtils.getExtension(entry.getName())))
+                        .forEach(entry -> csvFiles.add(new CsvFile(fileName + "/" + entry.getName(), () -> zipFile.getInputStream(entry))));
+            } catch (IOException e) {
+                throw new FileFailure(fileName, "ZIP archive could not be read.");
+            }
+        }
+        return csvFiles;
+    }
+
+    /**
+     * Failure of a single file, reported as the failure of the job
+     */
+    private static class FileFailure extends RuntimeException {
+        FileFailure(String fileName, String message) {
+            super(fileName + ": " + message);
+        }
+    }
+
+    private CompletableFuture<Void> parseAsync(UploadJob job, CsvFile csvFile, SymbolMergingWriter writer) {
+        var fileName = csvFile.fileName();
+        var parseChunkSize = Math.min(cryptoProperties.getIngest().getChunkSize(), rowsInFlightPerUpload());
+
+        return CompletableFuture.runAsync(() -> {
+            try (InputStream fileStream = csvFile.inputStreamSupplier().open()) {
+                var parseResult = cryptoTickParser.parseInChunks(fileStream, parseChunkSize, writer::add,
+                        (line, row) -> job.reject(fileName, line, row));
+
+                cryptoMetrics.recordUpload(parseResult);
+                job.fileParsed();
+            } catch (IOException e) {
+                log.error("The file {} of the upload {} could not be read.", fileName, job.getJobId(), e);
+                throw new FileFailure(fileName, "CSV could not be read.");
+            } catch (IllegalArgumentException | InternalException e) {
+                throw new FileFailure(fileName, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("The file {} of the upload {} could not be parsed.", fileName, job.getJobId(), e);
+                throw new FileFailure(fileName, "CSV could not be parsed.");
+            }
+        }, cryptoParseExecutor);
+    }
+
+    /**
+     * The rows in flight are split between the upload workers, so the uploads running at the same time stay within
+     * the cap without waiting for each other
+     */
+    private int rowsInFlightPerUpload() {
+        var uploadProperties = cryptoProperties.getUpload();
+        return Math.max(1, uploadProperties.getMaxRowsInFlight() / uploadProperties.getWorkers());
+    }
+
+    private static void close(ZipFile zipFile) {
+        try {
+            zipFile.close();
+        } catch (IOException e) {
+            log.warn("The ZIP archive {} could not be closed.", zipFile.getName(), e);
+        }
+    }
+
+    private static void delete(List<Path> spoolFiles) {
+        spoolFiles.forEach(spoolFile -> {
+            try {
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException e) {
+                log.warn("The spooled file {} could not be deleted.", spoolFile, e);
+            }
+        });
+    }
+}
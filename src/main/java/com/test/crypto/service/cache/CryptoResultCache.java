@@ -0,0 +1,164 @@
+package com.test.crypto.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caffeine cache of the normalized values of all the cryptos for a period. The rankings, in both orders and with
+ * any page, and the highest normalized crypto of a day are selected from the cached values.
+ * The entries are invalidated when an ingestion touches their period. Every ingestion also bumps the generation of
+ * its days, so a result computed while an overlapping ingestion was running is dropped instead of cached.
+ */
+@Component
+public class CryptoResultCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "normalized-cryptos";
+
+    private record PeriodKey(LocalDate start, LocalDate end) {
+        boolean overlaps(Collection<LocalDate> days) {
+            return days.stream().anyMatch(day -> !day.isBefore(start) && !day.isAfter(end));
+        }
+    }
+
+    private final AsyncCache<PeriodKey, List<NormalizedCrypto>> normalizationCache;
+
+    /**
+     * The generation of the last ingestion of every ingested day. The generation of a period is the greatest one
+     * of its days, it is bumped after the ingested entries are saved.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentNavigableMap<LocalDate, Long> dayGenerations = new ConcurrentSkipListMap<>();
+
+    public CryptoResultCache(CryptoProperties cryptoProperties) {
+        var cacheProperties = cryptoProperties.getCache();
+
+        normalizationCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Return the cached normalized values of the period or compute them.
+     * Concurrent requests of the same period wait for a single computation. The cache only stores the pending result,
+     * the values are computed by the calling thread outside the map: the queries block for up to their timeout, which
+     * would hold the lock of the map bin and pin a virtual thread. A failed computation is dropped by the cache.
+     */
+    public List<NormalizedCrypto> getNormalizedCryptos(LocalDate start, LocalDate end, Supplier<List<NormalizedCrypto>> loader) {
+        var key = new PeriodKey(start, end);
+        var loadedGeneration = generation.get();
+        var loading = new CompletableFuture<List<NormalizedCrypto>>();
+        var normalizedCryptos = normalizationCache.get(key, (period, executor) -> loading);
+        if (normalizedCryptos != loading) {
+            return join(normalizedCryptos);
+        }
+
+        try {
+            loading.complete(loader.get());
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        evictIfIngestedSince(key, loadedGeneration, loading);
+        return loading.join();
+    }
+
+    private static List<NormalizedCrypto> join(CompletableFuture<List<NormalizedCrypto>> normalizedCryptos) {
+        try {
+            return normalizedCryptos.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return the cached normalized values of the period, without computing them. Used by the reactive reads,
+     * which compute the missing values without blocking and then {@link #putNormalizedCryptos store} them.
+     */
+    public Optional<List<NormalizedCrypto>> getCachedNormalizedCryptos(LocalDate start, LocalDate end) {
+        return Optional.ofNullable(normalizationCache.getIfPresent(new PeriodKey(start, end)))
+                .filter(normalizedCryptos -> normalizedCryptos.isDone() && !normalizedCryptos.isCompletedExceptionally())
+                .map(CompletableFuture::join);
+    }
+
+    /**
+     * @return The current generation, to read before computing values stored by {@link #putNormalizedCryptos}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Store the normalized values of the period, unless an ingestion touched the period since their computation started
+     *
+     * @param loadedGeneration The {@link #generation()} read before computing the values
+     */
+    public void putNormalizedCryptos(LocalDate start, LocalDate end, long loadedGeneration, List<NormalizedCrypto> normalizedCryptos) {
+        var key = new PeriodKey(start, end);
+        var stored = CompletableFuture.completedFuture(normalizedCryptos);
+        normalizationCache.put(key, stored);
+        evictIfIngestedSince(key, loadedGeneration, stored);
+    }
+
+    /**
+     * The ingestion bumps the generation before evicting the cache, so either the cached values are evicted by the
+     * ingestion, or the bumped generation is seen here.
+     */
+    private void evictIfIngestedSince(PeriodKey key, long loadedGeneration, CompletableFuture<List<NormalizedCrypto>> normalizedCryptos) {
+        var ingestedSince = dayGenerations.subMap(key.start(), true, key.end(), true).values().stream()
+                .anyMatch(dayGeneration -> dayGeneration > loadedGeneration);
+        if (ingestedSince) {
+            normalizationCache.asMap().remove(key, normalizedCryptos);
+        }
+    }
+
+    /**
+     * Expose the cache statistics (gets, puts, evictions) and the hit ratio since the start
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, normalizationCache, CACHE_NAME);
+        Gauge.builder("crypto.cache.hit.ratio", normalizationCache, cache -> cache.synchronous().stats().hitRate())
+                .description("Ratio of the cache lookups answered without computing the result")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Evict the normalized values of the periods containing an ingested day
+     */
+    @EventListener
+    public void onCryptoIngested(CryptoIngestedEvent event) {
+        Set<LocalDate> days = event.getDaysBySymbol().values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+
+        var ingestionGeneration = generation.incrementAndGet();
+        days.forEach(day -> dayGenerations.merge(day, ingestionGeneration, Math::max));
+        normalizationCache.asMap().keySet().removeIf(key -> key.overlaps(days));
+    }
+}
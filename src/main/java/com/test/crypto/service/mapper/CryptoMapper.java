@@ -1,15 +1,27 @@
 package com.test.crypto.service.mapper;
 
+import com.test.crypto.commons.model.CryptoAnalyticsDto;
 import com.test.crypto.commons.model.CryptoValuesDto;
+import com.test.crypto.commons.model.NormalizedCryptoDto;
+import com.test.crypto.commons.model.RankedCryptoDto;
+import com.test.crypto.commons.model.RankingUpdateDto;
 import com.test.crypto.commons.model.SortingOrderDto;
+import com.test.crypto.commons.model.TickDto;
+import com.test.crypto.commons.model.UploadJobDto;
+import com.test.crypto.domain.entity.CryptoAnalytics;
 import com.test.crypto.domain.entity.CryptoEntity;
 import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.entity.RankedCrypto;
+import com.test.crypto.domain.entity.RankingUpdate;
+import com.test.crypto.domain.entity.UploadJob;
 import com.test.crypto.domain.enums.SortingOrder;
 import com.test.crypto.utils.csv.record.CryptoCsvRecord;
 import org.mapstruct.Mapper;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 
@@ -24,15 +36,41 @@ public interface CryptoMapper {
         return value.atZone(ZoneOffset.UTC).toLocalDate();
     }
 
+    default OffsetDateTime toOffsetDateTime(Instant value) {
+        return value == null ? null : value.atOffset(ZoneOffset.UTC);
+    }
+
+    default List<CryptoEntity> fromTickDtoList(List<TickDto> tickDtoList) {
+        return tickDtoList.stream()
+                .map(tickDto -> CryptoEntity.builder()
+                        .symbol(tickDto.getSymbol())
+                        .price(tickDto.getPrice())
+                        .timestamp(Instant.ofEpochMilli(tickDto.getTimestamp()))
+                        .build())
+                .toList();
+    }
+
     private CryptoEntity fromRecord(CryptoCsvRecord cryptoCsvRecord) {
         return CryptoEntity.builder()
                 .symbol(cryptoCsvRecord.getSymbol())
-                .price(Double.parseDouble(cryptoCsvRecord.getPrice()))
-                .timestamp(Instant.ofEpochMilli(Long.parseLong(cryptoCsvRecord.getTimestamp())))
+                .price(cryptoCsvRecord.getPrice())
+                .timestamp(Instant.ofEpochMilli(cryptoCsvRecord.getTimestamp()))
                 .build();
     }
 
     CryptoValuesDto toDto(CryptoValues cryptoValues);
 
+    UploadJobDto toDto(UploadJob uploadJob);
+
+    CryptoAnalyticsDto toDto(CryptoAnalytics cryptoAnalytics);
+
+    RankingUpdateDto toDto(RankingUpdate rankingUpdate);
+
+    List<NormalizedCryptoDto> toDtoList(List<NormalizedCrypto> normalizedCryptoList);
+
+    List<RankedCryptoDto> toRankedDtoList(List<RankedCrypto> rankedCryptoList);
+
+    List<CryptoAnalyticsDto> toAnalyticsDtoList(List<CryptoAnalytics> cryptoAnalyticsList);
+
     SortingOrder fromDto(SortingOrderDto sortingOrderDto);
 }
@@ -0,0 +1,197 @@
+package com.test.crypto.service.memory;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prices of a crypto symbol stored as two primitive columns sorted by timestamp, so the prices are not boxed and
+ * an interval is found by binary search. The min and max prices of the interval are read from a segment tree,
+ * so a query costs O(log n) whatever the length of the interval.
+ * A timestamp holds a single price, like the Cassandra row it mirrors.
+ */
+public class CryptoPriceSeries {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RangeMinMaxIndex index = new RangeMinMaxIndex();
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Add the crypto entries of the symbol. Entries newer than the series are appended, older entries are merged.
+     *
+     * @param cryptoList The crypto entries, in any order
+     */
+    public void addAll(List<CryptoEntity> cryptoList) {
+        var sorted = cryptoList.stream()
+                .sorted(Comparator.comparing(CryptoEntity::getTimestamp))
+                .toList();
+        var newTimestamps = new long[sorted.size()];
+        var newPrices = new double[sorted.size()];
+        for (int position = 0; position < sorted.size(); position++) {
+            newTimestamps[position] = sorted.get(position).getTimestamp().toEpochMilli();
+            newPrices[position] = sorted.get(position).getPrice();
+        }
+
+        addSorted(newTimestamps, newPrices, newTimestamps.length);
+    }
+
+    /**
+     * Add all the prices of another series of the same symbol
+     *
+     * @param other The series to copy
+     */
+    public void addAll(CryptoPriceSeries other) {
+        long[] otherTimestamps;
+        double[] otherPrices;
+        int otherSize;
+        other.lock.readLock().lock();
+        try {
+            otherSize = other.size;
+            otherTimestamps = Arrays.copyOf(other.timestamps, otherSize);
+            otherPrices = Arrays.copyOf(other.prices, otherSize);
+        } finally {
+            other.lock.readLock().unlock();
+        }
+
+        addSorted(otherTimestamps, otherPrices, otherSize);
+    }
+
+    /**
+     * @param from The start of the interval in epoch milliseconds, inclusive
+     * @param to The end of the interval in epoch milliseconds, inclusive
+     * @return The price range of the interval, empty if there is no price in the interval
+     */
+    public Optional<PriceRange> getPriceRange(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int first = lowerBound(from);
+            int last = lowerBound(to == Long.MAX_VALUE ? to : to + 1);
+            if (first >= last) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new PriceRange(index.min(first, last), index.max(first, last), timestamps[first], timestamps[last - 1]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of prices of the series
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addSorted(long[] newTimestamps, double[] newPrices, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (size == 0 || newTimestamps[0] > timestamps[size - 1]) {
+                append(newTimestamps, newPrices, count);
+            } else {
+                merge(newTimestamps, newPrices, count);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Append the sorted entries, newer than the series. The index is updated entry by entry.
+     */
+    private void append(long[] newTimestamps, double[] newPrices, int count) {
+        ensureCapacity(size + count);
+        for (int added = 0; added < count; added++) {
+            if (size > 0 && newTimestamps[added] == timestamps[size - 1]) {
+                prices[size - 1] = newPrices[added];
+                index.set(size - 1, newPrices[added]);
+            } else {
+                timestamps[size] = newTimestamps[added];
+                prices[size++] = newPrices[added];
+                index.append(newPrices[added]);
+            }
+        }
+    }
+
+    /**
+     * Merge the sorted entries into the series and rebuild the index. The price of an existing timestamp is replaced.
+     */
+    private void merge(long[] newTimestamps, double[] newPrices, int count) {
+        var mergedTimestamps = new long[Math.max(INITIAL_CAPACITY, size + count)];
+        var mergedPrices = new double[mergedTimestamps.length];
+        int stored = 0;
+        int added = 0;
+        int merged = 0;
+
+        while (stored < size || added < count) {
+            long timestamp;
+            double price;
+            if (added == count || (stored < size && timestamps[stored] < newTimestamps[added])) {
+                timestamp = timestamps[stored];
+                price = prices[stored++];
+            } else {
+                if (stored < size && timestamps[stored] == newTimestamps[added]) {
+                    stored++;
+                }
+                timestamp = newTimestamps[added];
+                price = newPrices[added++];
+            }
+
+            if (merged > 0 && mergedTimestamps[merged - 1] == timestamp) {
+                mergedPrices[merged - 1] = price;
+            } else {
+                mergedTimestamps[merged] = timestamp;
+                mergedPrices[merged++] = price;
+            }
+        }
+
+        timestamps = mergedTimestamps;
+        prices = mergedPrices;
+        size = merged;
+        index.rebuild(prices, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > timestamps.length) {
+            int newCapacity = Math.max(capacity, timestamps.length + (timestamps.length >> 1));
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+        }
+    }
+
+    /**
+     * @return The index of the first timestamp greater than or equal to the given timestamp, or the size
+     */
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,119 @@
+package com.test.crypto.service.memory;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.service.CryptoDailyValuesService;
+import com.test.crypto.service.CryptoValuesReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Read backend holding every price in memory, as one primitive series per symbol with a range min/max index.
+ * The series are loaded from Cassandra in the background at startup and updated by every ingestion, so the interval
+ * queries do not reach the database. Until the load completes, the queries fall back to the daily rollups.
+ * The memory used grows with the price history: 16 bytes per price, plus 32 to 64 bytes for the index.
+ */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crypto.query.backend", havingValue = "MEMORY")
+public class InMemoryPriceStore implements CryptoValuesReader {
+
+    private final CryptoTickStore cryptoTickStore;
+    private final CryptoDailyValuesService cryptoDailyValuesService;
+    private final CryptoProperties cryptoProperties;
+
+    private final ConcurrentMap<String, CryptoPriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    private volatile boolean hydrated;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHydration() {
+        new CustomizableThreadFactory("crypto-hydration-").newThread(this::hydrate).start();
+    }
+
+    /**
+     * Load the prices of all the symbols from the database. Each symbol is loaded into a new series, then merged
+     * with the prices ingested meanwhile, so the ingestion does not wait for the load.
+     */
+    public void hydrate() {
+        try {
+            var pageSize = cryptoProperties.getQuery().getHydrationPageSize();
+            for (var symbol : cryptoTickStore.findAllSymbols()) {
+                var loaded = new CryptoPriceSeries();
+                cryptoTickStore.scan(symbol, pageSize, loaded::addAll);
+                seriesBySymbol.merge(symbol, loaded, (ingested, series) -> {
+                    series.addAll(ingested);
+                    return series;
+                });
+            }
+            hydrated = true;
+            log.info("Loaded the prices of {} crypto symbols in memory", seriesBySymbol.size());
+        } catch (RuntimeException e) {
+            log.error("The crypto prices could not be loaded in memory, the queries keep using the daily rollups", e);
+        }
+    }
+
+    /**
+     * The series are updated before the result cache is evicted, so a result computed after the eviction
+     * includes the ingested prices.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCryptoIngested(CryptoIngestedEvent event) {
+        event.cryptoList().stream()
+                .collect(Collectors.groupingBy(CryptoEntity::getSymbol))
+                .forEach((symbol, cryptoList) -> seriesBySymbol.compute(symbol, (key, series) -> {
+                    var updated = series == null ? new CryptoPriceSeries() : series;
+                    updated.addAll(cryptoList);
+                    return updated;
+                }));
+    }
+
+    /**
+     * The min and max prices are answered by the index of the series in O(log n)
+     */
+    @Override
+    public CryptoValues getCryptoValuesInInterval(String symbol, LocalDate start, LocalDate end) {
+        if (!hydrated) {
+            return cryptoDailyValuesService.getCryptoValuesInInterval(symbol, start, end);
+        }
+
+        var series = seriesBySymbol.get(symbol);
+        if (series == null) {
+            return CryptoValues.builder().build();
+        }
+
+        var from = start.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        var to = end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1;
+
+        return series.getPriceRange(from, to)
+                .map(priceRange -> CryptoValues.builder()
+                        .symbol(symbol)
+                        .minPrice(priceRange.minPrice())
+                        .maxPrice(priceRange.maxPrice())
+                        .oldest(Instant.ofEpochMilli(priceRange.oldest()))
+                        .newest(Instant.ofEpochMilli(priceRange.newest()))
+                        .build())
+                .orElseGet(() -> CryptoValues.builder().build());
+    }
+}
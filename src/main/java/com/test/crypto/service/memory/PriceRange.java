@@ -0,0 +1,7 @@
+package com.test.crypto.service.memory;
+
+/**
+ * Min/max prices and first/last timestamps (epoch milliseconds) of the prices of an interval
+ */
+public record PriceRange(double minPrice, double maxPrice, long oldest, long newest) {
+}
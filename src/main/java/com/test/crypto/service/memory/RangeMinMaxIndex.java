@@ -0,0 +1,105 @@
+package com.test.crypto.service.memory;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree answering the min and max of any range of a growing array of values in O(log n).
+ * The leaves are stored from the capacity index, every parent holds the min and max of its two children.
+ * Appending a value updates a single path of the tree, growing the capacity rebuilds it in O(n).
+ */
+class RangeMinMaxIndex {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private int capacity = INITIAL_CAPACITY;
+    private double[] min = newTree(capacity, Double.POSITIVE_INFINITY);
+    private double[] max = newTree(capacity, Double.NEGATIVE_INFINITY);
+    private int size;
+
+    /**
+     * Append a value at the end of the indexed array
+     */
+    void append(double value) {
+        if (size == capacity) {
+            rebuild(Arrays.copyOfRange(min, capacity, capacity + size), size, capacity * 2);
+        }
+
+        set(size++, value);
+    }
+
+    /**
+     * Replace an indexed value
+     */
+    void set(int position, double value) {
+        int node = capacity + position;
+        min[node] = value;
+        max[node] = value;
+        for (node >>= 1; node > 0; node >>= 1) {
+            min[node] = Math.min(min[2 * node], min[2 * node + 1]);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Index the first values of the array, replacing the indexed values
+     */
+    void rebuild(double[] values, int count) {
+        rebuild(values, count, count);
+    }
+
+    private void rebuild(double[] values, int count, int minCapacity) {
+        int newCapacity = INITIAL_CAPACITY;
+        while (newCapacity < minCapacity) {
+            newCapacity *= 2;
+        }
+
+        capacity = newCapacity;
+        min = newTree(capacity, Double.POSITIVE_INFINITY);
+        max = newTree(capacity, Double.NEGATIVE_INFINITY);
+        size = count;
+        System.arraycopy(values, 0, min, capacity, count);
+        System.arraycopy(values, 0, max, capacity, count);
+        for (int node = capacity - 1; node > 0; node--) {
+            min[node] = Math.min(min[2 * node], min[2 * node + 1]);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @return The minimum value of the indexes from first, inclusive, to last, exclusive
+     */
+    double min(int first, int last) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int left = first + capacity, right = last + capacity; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = Math.min(result, min[left++]);
+            }
+            if ((right & 1) == 1) {
+                result = Math.min(result, min[--right]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The maximum value of the indexes from first, inclusive, to last, exclusive
+     */
+    double max(int first, int last) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int left = first + capacity, right = last + capacity; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = Math.max(result, max[left++]);
+            }
+            if ((right & 1) == 1) {
+                result = Math.max(result, max[--right]);
+            }
+        }
+        return result;
+    }
+
+    private static double[] newTree(int capacity, double identity) {
+        var tree = new double[2 * capacity];
+        Arrays.fill(tree, identity);
+        return tree;
+    }
+}
@@ -0,0 +1,228 @@
+package com.test.crypto.service.stream;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.entity.RankedCrypto;
+import com.test.crypto.domain.entity.RankingUpdate;
+import com.test.crypto.utils.CryptoNormalizer;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ranking of the symbols by normalized value within a period, kept up to date from the ingested entries.
+ * The min/max prices of a symbol only move outwards, since the entries are never deleted, so an ingestion is merged
+ * into the running min/max of its symbols and only these symbols are moved in the ranking.
+ * <p>
+ * The ranking is seeded once from the stored values. The entries ingested while the seed is read are remembered,
+ * their symbols are read again afterwards, outside the monitor of the ranking, and the entries merged into them,
+ * so no ingestion is lost.
+ */
+class LiveRanking {
+
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Comparator<NormalizedCrypto> comparator;
+    private final CryptoNormalizer cryptoNormalizer;
+
+    /**
+     * Held while the seed is read from Cassandra, so it is not a monitor, which would pin a virtual thread
+     */
+    private final Lock seedLock = new ReentrantLock();
+    private volatile boolean seeded;
+
+    private final Map<String, CryptoValues> valuesBySymbol = new HashMap<>();
+    private final List<NormalizedCrypto> ranking = new ArrayList<>();
+    private final Map<String, List<CryptoEntity>> pendingCryptos = new HashMap<>();
+
+    LiveRanking(LocalDate start, LocalDate end, Comparator<NormalizedCrypto> comparator, CryptoNormalizer cryptoNormalizer) {
+        this.start = start;
+        this.end = end;
+        this.comparator = comparator;
+        this.cryptoNormalizer = cryptoNormalizer;
+    }
+
+    /**
+     * Seed the ranking the first time it is called. The seed and the symbols ingested meanwhile are read without
+     * holding the ranking, so the ingestions are not blocked by the reads; the ranking is only held to merge them.
+     * The symbols ingested during a round of reads are read in the next round, until none is pending.
+     * The ranking has no client before it is seeded, so these symbols are moved silently.
+     *
+     * @param seedReader Reads the values of every symbol of the period
+     * @param symbolReader Reads the values of a symbol within the period
+     */
+    void seed(Supplier<List<CryptoValues>> seedReader, Function<String, CryptoValues> symbolReader) {
+        seedLock.lock();
+        try {
+            if (seeded) {
+                return;
+            }
+
+            var seedValues = new HashMap<String, CryptoValues>();
+            seedReader.get().forEach(cryptoValues -> seedValues.put(cryptoValues.getSymbol(), cryptoValues));
+            var pending = mergeSeed(seedValues, Map.of());
+            while (!pending.isEmpty()) {
+                var storedValues = new HashMap<String, CryptoValues>();
+                pending.keySet().forEach(symbol -> storedValues.put(symbol, symbolReader.apply(symbol)));
+                pending = mergeSeed(storedValues, pending);
+            }
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    /**
+     * Merge the read values, and the pending entries of their symbols, into the values of the seed.
+     * The ranking is built once no entry is pending anymore.
+     *
+     * @return The entries ingested since the previous merge, to read their symbols again
+     */
+    private synchronized Map<String, List<CryptoEntity>> mergeSeed(Map<String, CryptoValues> storedValues, Map<String, List<CryptoEntity>> pending) {
+        storedValues.forEach((symbol, stored) -> {
+            var symbolCryptoList = pending.getOrDefault(symbol, List.of());
+            var hasStored = stored != null && stored.getMinPrice() != null;
+            if (!hasStored && symbolCryptoList.isEmpty()) {
+                return;
+            }
+
+            var current = merge(symbol, stored, symbolCryptoList);
+            var previous = valuesBySymbol.get(symbol);
+            valuesBySymbol.put(symbol, previous == null ? current : CryptoValues.builder()
+                    .symbol(symbol)
+                    .minPrice(Math.min(previous.getMinPrice(), current.getMinPrice()))
+                    .maxPrice(Math.max(previous.getMaxPrice(), current.getMaxPrice()))
+                    .build());
+        });
+
+        if (!pendingCryptos.isEmpty()) {
+            var ingested = new HashMap<>(pendingCryptos);
+            pendingCryptos.clear();
+            return ingested;
+        }
+
+        valuesBySymbol.values().forEach(cryptoValues -> ranking.add(normalize(cryptoValues)));
+        ranking.sort(comparator);
+        seeded = true;
+        return Map.of();
+    }
+
+    /**
+     * Merge the ingested entries into the ranking
+     *
+     * @param cryptoList The ingested entries
+     * @return The updates of the symbols whose min or max price changed in the period, empty if the ranking is not seeded yet
+     */
+    synchronized List<RankingUpdate> apply(List<CryptoEntity> cryptoList) {
+        var bySymbol = new HashMap<String, List<CryptoEntity>>();
+        cryptoList.stream()
+                .filter(this::inPeriod)
+                .forEach(cryptoEntity -> bySymbol.computeIfAbsent(cryptoEntity.getSymbol(), symbol -> new ArrayList<>()).add(cryptoEntity));
+
+        if (!seeded) {
+            bySymbol.forEach((symbol, symbolCryptoList) -> pendingCryptos.computeIfAbsent(symbol, key -> new ArrayList<>()).addAll(symbolCryptoList));
+            return List.of();
+        }
+
+        return bySymbol.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> update(entry.getKey(), merge(entry.getKey(), valuesBySymbol.get(entry.getKey()), entry.getValue())))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @return The whole ranking, the first symbol having the rank 1
+     */
+    synchronized List<RankedCrypto> snapshot() {
+        var snapshot = new ArrayList<RankedCrypto>(ranking.size());
+        for (int index = 0; index < ranking.size(); index++) {
+            var cryptoValues = valuesBySymbol.get(ranking.get(index).getSymbol());
+            snapshot.add(RankedCrypto.builder()
+                    .symbol(cryptoValues.getSymbol())
+                    .normalizedValue(ranking.get(index).getNormalizedValue())
+                    .minPrice(cryptoValues.getMinPrice())
+                    .maxPrice(cryptoValues.getMaxPrice())
+                    .rank(index + 1)
+                    .build());
+        }
+        return snapshot;
+    }
+
+    private boolean inPeriod(CryptoEntity cryptoEntity) {
+        var day = cryptoEntity.getTimestamp().atZone(ZoneOffset.UTC).toLocalDate();
+        return !day.isBefore(start) && !day.isAfter(end);
+    }
+
+    /**
+     * Move the symbol in the ranking if its min or max price changed
+     *
+     * @return The update of the symbol, null if its prices did not change
+     */
+    private RankingUpdate update(String symbol, CryptoValues current) {
+        var previous = valuesBySymbol.get(symbol);
+        if (previous != null && previous.getMinPrice().equals(current.getMinPrice()) && previous.getMaxPrice().equals(current.getMaxPrice())) {
+            return null;
+        }
+
+        Integer previousRank = null;
+        if (previous != null) {
+            var previousIndex = Collections.binarySearch(ranking, normalize(previous), comparator);
+            ranking.remove(previousIndex);
+            previousRank = previousIndex + 1;
+        }
+
+        var normalized = normalize(current);
+        var index = -Collections.binarySearch(ranking, normalized, comparator) - 1;
+        ranking.add(index, normalized);
+        valuesBySymbol.put(symbol, current);
+
+        return RankingUpdate.builder()
+                .symbol(symbol)
+                .normalizedValue(normalized.getNormalizedValue())
+                .minPrice(current.getMinPrice())
+                .maxPrice(current.getMaxPrice())
+                .rank(index + 1)
+                .previousRank(previousRank)
+                .newMinPrice(previous == null || current.getMinPrice() < previous.getMinPrice())
+                .newMaxPrice(previous == null || current.getMaxPrice() > previous.getMaxPrice())
+                .build();
+    }
+
+    /**
+     * The stored values are null, or have null prices, if the symbol has no entry in the period
+     */
+    private static CryptoValues merge(String symbol, CryptoValues stored, List<CryptoEntity> cryptoList) {
+        var hasStored = stored != null && stored.getMinPrice() != null;
+        double minPrice = hasStored ? stored.getMinPrice() : Double.POSITIVE_INFINITY;
+        double maxPrice = hasStored ? stored.getMaxPrice() : Double.NEGATIVE_INFINITY;
+        for (var cryptoEntity : cryptoList) {
+            minPrice = Math.min(minPrice, cryptoEntity.getPrice());
+            maxPrice = Math.max(maxPrice, cryptoEntity.getPrice());
+        }
+
+        return CryptoValues.builder()
+                .symbol(symbol)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+    }
+
+    private NormalizedCrypto normalize(CryptoValues cryptoValues) {
+        return NormalizedCrypto.builder()
+                .symbol(cryptoValues.getSymbol())
+                .normalizedValue(cryptoNormalizer.getNormalisedValue(cryptoValues.getMinPrice(), cryptoValues.getMaxPrice()))
+                .build();
+    }
+}
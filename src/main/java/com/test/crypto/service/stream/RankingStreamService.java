@@ -0,0 +1,178 @@
+package com.test.crypto.service.stream;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.domain.entity.RankingUpdate;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.service.CryptoService;
+import com.test.crypto.service.CryptoValuesReader;
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.utils.CryptoNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the normalization rankings to the clients as Server-Sent Events, instead of letting them poll.
+ * The clients watching the same period and order share one {@link LiveRanking}, which is dropped with its last client.
+ * A client receives a {@code snapshot} event with the whole ranking, then a {@code ranking} event for every symbol
+ * moved by an ingestion.
+ */
+@Slf4j
+@Service
+public class RankingStreamService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String RANKING_EVENT = "ranking";
+
+    private record RankingKey(LocalDate start, LocalDate end, SortingOrder sortingOrder) {
+    }
+
+    /**
+     * The clients are counted when they subscribe, before their emitter is registered, so the ranking is not dropped
+     * while a client waits for its seed. The count is only changed within the map compute of the stream.
+     */
+    private static final class RankingStream {
+        private final LiveRanking ranking;
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private int clients;
+
+        private RankingStream(LiveRanking ranking) {
+            this.ranking = ranking;
+        }
+    }
+
+    private final CryptoService cryptoService;
+    private final CryptoValuesReader cryptoValuesReader;
+    private final CryptoNormalizer cryptoNormalizer;
+    private final CryptoMapper cryptoMapper;
+    private final CryptoProperties cryptoProperties;
+    private final Executor cryptoStreamExecutor;
+
+    private final ConcurrentMap<RankingKey, RankingStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public RankingStreamService(CryptoService cryptoService, CryptoValuesReader cryptoValuesReader, CryptoNormalizer cryptoNormalizer,
+                                CryptoMapper cryptoMapper, CryptoProperties cryptoProperties,
+                                @Qualifier("cryptoStreamExecutor") Executor cryptoStreamExecutor) {
+        this.cryptoService = cryptoService;
+        this.cryptoValuesReader = cryptoValuesReader;
+        this.cryptoNormalizer = cryptoNormalizer;
+        this.cryptoMapper = cryptoMapper;
+        this.cryptoProperties = cryptoProperties;
+        this.cryptoStreamExecutor = cryptoStreamExecutor;
+    }
+
+    /**
+     * Open a stream of the ranking of a period. The ranking of the period is read once, when its first client subscribes.
+     *
+     * @param start The start date used for filtering
+     * @param end The end date used for filtering
+     * @param sortingOrder The sorting order of the ranks
+     * @return The emitter of the stream
+     */
+    public SseEmitter subscribe(LocalDate start, LocalDate end, SortingOrder sortingOrder) {
+        if (subscribers.incrementAndGet() > cryptoProperties.getStream().getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ServiceUnavailableException("Too many ranking streams are open, the stream can be opened again later.");
+        }
+
+        var key = new RankingKey(start, end, sortingOrder);
+        var stream = streams.compute(key, (rankingKey, rankingStream) -> {
+            var subscribed = rankingStream != null ? rankingStream
+                    : new RankingStream(new LiveRanking(start, end, CryptoService.normalizationComparator(sortingOrder), cryptoNormalizer));
+            subscribed.clients++;
+            return subscribed;
+        });
+
+        var emitter = new SseEmitter(cryptoProperties.getStream().getTimeout().toMillis());
+        try {
+            stream.ranking.seed(() -> cryptoService.getCryptoValuesInInterval(start, end),
+                    symbol -> cryptoValuesReader.getCryptoValuesInInterval(symbol, start, end));
+
+            // The snapshot is queued while the ranking is held, so the updates of the next ingestions are queued after it
+            synchronized (stream.ranking) {
+                var snapshot = cryptoMapper.toRankedDtoList(stream.ranking.snapshot());
+                stream.emitters.add(emitter);
+                cryptoStreamExecutor.execute(() -> send(emitter, SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot)));
+            }
+        } catch (RuntimeException e) {
+            unsubscribe(key, emitter);
+            throw e;
+        }
+
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitter.complete());
+        return emitter;
+    }
+
+    /**
+     * Move the symbols of the ingested entries in every open ranking. It runs on the ingestion thread,
+     * the events are sent by the stream executor.
+     */
+    @EventListener
+    public void onCryptoIngested(CryptoIngestedEvent event) {
+        streams.values().forEach(stream -> {
+            synchronized (stream.ranking) {
+                send(stream, stream.ranking.apply(event.cryptoList()));
+            }
+        });
+    }
+
+    /**
+     * Send a comment on every open stream, so the idle connections are not closed by the proxies
+     */
+    @Scheduled(fixedDelayString = "${crypto.stream.heartbeat-interval:PT15S}", initialDelayString = "${crypto.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        streams.values().forEach(stream -> stream.emitters.forEach(emitter ->
+                cryptoStreamExecutor.execute(() -> send(emitter, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    /**
+     * @return The number of open streams
+     */
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    private void send(RankingStream stream, List<RankingUpdate> updates) {
+        updates.stream()
+                .map(cryptoMapper::toDto)
+                .forEach(update -> stream.emitters.forEach(emitter ->
+                        cryptoStreamExecutor.execute(() -> send(emitter, SseEmitter.event().name(RANKING_EVENT).data(update)))));
+    }
+
+    /**
+     * A failed send means the client is gone. The emitter is completed, which unsubscribes it.
+     */
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Ranking stream closed: {}", e.getMessage());
+            emitter.complete();
+        }
+    }
+
+    private void unsubscribe(RankingKey key, SseEmitter emitter) {
+        subscribers.decrementAndGet();
+        streams.computeIfPresent(key, (rankingKey, stream) -> {
+            stream.emitters.remove(emitter);
+            return --stream.clients > 0 ? stream : null;
+        });
+    }
+}
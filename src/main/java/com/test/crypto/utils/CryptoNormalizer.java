@@ -12,7 +12,7 @@ public class CryptoNormalizer {
      * @param max The maximum value a cryptocurrency had
      * @return the normalised value
      */
-    public Double getNormalisedValue(Double min, Double max) {
+    public double getNormalisedValue(double min, double max) {
         return (max - min) / min;
     }
 
@@ -0,0 +1,94 @@
+package com.test.crypto.utils;
+
+import com.test.crypto.domain.entity.CryptoAnalytics;
+
+import java.time.Instant;
+
+/**
+ * One pass accumulator of the statistics of a price series. The prices must be added in chronological order.
+ * The mean and the variance use Welford's update, which stays accurate over long series without keeping the prices.
+ */
+public class PriceStatistics {
+
+    private long count;
+    private Instant first;
+    private double firstPrice;
+    private Instant last;
+    private double lastPrice;
+    private double minPrice = Double.POSITIVE_INFINITY;
+    private double maxPrice = Double.NEGATIVE_INFINITY;
+
+    private double meanPrice;
+    private double priceSquaredDeviations;
+
+    private long returnCount;
+    private double meanReturn;
+    private double returnSquaredDeviations;
+
+    private double peakPrice;
+    private double maxDrawdown;
+
+    /**
+     * @param timestamp The time of the price, not before the time of the previous price
+     * @param price The price, strictly positive
+     */
+    public void add(Instant timestamp, double price) {
+        if (count == 0) {
+            first = timestamp;
+            firstPrice = price;
+        } else {
+            var periodReturn = (price - lastPrice) / lastPrice;
+            returnCount++;
+            var returnDelta = periodReturn - meanReturn;
+            meanReturn += returnDelta / returnCount;
+            returnSquaredDeviations += returnDelta * (periodReturn - meanReturn);
+        }
+
+        count++;
+        var priceDelta = price - meanPrice;
+        meanPrice += priceDelta / count;
+        priceSquaredDeviations += priceDelta * (price - meanPrice);
+
+        minPrice = Math.min(minPrice, price);
+        maxPrice = Math.max(maxPrice, price);
+        peakPrice = Math.max(peakPrice, price);
+        maxDrawdown = Math.max(maxDrawdown, (peakPrice - price) / peakPrice);
+
+        last = timestamp;
+        lastPrice = price;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param symbol The symbol of the price series
+     * @return The statistics of the prices added so far. The standard deviations are 0 below two samples.
+     */
+    public CryptoAnalytics toAnalytics(String symbol) {
+        return CryptoAnalytics.builder()
+                .symbol(symbol)
+                .count(count)
+                .first(first)
+                .firstPrice(firstPrice)
+                .last(last)
+                .lastPrice(lastPrice)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .totalReturn((lastPrice - firstPrice) / firstPrice)
+                .meanPrice(meanPrice)
+                .priceStandardDeviation(standardDeviation(priceSquaredDeviations, count))
+                .meanReturn(meanReturn)
+                .volatility(standardDeviation(returnSquaredDeviations, returnCount))
+                .maxDrawdown(maxDrawdown)
+                .build();
+    }
+
+    /**
+     * Sample standard deviation
+     */
+    private static double standardDeviation(double squaredDeviations, long samples) {
+        return samples < 2 ? 0 : Math.sqrt(squaredDeviations / (samples - 1));
+    }
+}
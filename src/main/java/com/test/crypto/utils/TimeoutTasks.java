@@ -0,0 +1,80 @@
+package com.test.crypto.utils;
+
+import com.test.crypto.common.exceptions.InternalException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+public final class TimeoutTasks {
+
+    private TimeoutTasks() {
+    }
+
+    /**
+     * Run the task on the executor within a timeout counted from the submission, so the time spent waiting for a free
+     * worker is included. When the timeout fires, the task is cancelled: it is skipped if it has not started yet,
+     * otherwise its thread is interrupted.
+     *
+     * @param executor The executor running the task
+     * @param timeout The time allowed to wait for a worker and run the task
+     * @param task The task
+     * @return The result of the task, failing with a {@link TimeoutException} when the timeout fires first
+     */
+    public static <T> CompletableFuture<T> supplyWithTimeout(Executor executor, Duration timeout, Supplier<T> task) {
+        var result = new CompletableFuture<T>();
+        var futureTask = new FutureTask<>(task::get) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    result.complete(get());
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                }
+            }
+        };
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        futureTask.cancel(true);
+                    }
+                });
+        executor.execute(futureTask);
+        return result;
+    }
+
+    /**
+     * Wait for the result of a task, unwrapping its failure
+     *
+     * @param future The result of {@link #supplyWithTimeout}
+     * @param timeoutMessage The message of the exception thrown when the timeout fired
+     * @return The result of the task
+     * @throws InternalException If the timeout fired
+     */
+    public static <T> T join(CompletableFuture<T> future, String timeoutMessage) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new InternalException(timeoutMessage);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.test.crypto.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Select a page of the sorted items without sorting all of them.
+     * The first offset + limit items are kept in a bounded heap whose root is the worst kept item,
+     * so the cost is O(n log(offset + limit)) instead of O(n log n).
+     *
+     * @param items The items to rank
+     * @param comparator The ranking order, the first item is the best one
+     * @param offset The number of best items skipped
+     * @param limit The maximum number of items returned
+     * @return The items ranked from offset to offset + limit, sorted
+     */
+    public static <T> List<T> select(Collection<T> items, Comparator<? super T> comparator, int offset, int limit) {
+        var size = (int) Math.min((long) offset + limit, items.size());
+        if (offset >= size) {
+            return List.of();
+        }
+
+        List<T> selected;
+        if (size == items.size()) {
+            selected = new ArrayList<>(items);
+        } else {
+            var heap = new PriorityQueue<T>(size, comparator.reversed());
+            for (var item : items) {
+                if (heap.size() < size) {
+                    heap.add(item);
+                } else if (comparator.compare(item, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(item);
+                }
+            }
+            selected = new ArrayList<>(heap);
+        }
+
+        selected.sort(comparator);
+        return selected.subList(offset, size);
+    }
+}
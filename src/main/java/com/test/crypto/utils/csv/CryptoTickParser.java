@@ -0,0 +1,526 @@
+package com.test.crypto.utils.csv;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Parser specialized for the crypto CSV files (timestamp, symbol, price).
+ * The rows are read straight from the bytes into primitive values, without reflection and without intermediate strings.
+ * The columns are bound by the header names, in any order and case insensitive. The leading and trailing white spaces
+ * of the fields are ignored and a field can be wrapped in double quotes, but a quoted field cannot contain a comma.
+ * A line is at most as long as the read buffer, a longer row is rejected as malformed without being buffered.
+ */
+@Component
+public class CryptoTickParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REJECTED_ROW_LENGTH = 256;
+    private static final String TIMESTAMP_COLUMN = "timestamp";
+    private static final String SYMBOL_COLUMN = "symbol";
+    private static final String PRICE_COLUMN = "price";
+
+    /**
+     * Receives the parsed rows
+     */
+    @FunctionalInterface
+    public interface TickHandler {
+        void onTick(long timestamp, String symbol, double price);
+
+        /**
+         * Receives the rejected rows. They are ignored by default.
+         *
+         * @param line The line number in the file, the header being the line 1
+         * @param row The rejected row, without the line terminator
+         */
+        default void onRejected(long line, String row) {
+        }
+    }
+
+    /**
+     * Receives the rejected rows of a chunked parsing
+     */
+    @FunctionalInterface
+    public interface RejectedRowHandler {
+        void onRejected(long line, String row);
+    }
+
+    /**
+     * Parse the CSV file and hand the rows to the consumer as crypto entries, in fixed-size chunks.
+     * The next chunk is read only after the consumer returns, so at most one chunk is held in memory.
+     *
+     * @param input The CSV file
+     * @param chunkSize Maximum number of rows of a chunk
+     * @param chunkConsumer Consumer of the crypto entries
+     * @return The number of accepted and rejected rows
+     * @throws IOException If the file cannot be read
+     */
+    public CsvParseResult parseInChunks(InputStream input, int chunkSize, Consumer<List<CryptoEntity>> chunkConsumer) throws IOException {
+        return parseInChunks(input, chunkSize, chunkConsumer, (line, row) -> { });
+    }
+
+    /**
+     * Parse the CSV file in chunks, like {@link #parseInChunks(InputStream, int, Consumer)}, and hand every rejected row
+     * to the rejected row handler as soon as it is read
+     *
+     * @param input The CSV file
+     * @param chunkSize Maximum number of rows of a chunk
+     * @param chunkConsumer Consumer of the crypto entries
+     * @param rejectedRowHandler Receiver of the rejected rows
+     * @return The number of accepted and rejected rows
+     * @throws IOException If the file cannot be read
+     */
+    public CsvParseResult parseInChunks(InputStream input, int chunkSize, Consumer<List<CryptoEntity>> chunkConsumer,
+                                        RejectedRowHandler rejectedRowHandler) throws IOException {
+        var chunkingHandler = new ChunkingHandler(chunkSize, chunkConsumer, rejectedRowHandler);
+        var parseResult = parse(input, chunkingHandler);
+        chunkingHandler.flush();
+
+        return parseResult;
+    }
+
+    /**
+     * Parse the CSV file and hand every valid row to the handler.
+     * The rows with a wrong number of fields, an empty field or a malformed number are skipped and counted.
+     *
+     * @param input The CSV file
+     * @param handler Receiver of the rows
+     * @return The number of accepted and rejected rows
+     * @throws IOException If the file cannot be read
+     * @throws IllegalArgumentException If the header does not contain the timestamp, symbol and price columns
+     */
+    public CsvParseResult parse(InputStream input, TickHandler handler) throws IOException {
+        return new Parser(input, handler).parse();
+    }
+
+    private static class ChunkingHandler implements TickHandler {
+        private final int chunkSize;
+        private final Consumer<List<CryptoEntity>> chunkConsumer;
+        private final RejectedRowHandler rejectedRowHandler;
+        private List<CryptoEntity> chunk;
+
+        ChunkingHandler(int chunkSize, Consumer<List<CryptoEntity>> chunkConsumer, RejectedRowHandler rejectedRowHandler) {
+            this.chunkSize = chunkSize;
+            this.chunkConsumer = chunkConsumer;
+            this.rejectedRowHandler = rejectedRowHandler;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void onTick(long timestamp, String symbol, double price) {
+            chunk.add(CryptoEntity.builder()
+                    .symbol(symbol)
+                    .timestamp(Instant.ofEpochMilli(timestamp))
+                    .price(price)
+                    .build());
+
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onRejected(long line, String row) {
+            rejectedRowHandler.onRejected(line, row);
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+    }
+
+    /**
+     * State of a single parsing. The symbols are decoded once per parsing and then looked up by their bytes.
+     */
+    private static class Parser {
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        /**
+         * A mantissa with at most 15 digits and a power of ten up to 22 are both exact doubles,
+         * so a single multiplication or division gives the correctly rounded value.
+         */
+        private static final int MAX_FAST_PATH_DIGITS = 15;
+
+        private final InputStream input;
+        private final TickHandler handler;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private boolean headerRead;
+        private int columnCount;
+        private int timestampColumn;
+        private int symbolColumn;
+        private int priceColumn;
+
+        private byte[][] symbolKeys = new byte[16][];
+        private String[] symbolValues = new String[16];
+        private int symbolCount;
+
+        private boolean malformed;
+        private boolean skippingLine;
+        private long line;
+        private long accepted;
+        private long rejected;
+
+        Parser(InputStream input, TickHandler handler) {
+            this.input = input;
+            this.handler = handler;
+        }
+
+        CsvParseResult parse() throws IOException {
+            int lineStart = 0;
+            int scanFrom = 0;
+            int limit = 0;
+
+            while (true) {
+                int newline = indexOf((byte) '\n', scanFrom, limit);
+
+                if (newline >= 0) {
+                    if (skippingLine) {
+                        skippingLine = false;
+                    } else {
+                        parseLine(lineStart, newline);
+                    }
+                    lineStart = newline + 1;
+                    scanFrom = lineStart;
+                    continue;
+                }
+
+                // Move the incomplete line to the beginning of the buffer and read the next block
+                int remaining = limit - lineStart;
+                if (remaining == buffer.length) {
+                    if (!skippingLine) {
+                        rejectLongLine();
+                    }
+                    remaining = 0;
+                } else if (lineStart > 0) {
+                    System.arraycopy(buffer, lineStart, buffer, 0, remaining);
+                }
+                lineStart = 0;
+                scanFrom = remaining;
+                limit = remaining;
+
+                int read = input.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    if (limit > 0 && !skippingLine) {
+                        parseLine(0, limit);
+                    }
+                    break;
+                }
+                limit += read;
+            }
+
+            if (!headerRead) {
+                throw new IllegalArgumentException("The CSV file has no header.");
+            }
+
+            return new CsvParseResult(accepted, rejected);
+        }
+
+        /**
+         * The buffer is full of a single line: it is rejected with its beginning, and its end is skipped
+         */
+        private void rejectLongLine() {
+            line++;
+            skippingLine = true;
+            if (!headerRead) {
+                throw new IllegalArgumentException("The CSV header is longer than " + BUFFER_SIZE + " bytes.");
+            }
+            rejected++;
+            handler.onRejected(line, new String(buffer, 0, MAX_REJECTED_ROW_LENGTH, StandardCharsets.UTF_8) + "...");
+        }
+
+        private void parseLine(int start, int end) {
+            line++;
+            if (!headerRead && end - start >= 3 && (buffer[start] & 0xFF) == 0xEF && (buffer[start + 1] & 0xFF) == 0xBB && (buffer[start + 2] & 0xFF) == 0xBF) {
+                start += 3;
+            }
+
+            end = trimEnd(start, end);
+            if (start == end) {
+                return;
+            }
+
+            if (headerRead) {
+                parseRow(start, end);
+            } else {
+                parseHeader(start, end);
+            }
+        }
+
+        private void parseHeader(int start, int end) {
+            timestampColumn = -1;
+            symbolColumn = -1;
+            priceColumn = -1;
+
+            int column = 0;
+            int fieldStart = start;
+            while (true) {
+                int fieldEnd = fieldEnd(fieldStart, end);
+                var name = field(fieldStart, fieldEnd).toLowerCase(Locale.ROOT);
+
+                switch (name) {
+                    case TIMESTAMP_COLUMN -> timestampColumn = column;
+                    case SYMBOL_COLUMN -> symbolColumn = column;
+                    case PRICE_COLUMN -> priceColumn = column;
+                    default -> {
+                        // Unknown columns are ignored
+                    }
+                }
+
+                column++;
+                if (fieldEnd == end) {
+                    break;
+                }
+                fieldStart = fieldEnd + 1;
+            }
+
+            if (timestampColumn < 0 || symbolColumn < 0 || priceColumn < 0) {
+                throw new IllegalArgumentException("The CSV header must contain the timestamp, symbol and price columns.");
+            }
+
+            columnCount = column;
+            headerRead = true;
+        }
+
+        private void parseRow(int start, int end) {
+            long timestamp = 0;
+            String symbol = null;
+            double price = 0;
+
+            malformed = false;
+            int column = 0;
+            int fieldStart = start;
+            while (true) {
+                int fieldEnd = fieldEnd(fieldStart, end);
+
+                if (column == timestampColumn || column == symbolColumn || column == priceColumn) {
+                    int valueStart = trimStart(fieldStart, fieldEnd);
+                    int valueEnd = trimEnd(valueStart, fieldEnd);
+                    if (valueEnd - valueStart >= 2 && buffer[valueStart] == '"' && buffer[valueEnd - 1] == '"') {
+                        valueStart++;
+                        valueEnd--;
+                    }
+
+                    if (valueStart == valueEnd) {
+                        malformed = true;
+                    } else if (column == timestampColumn) {
+                        timestamp = parseLong(valueStart, valueEnd);
+                    } else if (column == symbolColumn) {
+                        symbol = symbol(valueStart, valueEnd);
+                    } else {
+                        price = parseDouble(valueStart, valueEnd);
+                    }
+                }
+
+                column++;
+                if (fieldEnd == end || malformed) {
+                    break;
+                }
+                fieldStart = fieldEnd + 1;
+            }
+
+            if (malformed || column != columnCount) {
+                rejected++;
+                handler.onRejected(line, new String(buffer, start, end - start, StandardCharsets.UTF_8));
+                return;
+            }
+
+            handler.onTick(timestamp, symbol, price);
+            accepted++;
+        }
+
+        private long parseLong(int start, int end) {
+            int position = start;
+            boolean negative = buffer[position] == '-';
+            if (negative || buffer[position] == '+') {
+                position++;
+            }
+
+            if (position == end) {
+                malformed = true;
+                return 0;
+            }
+
+            long value = 0;
+            for (; position < end; position++) {
+                int digit = buffer[position] - '0';
+                if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                    malformed = true;
+                    return 0;
+                }
+                value = value * 10 + digit;
+            }
+
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parse plain decimal numbers with the fast path. Everything else (exponents, long mantissas) goes through
+         * {@link Double#parseDouble(String)}, so the result is always the correctly rounded value.
+         */
+        private double parseDouble(int start, int end) {
+            int position = start;
+            boolean negative = buffer[position] == '-';
+            if (negative || buffer[position] == '+') {
+                position++;
+            }
+
+            long mantissa = 0;
+            int exponent = 0;
+            int significantDigits = 0;
+            int digits = 0;
+            boolean fractionPart = false;
+
+            for (; position < end; position++) {
+                byte current = buffer[position];
+                if (current == '.' && !fractionPart) {
+                    fractionPart = true;
+                    continue;
+                }
+
+                int digit = current - '0';
+                if (digit < 0 || digit > 9) {
+                    return parseDoubleSlowPath(start, end);
+                }
+
+                digits++;
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0 && ++significantDigits > MAX_FAST_PATH_DIGITS) {
+                    return parseDoubleSlowPath(start, end);
+                }
+                if (fractionPart) {
+                    exponent--;
+                }
+            }
+
+            if (digits == 0) {
+                malformed = true;
+                return 0;
+            }
+            if (-exponent >= POWERS_OF_TEN.length) {
+                return parseDoubleSlowPath(start, end);
+            }
+
+            double value = mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        private double parseDoubleSlowPath(int start, int end) {
+            try {
+                return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                malformed = true;
+                return 0;
+            }
+        }
+
+        /**
+         * Return the symbol decoded from the bytes. Every distinct symbol is decoded and interned only once.
+         */
+        private String symbol(int start, int end) {
+            int hash = 1;
+            for (int position = start; position < end; position++) {
+                hash = 31 * hash + buffer[position];
+            }
+
+            int mask = symbolKeys.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (symbolKeys[slot] != null) {
+                var key = symbolKeys[slot];
+                if (Arrays.equals(key, 0, key.length, buffer, start, end)) {
+                    return symbolValues[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            var key = Arrays.copyOfRange(buffer, start, end);
+            var symbol = new String(key, StandardCharsets.UTF_8).intern();
+            symbolKeys[slot] = key;
+            symbolValues[slot] = symbol;
+
+            if (++symbolCount * 2 > symbolKeys.length) {
+                resizeSymbols();
+            }
+
+            return symbol;
+        }
+
+        private void resizeSymbols() {
+            var oldKeys = symbolKeys;
+            var oldValues = symbolValues;
+            symbolKeys = new byte[oldKeys.length * 2][];
+            symbolValues = new String[oldKeys.length * 2];
+
+            int mask = symbolKeys.length - 1;
+            for (int index = 0; index < oldKeys.length; index++) {
+                if (oldKeys[index] != null) {
+                    int hash = Arrays.hashCode(oldKeys[index]);
+                    int slot = (hash ^ (hash >>> 16)) & mask;
+                    while (symbolKeys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    symbolKeys[slot] = oldKeys[index];
+                    symbolValues[slot] = oldValues[index];
+                }
+            }
+        }
+
+        private String field(int start, int end) {
+            int valueStart = trimStart(start, end);
+            int valueEnd = trimEnd(valueStart, end);
+            if (valueEnd - valueStart >= 2 && buffer[valueStart] == '"' && buffer[valueEnd - 1] == '"') {
+                valueStart++;
+                valueEnd--;
+            }
+
+            return new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+        }
+
+        private int fieldEnd(int start, int end) {
+            int comma = indexOf((byte) ',', start, end);
+            return comma < 0 ? end : comma;
+        }
+
+        private int indexOf(byte value, int start, int end) {
+            for (int position = start; position < end; position++) {
+                if (buffer[position] == value) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        private int trimStart(int start, int end) {
+            while (start < end && isWhitespace(buffer[start])) {
+                start++;
+            }
+            return start;
+        }
+
+        private int trimEnd(int start, int end) {
+            while (end > start && isWhitespace(buffer[end - 1])) {
+                end--;
+            }
+            return end;
+        }
+
+        private static boolean isWhitespace(byte value) {
+            return value == ' ' || value == '\t' || value == '\r';
+        }
+    }
+}
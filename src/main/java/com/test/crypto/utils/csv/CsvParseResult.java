@@ -0,0 +1,10 @@
+package com.test.crypto.utils.csv;
+
+/**
+ * Outcome of a chunked CSV parsing
+ *
+ * @param accepted Number of rows handed to the consumer
+ * @param rejected Number of rows that could not be mapped
+ */
+public record CsvParseResult(long accepted, long rejected) {
+}
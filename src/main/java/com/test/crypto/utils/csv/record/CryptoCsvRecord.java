@@ -5,10 +5,10 @@ import lombok.Data;
 
 @Data
 public class CryptoCsvRecord {
-    @CsvBindByName
-    private String timestamp;
-    @CsvBindByName
+    @CsvBindByName(required = true)
+    private Long timestamp;
+    @CsvBindByName(required = true)
     private String symbol;
-    @CsvBindByName
-    private String price;
+    @CsvBindByName(required = true)
+    private Double price;
 }
@@ -2,11 +2,17 @@ package com.test.crypto.controller;
 
 import com.test.crypto.common.exceptions.NotFoundException;
 import com.test.crypto.common.exceptions.handler.RestErrorHandler;
+import com.test.crypto.commons.model.CryptoAnalyticsDto;
 import com.test.crypto.commons.model.CryptoValuesDto;
+import com.test.crypto.commons.model.NormalizedCryptoDto;
+import com.test.crypto.domain.entity.CryptoAnalytics;
+import com.test.crypto.domain.entity.NormalizedCrypto;
 import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.CryptoAnalyticsService;
 import com.test.crypto.service.CryptoService;
 import com.test.crypto.service.mapper.CryptoMapper;
 import com.test.crypto.service.mapper.CryptoMapperImpl;
+import com.test.crypto.service.stream.RankingStreamService;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.specification.MockMvcRequestSpecification;
 import org.junit.jupiter.api.Assertions;
@@ -19,7 +25,9 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -29,7 +37,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +52,12 @@ class CryptoControllerTest {
     @Mock
     private CryptoService cryptoService;
 
+    @Mock
+    private RankingStreamService rankingStreamService;
+
+    @Mock
+    private CryptoAnalyticsService cryptoAnalyticsService;
+
     @Spy
     private CryptoMapper cryptoMapper = new CryptoMapperImpl();
 
@@ -63,7 +79,7 @@ class CryptoControllerTest {
     void getCryptoListOrderedByNormalization_Return200AndAListOfCrypto_WithDefaultValues() {
         var cryptoList = List.of("XRP", "LTC");
 
-        when(cryptoService.getCryptoListOrderedByNormalization(any(), any(), any())).thenReturn(cryptoList);
+        when(cryptoService.getCryptoListOrderedByNormalization(any(), any(), any(), anyInt(), anyInt())).thenReturn(cryptoList);
 
         var cryptoListResponse = givenController()
                 .contentType(ContentType.JSON)
@@ -76,7 +92,7 @@ class CryptoControllerTest {
 
         assertEquals(cryptoList, cryptoListResponse);
 
-        verify(cryptoService).getCryptoListOrderedByNormalization(localDateArgumentCaptor.capture(), localDateArgumentCaptor.capture(), sortingOrderArgumentCaptor.capture());
+        verify(cryptoService).getCryptoListOrderedByNormalization(localDateArgumentCaptor.capture(), localDateArgumentCaptor.capture(), sortingOrderArgumentCaptor.capture(), eq(0), eq(Integer.MAX_VALUE));
 
         var dateArgumentCaptorValues = localDateArgumentCaptor.getAllValues();
         dateArgumentCaptorValues.forEach(Assertions::assertNotNull);
@@ -85,18 +101,34 @@ class CryptoControllerTest {
         assertEquals(SortingOrder.DESC, sortingOrderArgumentCaptorValue);
     }
 
+    @Test
+    void streamNormalizedCryptoList_OpenTheStreamOfThePeriod() {
+        var startDate = LocalDate.of(2021, 1, 1);
+        var endDate = LocalDate.of(2022, 2, 2);
+        when(rankingStreamService.subscribe(any(), any(), any())).thenReturn(new SseEmitter());
+
+        var statusCode = givenController()
+                .accept("text/event-stream")
+                .when()
+                .get(String.format("/crypto/normalize/stream?start=%s&end=%s&order=ASC", startDate, endDate))
+                .statusCode();
+
+        assertEquals(HttpStatus.OK.value(), statusCode);
+        verify(rankingStreamService).subscribe(startDate, endDate, SortingOrder.ASC);
+    }
+
     @Test
     void getCryptoListOrderedByNormalization_Return200AndAListOfCrypto_WithGivenValues() {
         var cryptoList = List.of("XRP", "LTC");
         var startDate = LocalDate.of(2021, 1, 1);
         var endDate = LocalDate.of(2022, 2, 2);
 
-        when(cryptoService.getCryptoListOrderedByNormalization(any(), any(), any())).thenReturn(cryptoList);
+        when(cryptoService.getCryptoListOrderedByNormalization(any(), any(), any(), anyInt(), anyInt())).thenReturn(cryptoList);
 
         var cryptoListResponse = givenController()
                 .contentType(ContentType.JSON)
                 .when()
-                .get(String.format("/crypto/normalize?start=%s&end=%s&order=ASC", startDate, endDate))
+                .get(String.format("/crypto/normalize?start=%s&end=%s&order=ASC&limit=2&offset=3", startDate, endDate))
                 .then()
                 .statusCode(HttpStatus.OK.value())
                 .contentType(ContentType.JSON)
@@ -104,7 +136,7 @@ class CryptoControllerTest {
 
         assertEquals(cryptoList, cryptoListResponse);
 
-        verify(cryptoService).getCryptoListOrderedByNormalization(localDateArgumentCaptor.capture(), localDateArgumentCaptor.capture(), sortingOrderArgumentCaptor.capture());
+        verify(cryptoService).getCryptoListOrderedByNormalization(localDateArgumentCaptor.capture(), localDateArgumentCaptor.capture(), sortingOrderArgumentCaptor.capture(), eq(3), eq(2));
 
         var dateArgumentCaptorValues = localDateArgumentCaptor.getAllValues();
         dateArgumentCaptorValues.forEach(Assertions::assertNotNull);
@@ -126,6 +158,39 @@ class CryptoControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST.value(), cryptoListResponse);
     }
 
+    @Test
+    void getCryptoListOrderedByNormalization_Return400_WhenTheLimitIsNotPositive() {
+        var statusCode = givenController()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/crypto/normalize?limit=0")
+                .statusCode();
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), statusCode);
+    }
+
+    @Test
+    void getNormalizedCryptoList_Return200AndTheNormalizedValues() {
+        var normalizedCryptoList = List.of(NormalizedCrypto.builder().symbol("XRP").normalizedValue(0.5).build());
+
+        when(cryptoService.getNormalizedCryptoList(any(), any(), any(), anyInt(), anyInt())).thenReturn(normalizedCryptoList);
+
+        var normalizedCryptoListResponse = givenController()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/crypto/normalize/values?limit=10")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract().as(NormalizedCryptoDto[].class);
+
+        assertEquals(1, normalizedCryptoListResponse.length);
+        assertEquals("XRP", normalizedCryptoListResponse[0].getSymbol());
+        assertEquals(0.5, normalizedCryptoListResponse[0].getNormalizedValue());
+
+        verify(cryptoService).getNormalizedCryptoList(any(), any(), eq(SortingOrder.DESC), eq(0), eq(10));
+    }
+
     @Test
     void getHighestNormalizedCryptoByDate_Return200_WhenDateIsValid() {
         var cryptoSymbol = "LTE";
@@ -188,6 +253,26 @@ class CryptoControllerTest {
         assertEquals(HttpStatus.NOT_FOUND.value(), cryptoResponse);
     }
 
+    @Test
+    void getCryptoSymbols_Return200AndTheSymbols() {
+        var cryptoSymbols = List.of("BTC", "ETH");
+
+        when(cryptoService.getCryptoSymbols()).thenReturn(cryptoSymbols);
+
+        var cryptoSymbolsResponse = givenController()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/crypto/symbols")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract().as(List.class);
+
+        assertEquals(cryptoSymbols, cryptoSymbolsResponse);
+
+        verify(cryptoService).getCryptoSymbols();
+    }
+
     @Test
     void getCryptoValuesBySymbol_Return200_AndTheValues() {
         var cryptoValues = getCryptoValues();
@@ -225,4 +310,56 @@ class CryptoControllerTest {
 
         assertEquals(HttpStatus.NOT_FOUND.value(), cryptoValuesResponse);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCryptoAnalytics_Return200AndTheStatisticsOfThePeriod() {
+        var cryptoAnalytics = CryptoAnalytics.builder()
+                .symbol("BTC")
+                .count(2L)
+                .first(Instant.parse("2022-01-01T04:00:00Z"))
+                .firstPrice(100d)
+                .last(Instant.parse("2022-01-02T04:00:00Z"))
+                .lastPrice(110d)
+                .minPrice(100d)
+                .maxPrice(110d)
+                .totalReturn(0.1)
+                .meanPrice(105d)
+                .priceStandardDeviation(7.0710678)
+                .meanReturn(0.1)
+                .volatility(0d)
+                .maxDrawdown(0d)
+                .build();
+
+        when(cryptoAnalyticsService.getCryptoAnalytics(any(), any())).thenReturn(List.of(cryptoAnalytics));
+
+        var cryptoAnalyticsResponse = givenController()
+                .contentType(ContentType.JSON)
+                .queryParam("start", "2022-01-01")
+                .queryParam("end", "2022-01-31")
+                .when()
+                .get("/crypto/analytics")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract().jsonPath().getList(".", CryptoAnalyticsDto.class);
+
+        assertEquals(1, cryptoAnalyticsResponse.size());
+        assertEquals("BTC", cryptoAnalyticsResponse.get(0).getSymbol());
+        assertEquals(0.1, cryptoAnalyticsResponse.get(0).getTotalReturn());
+
+        verify(cryptoAnalyticsService).getCryptoAnalytics(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 31));
+    }
+
+    @Test
+    void getCryptoAnalyticsBySymbol_Return404_WhenTheCryptoHasNoPriceInThePeriod() {
+        when(cryptoAnalyticsService.getCryptoAnalyticsBySymbol(anyString(), any(), any())).thenThrow(new NotFoundException(""));
+
+        var statusCode = givenController()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/crypto/analytics/BTC")
+                .statusCode();
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), statusCode);
+    }
+}
@@ -1,12 +1,13 @@
 package com.test.crypto.controller;
 
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
 import com.test.crypto.common.exceptions.dto.ApiError;
 import com.test.crypto.common.exceptions.handler.RestErrorHandler;
-import com.test.crypto.domain.entity.CryptoEntity;
-import com.test.crypto.service.CryptoService;
+import com.test.crypto.domain.entity.UploadJob;
+import com.test.crypto.service.UploadJobService;
 import com.test.crypto.service.mapper.CryptoMapper;
 import com.test.crypto.service.mapper.CryptoMapperImpl;
-import com.test.crypto.utils.csv.CsvParser;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.specification.MockMvcRequestSpecification;
 import org.junit.jupiter.api.Test;
@@ -18,16 +19,19 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.util.List;
+import java.util.UUID;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CsvReaderControllerTest {
@@ -35,46 +39,75 @@ class CsvReaderControllerTest {
     @InjectMocks
     private CsvReaderController csvReaderController;
 
-    @Spy
-    private CsvParser csvParser = new CsvParser();
+    @Mock
+    private UploadJobService uploadJobService;
 
     @Spy
     private CryptoMapper cryptoMapper = new CryptoMapperImpl();
 
-    @Mock
-    private CryptoService cryptoService;
-
     @Captor
-    private ArgumentCaptor<List<CryptoEntity>> cryptoListArgumentCaptor;
+    private ArgumentCaptor<List<MultipartFile>> filesArgumentCaptor;
 
     private MockMvcRequestSpecification givenController() {
         return given().standaloneSetup(csvReaderController, new RestErrorHandler());
     }
 
     @Test
-    void uploadFileHandler_Return200_WhenTheCsvWasUploaded() {
+    void uploadFileHandler_Return202AndTheQueuedJob_WhenTheCsvWasUploaded() {
         File file = new File("src/test/resources/BTC_values.csv");
+        var uploadJob = new UploadJob(UUID.randomUUID(), List.of("BTC_values.csv"), 10);
+        when(uploadJobService.submit(any())).thenReturn(uploadJob);
 
-        var statusCode = givenController()
+        var response = givenController()
                 .multiPart("file", file)
                 .when()
                 .post("/upload/csv")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .contentType(ContentType.JSON)
+                .extract();
+
+        assertEquals(uploadJob.getJobId().toString(), response.path("jobId"));
+        assertEquals("QUEUED", response.path("status"));
+        assertEquals("/upload/jobs/" + uploadJob.getJobId(), response.header("Location"));
+
+        verify(uploadJobService).submit(filesArgumentCaptor.capture());
+        assertEquals("BTC_values.csv", filesArgumentCaptor.getValue().get(0).getOriginalFilename());
+    }
+
+    @Test
+    void uploadFileHandler_SubmitAllTheFilesInOneJob() {
+        var uploadJob = new UploadJob(UUID.randomUUID(), List.of("BTC_values.csv", "BTC_malformed_values.csv"), 10);
+        when(uploadJobService.submit(any())).thenReturn(uploadJob);
+
+        var statusCode = givenController()
+                .multiPart("file", new File("src/test/resources/BTC_values.csv"))
+                .multiPart("file", new File("src/test/resources/BTC_malformed_values.csv"))
+                .when()
+                .post("/upload/csv")
                 .statusCode();
 
-        assertEquals(HttpStatus.CREATED.value(), statusCode);
+        assertEquals(HttpStatus.ACCEPTED.value(), statusCode);
+
+        verify(uploadJobService).submit(filesArgumentCaptor.capture());
+        var fileNames = filesArgumentCaptor.getValue().stream().map(MultipartFile::getOriginalFilename).toList();
+        assertEquals(List.of("BTC_values.csv", "BTC_malformed_values.csv"), fileNames);
+    }
 
-        verify(cryptoService).saveAll(cryptoListArgumentCaptor.capture());
+    @Test
+    void uploadFileHandler_Return400_WhenOneOfTheFilesIsNotCsv() {
+        var error = givenController()
+                .multiPart("file", new File("src/test/resources/BTC_values.csv"))
+                .multiPart("file", new File("src/test/resources/BTC_values.notCsv"))
+                .when()
+                .post("/upload/csv")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract().as(ApiError.class);
 
-        List<CryptoEntity> cryptoListArgumentCaptorValue = cryptoListArgumentCaptor.getValue();
+        assertEquals("The file BTC_values.notCsv is not a CSV or a ZIP archive.", error.getMessage());
 
-        assertNotNull(cryptoListArgumentCaptorValue);
-        assertEquals(10, cryptoListArgumentCaptorValue.size());
-        cryptoListArgumentCaptorValue.forEach(cryptoEntity -> {
-            assertNotNull(cryptoEntity.getSymbol());
-            assertEquals("BTC", cryptoEntity.getSymbol());
-            assertNotNull(cryptoEntity.getTimestamp());
-            assertNotNull(cryptoEntity.getPrice());
-        });
+        verify(uploadJobService, never()).submit(any());
     }
 
     @Test
@@ -89,7 +122,7 @@ class CsvReaderControllerTest {
 
         assertEquals(HttpStatus.BAD_REQUEST.value(), statusCode);
 
-        verify(cryptoService, never()).saveAll(anyList());
+        verify(uploadJobService, never()).submit(any());
     }
 
     @Test
@@ -102,25 +135,61 @@ class CsvReaderControllerTest {
 
         assertEquals(HttpStatus.BAD_REQUEST.value(), statusCode);
 
-        verify(cryptoService, never()).saveAll(anyList());
+        verify(uploadJobService, never()).submit(any());
     }
 
     @Test
-    void uploadFileHandler_Return500_WhenTheCsvIsCorrupted() {
-        File file = new File("src/test/resources/BTC_malformed_values.csv");
+    void uploadFileHandler_Return503_WhenTheUploadQueueIsFull() {
+        File file = new File("src/test/resources/BTC_values.csv");
+        when(uploadJobService.submit(any())).thenThrow(new ServiceUnavailableException("Too many uploads are waiting, the CSV can be uploaded again later."));
 
         var error = givenController()
                 .multiPart("file", file)
                 .when()
                 .post("/upload/csv")
                 .then()
-                .statusCode(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
                 .contentType(ContentType.JSON)
                 .extract().as(ApiError.class);
 
         assertNotNull(error);
-        assertEquals("CSV could not be parsed.", error.getMessage());
+        assertEquals("Too many uploads are waiting, the CSV can be uploaded again later.", error.getMessage());
+    }
+
+    @Test
+    void getUploadJob_Return200AndTheProgress() {
+        var uploadJob = new UploadJob(UUID.randomUUID(), List.of("BTC_values.csv"), 10);
+        uploadJob.start();
+        uploadJob.addAccepted(6);
+        uploadJob.reject("BTC_values.csv", 3, "1641009600000,BTC");
+        when(uploadJobService.getJob(uploadJob.getJobId())).thenReturn(uploadJob);
+
+        var response = givenController()
+                .when()
+                .get("/upload/jobs/" + uploadJob.getJobId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract();
+
+        assertEquals("RUNNING", response.path("status"));
+        assertEquals(6, (int) response.path("accepted"));
+        assertEquals(1, (int) response.path("rejected"));
+        assertEquals("BTC_values.csv", response.path("rejectedSamples[0].file"));
+        assertEquals(3, (int) response.path("rejectedSamples[0].line"));
+        assertEquals("1641009600000,BTC", response.path("rejectedSamples[0].row"));
+    }
+
+    @Test
+    void getUploadJob_Return404_WhenTheJobDoesNotExist() {
+        var jobId = UUID.randomUUID();
+        when(uploadJobService.getJob(jobId)).thenThrow(new NotFoundException("Upload job not found."));
+
+        var statusCode = givenController()
+                .when()
+                .get("/upload/jobs/" + jobId)
+                .statusCode();
 
-        verify(cryptoService, never()).saveAll(anyList());
+        assertEquals(HttpStatus.NOT_FOUND.value(), statusCode);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.test.crypto.controller;
+
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.handler.RestErrorHandler;
+import com.test.crypto.commons.model.NormalizedCryptoDto;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.ReactiveCryptoService;
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.mapper.CryptoMapperImpl;
+import io.restassured.http.ContentType;
+import io.restassured.module.mockmvc.specification.MockMvcRequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCryptoControllerTest {
+
+    @InjectMocks
+    private ReactiveCryptoController reactiveCryptoController;
+
+    @Mock
+    private ReactiveCryptoService reactiveCryptoService;
+
+    @Spy
+    private CryptoMapper cryptoMapper = new CryptoMapperImpl();
+
+    private MockMvcRequestSpecification givenController() {
+        return given().standaloneSetup(reactiveCryptoController, new RestErrorHandler());
+    }
+
+    @Test
+    void getNormalizedCryptoList_Return200AndTheNormalizedValues() {
+        var normalizedCryptoList = List.of(NormalizedCrypto.builder().symbol("ETH").normalizedValue(3d).build());
+
+        when(reactiveCryptoService.getNormalizedCryptoList(any(), any(), any(), anyInt(), anyInt())).thenReturn(Mono.just(normalizedCryptoList));
+
+        var normalizedCryptoResponse = givenController()
+                .contentType(ContentType.JSON)
+                .queryParam("start", "2022-01-01")
+                .queryParam("end", "2022-01-31")
+                .queryParam("order", "ASC")
+                .queryParam("limit", 10)
+                .when()
+                .async().get("/reactive/crypto/normalize/values")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract().jsonPath().getList(".", NormalizedCryptoDto.class);
+
+        assertEquals(cryptoMapper.toDtoList(normalizedCryptoList), normalizedCryptoResponse);
+
+        verify(reactiveCryptoService).getNormalizedCryptoList(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 31), SortingOrder.ASC, 0, 10);
+    }
+
+    @Test
+    void getCryptoListOrderedByNormalization_Return400_WhenTheLimitIsNotPositive() {
+        var statusCode = givenController()
+                .contentType(ContentType.JSON)
+                .queryParam("limit", 0)
+                .when()
+                .get("/reactive/crypto/normalize")
+                .statusCode();
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), statusCode);
+        verify(reactiveCryptoService, never()).getCryptoListOrderedByNormalization(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getCryptoValuesBySymbol_Return404_WhenCryptoDoesNotExist() {
+        when(reactiveCryptoService.getCryptoValuesBySymbol(anyString())).thenReturn(Mono.error(new NotFoundException("")));
+
+        var statusCode = givenController()
+                .contentType(ContentType.JSON)
+                .when()
+                .async().get("/reactive/crypto/info/BTC")
+                .statusCode();
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), statusCode);
+    }
+}
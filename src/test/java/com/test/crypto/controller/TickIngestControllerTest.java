@@ -0,0 +1,159 @@
+package com.test.crypto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.common.exceptions.dto.ApiError;
+import com.test.crypto.common.exceptions.handler.RestErrorHandler;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.service.TickIngestService;
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.mapper.CryptoMapperImpl;
+import io.restassured.http.ContentType;
+import io.restassured.module.mockmvc.specification.MockMvcRequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TickIngestControllerTest {
+
+    @InjectMocks
+    private TickIngestController tickIngestController;
+
+    @Mock
+    private TickIngestService tickIngestService;
+
+    @Spy
+    private CryptoMapper cryptoMapper = new CryptoMapperImpl();
+
+    @Spy
+    private CryptoProperties cryptoProperties = new CryptoProperties();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Captor
+    private ArgumentCaptor<List<CryptoEntity>> cryptoListArgumentCaptor;
+
+    private MockMvcRequestSpecification givenController() {
+        return given().standaloneSetup(tickIngestController, new RestErrorHandler());
+    }
+
+    @Test
+    void ingestTicks_Return202AndSubmitTheTicks() {
+        var response = givenController()
+                .contentType(ContentType.JSON)
+                .body("[{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":46813.21},{\"timestamp\":1641020400000,\"symbol\":\"BTC\",\"price\":46979.61}]")
+                .when()
+                .post("/ingest/ticks")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .contentType(ContentType.JSON)
+                .extract();
+
+        assertEquals(2, (int) response.path("accepted"));
+
+        verify(tickIngestService).submit(cryptoListArgumentCaptor.capture());
+        var tick = cryptoListArgumentCaptor.getValue().get(0);
+        assertEquals("BTC", tick.getSymbol());
+        assertEquals(Instant.ofEpochMilli(1641009600000L), tick.getTimestamp());
+        assertEquals(46813.21, tick.getPrice());
+    }
+
+    @Test
+    void ingestNdjsonTicks_Return202AndSubmitOneTickPerLine() {
+        var response = givenController()
+                .contentType("application/x-ndjson")
+                .body("{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":46813.21}\n{\"timestamp\":1641009600000,\"symbol\":\"ETH\",\"price\":3715.32}\n")
+                .when()
+                .post("/ingest/ticks")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .extract();
+
+        assertEquals(2, (int) response.path("accepted"));
+
+        verify(tickIngestService).submit(cryptoListArgumentCaptor.capture());
+        assertEquals(List.of("BTC", "ETH"), cryptoListArgumentCaptor.getValue().stream().map(CryptoEntity::getSymbol).toList());
+    }
+
+    @Test
+    void ingestNdjsonTicks_Return400_WhenALineIsNotJson() {
+        var error = givenController()
+                .contentType("application/x-ndjson")
+                .body("{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":46813.21}\nBTC,46813.21\n")
+                .when()
+                .post("/ingest/ticks")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract().as(ApiError.class);
+
+        assertEquals("Tick 2 is not a valid JSON object.", error.getMessage());
+
+        verify(tickIngestService, never()).submit(any());
+    }
+
+    @Test
+    void ingestTicks_Return400_WhenAPriceIsNotPositive() {
+        var error = givenController()
+                .contentType(ContentType.JSON)
+                .body("[{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":0}]")
+                .when()
+                .post("/ingest/ticks")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract().as(ApiError.class);
+
+        assertEquals("Tick 1 must have a strictly positive price.", error.getMessage());
+
+        verify(tickIngestService, never()).submit(any());
+    }
+
+    @Test
+    void ingestTicks_Return400_WhenTheRequestHasTooManyTicks() {
+        cryptoProperties.getFeed().setMaxRequestTicks(1);
+
+        var error = givenController()
+                .contentType(ContentType.JSON)
+                .body("[{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":1},{\"timestamp\":1641009600001,\"symbol\":\"BTC\",\"price\":2}]")
+                .when()
+                .post("/ingest/ticks")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract().as(ApiError.class);
+
+        assertEquals("At most 1 ticks can be sent in a request.", error.getMessage());
+    }
+
+    @Test
+    void ingestTicks_Return503_WhenTooManyTicksArePending() {
+        doThrow(new ServiceUnavailableException("Too many ticks are waiting to be saved, the ticks can be sent again later."))
+                .when(tickIngestService).submit(any());
+
+        var statusCode = givenController()
+                .contentType(ContentType.JSON)
+                .body("[{\"timestamp\":1641009600000,\"symbol\":\"BTC\",\"price\":1}]")
+                .when()
+                .post("/ingest/ticks")
+                .statusCode();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), statusCode);
+    }
+}
@@ -1,9 +1,12 @@
 package com.test.crypto.helper;
 
+import com.test.crypto.domain.entity.CryptoDailyValues;
 import com.test.crypto.domain.entity.CryptoEntity;
 import com.test.crypto.domain.entity.CryptoValues;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 public class TestHelper {
@@ -36,7 +39,35 @@ public class TestHelper {
                 .build();
     }
 
+    public static CryptoEntity getCryptoEntity(String symbol, Instant timestamp, Double price) {
+        return CryptoEntity.builder()
+                .symbol(symbol)
+                .timestamp(timestamp)
+                .price(price)
+                .build();
+    }
+
+    public static CryptoDailyValues getCryptoDailyValues(String symbol, LocalDate day, Double minPrice, Double maxPrice) {
+        var dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        return CryptoDailyValues.builder()
+                .symbol(symbol)
+                .day(day)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .firstTimestamp(dayStart.plusSeconds(60))
+                .firstPrice(minPrice)
+                .lastTimestamp(dayStart.plusSeconds(3600))
+                .lastPrice(maxPrice)
+                .count(2L)
+                .build();
+    }
+
     public static List<CryptoEntity> getCryptoEntityList() {
         return List.of(getCryptoEntity("LTE", 100d), getCryptoEntity("DOGE", 200d));
     }
+
+    public static List<String> getCryptoSymbols() {
+        return List.of("LTE", "DOGE");
+    }
 }
@@ -0,0 +1,161 @@
+package com.test.crypto.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.PartialSaveException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoBatchWriterTest {
+
+    @Mock
+    private CqlSession cqlSession;
+
+    @Mock
+    private PreparedStatement insertStatement;
+
+    @Captor
+    private ArgumentCaptor<BatchStatement> batchArgumentCaptor;
+
+    private CryptoBatchWriter cryptoBatchWriter;
+
+    @BeforeEach
+    void setUp() {
+        var cryptoProperties = new CryptoProperties();
+        cryptoProperties.getIngest().setBatchSize(2);
+        cryptoProperties.getIngest().setMaxInFlightBatches(2);
+        cryptoProperties.getIngest().setRetryBackoff(Duration.ofMillis(1));
+        cryptoBatchWriter = new CryptoBatchWriter(cqlSession, cryptoProperties);
+
+        when(cqlSession.prepare(anyString())).thenReturn(insertStatement);
+        lenient().when(insertStatement.bind(any(), any(), any())).thenAnswer(invocation -> mock(BoundStatement.class));
+    }
+
+    private static List<CryptoEntity> getCryptoList() {
+        var cryptoList = new ArrayList<CryptoEntity>();
+        for (int index = 0; index < 3; index++) {
+            cryptoList.add(getCryptoEntity("BTC", (double) index));
+        }
+        cryptoList.add(getCryptoEntity("ETH", 1d));
+        return cryptoList;
+    }
+
+    @Test
+    void write_SendOneUnloggedBatchPerPartitionChunk() {
+        when(cqlSession.executeAsync(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        cryptoBatchWriter.write(getCryptoList());
+
+        verify(cqlSession, times(3)).executeAsync(batchArgumentCaptor.capture());
+
+        var batchSizes = batchArgumentCaptor.getAllValues().stream().map(BatchStatement::size).sorted().toList();
+        assertEquals(List.of(1, 1, 2), batchSizes);
+        batchArgumentCaptor.getAllValues().forEach(batch -> assertEquals(BatchType.UNLOGGED, batch.getBatchType()));
+
+        assertEquals(4, cryptoBatchWriter.getRowsWritten());
+        assertEquals(0, cryptoBatchWriter.getBatchesFailed());
+    }
+
+    @Test
+    void writeBucketed_SendOneBatchPerSymbolAndMonthPartition() {
+        when(cqlSession.executeAsync(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        when(insertStatement.bind(any(), any(), any(), any())).thenAnswer(invocation -> mock(BoundStatement.class));
+
+        cryptoBatchWriter.writeBucketed(List.of(
+                getCryptoEntity("BTC", Instant.parse("2022-01-31T23:59:00Z"), 1d),
+                getCryptoEntity("BTC", Instant.parse("2022-02-01T00:00:00Z"), 2d),
+                getCryptoEntity("BTC", Instant.parse("2022-02-02T00:00:00Z"), 3d)));
+
+        verify(cqlSession, times(2)).executeAsync(batchArgumentCaptor.capture());
+        verify(insertStatement).bind("BTC", 202201, Instant.parse("2022-01-31T23:59:00Z"), 1d);
+
+        var batchSizes = batchArgumentCaptor.getAllValues().stream().map(BatchStatement::size).sorted().toList();
+        assertEquals(List.of(1, 2), batchSizes);
+    }
+
+    @Test
+    void write_RetryTheBatch_WhenTheFailureIsTransient() {
+        when(cqlSession.executeAsync(any(BatchStatement.class)))
+                .thenReturn(CompletableFuture.failedFuture(mock(OverloadedException.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        cryptoBatchWriter.write(List.of(getCryptoEntity("BTC", 1d)));
+
+        verify(cqlSession, times(2)).executeAsync(any(BatchStatement.class));
+        assertEquals(1, cryptoBatchWriter.getRowsWritten());
+        assertEquals(0, cryptoBatchWriter.getBatchesFailed());
+    }
+
+    @Test
+    void write_ThrowsInternalException_WhenTheFailureIsNotTransient() {
+        when(cqlSession.executeAsync(any(BatchStatement.class))).thenReturn(CompletableFuture.failedFuture(mock(SyntaxError.class)));
+
+        var cryptoList = List.of(getCryptoEntity("BTC", 1d));
+        assertThrows(InternalException.class, () -> cryptoBatchWriter.write(cryptoList));
+
+        verify(cqlSession).executeAsync(any(BatchStatement.class));
+        assertEquals(0, cryptoBatchWriter.getRowsWritten());
+        assertEquals(1, cryptoBatchWriter.getBatchesFailed());
+    }
+
+    @Test
+    void write_ThrowsPartialSaveException_WithTheRowsOfTheWrittenBatches() {
+        var cryptoList = getCryptoList();
+        when(cqlSession.executeAsync(any(BatchStatement.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, BatchStatement.class).size() == 1
+                        ? CompletableFuture.completedFuture(mock(AsyncResultSet.class))
+                        : CompletableFuture.failedFuture(mock(SyntaxError.class)));
+
+        var exception = assertThrows(PartialSaveException.class, () -> cryptoBatchWriter.write(cryptoList));
+
+        assertEquals(Set.copyOf(List.of(cryptoList.get(2), cryptoList.get(3))), Set.copyOf(exception.getSavedCryptoList()));
+        assertEquals(1, cryptoBatchWriter.getBatchesFailed());
+    }
+
+    @Test
+    void bindTo_ExposeTheWrittenRowsAndFailedBatches() {
+        when(cqlSession.executeAsync(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        var meterRegistry = new SimpleMeterRegistry();
+        cryptoBatchWriter.bindTo(meterRegistry);
+
+        cryptoBatchWriter.write(getCryptoList());
+
+        assertEquals(4d, meterRegistry.get(CryptoMetrics.INGEST_ROWS).tag("outcome", "written").functionCounter().count());
+        assertEquals(0d, meterRegistry.get("crypto.ingest.batches.failed").functionCounter().count());
+    }
+}
@@ -0,0 +1,158 @@
+package com.test.crypto.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.test.crypto.domain.entity.CryptoEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoStatementsTest {
+
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2022-01-31T00:00:00Z");
+
+    @Mock
+    private CqlSession cqlSession;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private BoundStatementBuilder boundStatementBuilder;
+
+    @Mock
+    private BoundStatement boundStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private CryptoStatements cryptoStatements;
+
+    @BeforeEach
+    void setUp() {
+        cryptoStatements = new CryptoStatements(cqlSession);
+
+        when(cqlSession.prepare(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.boundStatementBuilder()).thenReturn(boundStatementBuilder);
+        when(boundStatementBuilder.build()).thenReturn(boundStatement);
+        when(cqlSession.execute(any(BoundStatement.class))).thenReturn(resultSet);
+    }
+
+    private static Row getPriceRow(Instant timestamp, double price) {
+        var row = mock(Row.class);
+        when(row.getInstant(0)).thenReturn(timestamp);
+        when(row.getDouble(1)).thenReturn(price);
+        return row;
+    }
+
+    private void givenRows(List<Row> rows) {
+        when(resultSet.iterator()).thenAnswer(invocation -> rows.iterator());
+    }
+
+    @Test
+    void findTimestampsBySymbolInInterval_PrepareTheStatementOnceAndBindTheValues() {
+        var row = mock(Row.class);
+        when(row.getInstant(0)).thenReturn(START);
+        givenRows(List.of(row));
+
+        assertEquals(List.of(START), cryptoStatements.findTimestampsBySymbolInInterval("BTC", START, END));
+        assertEquals(List.of(START), cryptoStatements.findTimestampsBySymbolInInterval("BTC", START, END));
+
+        verify(cqlSession).prepare(anyString());
+        verify(boundStatementBuilder, times(2)).setString(0, "BTC");
+        verify(boundStatementBuilder, times(2)).setInstant(1, START);
+        verify(boundStatementBuilder, times(2)).setInstant(2, END);
+        verify(boundStatementBuilder, times(2)).setIdempotence(true);
+    }
+
+    @Test
+    void findCryptoValuesBySymbol_ReturnEmptyValues_WhenTheAggregatesAreNull() {
+        var row = mock(Row.class);
+        when(row.isNull(0)).thenReturn(true);
+        when(row.isNull(1)).thenReturn(true);
+        when(resultSet.one()).thenReturn(row);
+
+        var cryptoValues = cryptoStatements.findCryptoValuesBySymbol("BTC");
+
+        assertNull(cryptoValues.getSymbol());
+        assertNull(cryptoValues.getMinPrice());
+        assertNull(cryptoValues.getMaxPrice());
+    }
+
+    @Test
+    void findDailyValuesBySymbolInInterval_MapTheColumnsByIndex() {
+        var day = LocalDate.of(2022, 1, 1);
+        var row = mock(Row.class);
+        when(row.getLocalDate(0)).thenReturn(day);
+        when(row.getDouble(1)).thenReturn(10d);
+        when(row.getDouble(2)).thenReturn(20d);
+        when(row.getInstant(3)).thenReturn(START);
+        when(row.getDouble(4)).thenReturn(15d);
+        when(row.getInstant(5)).thenReturn(END);
+        when(row.getDouble(6)).thenReturn(12d);
+        when(row.getLong(7)).thenReturn(3L);
+        givenRows(List.of(row));
+
+        var dailyValues = cryptoStatements.findDailyValuesBySymbolInInterval("BTC", day, day).get(0);
+
+        assertEquals("BTC", dailyValues.getSymbol());
+        assertEquals(day, dailyValues.getDay());
+        assertEquals(10d, dailyValues.getMinPrice());
+        assertEquals(20d, dailyValues.getMaxPrice());
+        assertEquals(START, dailyValues.getFirstTimestamp());
+        assertEquals(15d, dailyValues.getFirstPrice());
+        assertEquals(END, dailyValues.getLastTimestamp());
+        assertEquals(12d, dailyValues.getLastPrice());
+        assertEquals(3L, dailyValues.getCount());
+    }
+
+    @Test
+    void scanInterval_SplitTheRowsInPagesOfPageSize() {
+        var rows = new ArrayList<Row>();
+        for (int index = 0; index < 5; index++) {
+            rows.add(getPriceRow(START.plusSeconds(index), index));
+        }
+        givenRows(rows);
+
+        var pages = new ArrayList<List<CryptoEntity>>();
+        cryptoStatements.scanInterval("BTC", START, END, 2, pages::add);
+
+        assertEquals(List.of(2, 2, 1), pages.stream().map(List::size).toList());
+        assertEquals(CryptoEntity.builder().symbol("BTC").timestamp(START.plusSeconds(4)).price(4d).build(), pages.get(2).get(0));
+        verify(boundStatementBuilder).setPageSize(2);
+    }
+
+    @Test
+    void scan_DoNotCallTheConsumer_WhenTheSymbolHasNoEntry() {
+        givenRows(List.of());
+
+        var pages = new ArrayList<List<CryptoEntity>>();
+        cryptoStatements.scan("BTC", 2, pages::add);
+
+        assertEquals(List.of(), pages);
+        verify(boundStatementBuilder).setPageSize(2);
+    }
+}
@@ -0,0 +1,115 @@
+package com.test.crypto.repository;
+
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import com.test.crypto.domain.entity.CryptoValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.test.crypto.helper.TestHelper.getCryptoDailyValues;
+import static com.test.crypto.helper.TestHelper.getCryptoValuesDynamically;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MonthPartitionedTickStoreTest {
+
+    @InjectMocks
+    private MonthPartitionedTickStore monthPartitionedTickStore;
+
+    @Mock
+    private CryptoBatchWriter cryptoBatchWriter;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CryptoMetrics cryptoMetrics = new CryptoMetrics(meterRegistry);
+
+    @Mock
+    private CryptoBucketedRepository cryptoBucketedRepository;
+
+    @Mock
+    private CryptoValuesRepository cryptoValuesRepository;
+
+    @Mock
+    private CryptoDailyValuesRepository cryptoDailyValuesRepository;
+
+    @Mock
+    private CryptoStatements cryptoStatements;
+
+    @Test
+    void findPriceLimitsBySymbolInInterval_QueryOnlyTheOverlappingMonths() {
+        var start = Instant.parse("2022-01-20T00:00:00Z");
+        var end = Instant.parse("2022-03-05T00:00:00Z");
+        when(cryptoValuesRepository.findPriceLimitsBySymbolAndMonthInInterval("BTC", 202201, start, end)).thenReturn(getCryptoValuesDynamically("BTC", 10d, 20d));
+        when(cryptoValuesRepository.findPriceLimitsBySymbolAndMonthInInterval("BTC", 202202, start, end)).thenReturn(CryptoValues.builder().build());
+        when(cryptoValuesRepository.findPriceLimitsBySymbolAndMonthInInterval("BTC", 202203, start, end)).thenReturn(getCryptoValuesDynamically("BTC", 5d, 15d));
+
+        var cryptoValues = monthPartitionedTickStore.findPriceLimitsBySymbolInInterval("BTC", start, end);
+
+        assertEquals("BTC", cryptoValues.getSymbol());
+        assertEquals(5d, cryptoValues.getMinPrice());
+        assertEquals(20d, cryptoValues.getMaxPrice());
+        assertEquals(1, meterRegistry.get(CryptoMetrics.QUERY_TIMER).tag("query", "findPriceLimitsBySymbolInInterval").timer().count());
+    }
+
+    @Test
+    void findCryptoValuesBySymbol_QueryTheMonthsBetweenTheFirstAndLastDailyValues() {
+        when(cryptoDailyValuesRepository.findFirstDayBySymbol("BTC")).thenReturn(Optional.of(getCryptoDailyValues("BTC", LocalDate.of(2021, 12, 31), 1d, 2d)));
+        when(cryptoDailyValuesRepository.findLastDayBySymbol("BTC")).thenReturn(Optional.of(getCryptoDailyValues("BTC", LocalDate.of(2022, 1, 1), 1d, 2d)));
+        when(cryptoValuesRepository.findCryptoValuesBySymbolAndMonth("BTC", 202112)).thenReturn(getCryptoValuesDynamically("BTC", 1d, 2d));
+        when(cryptoValuesRepository.findCryptoValuesBySymbolAndMonth("BTC", 202201)).thenReturn(getCryptoValuesDynamically("BTC", 3d, 4d));
+
+        var cryptoValues = monthPartitionedTickStore.findCryptoValuesBySymbol("BTC");
+
+        assertEquals(1d, cryptoValues.getMinPrice());
+        assertEquals(4d, cryptoValues.getMaxPrice());
+    }
+
+    @Test
+    void findCryptoValuesBySymbol_ReturnEmptyValues_WhenTheSymbolHasNoDailyValues() {
+        when(cryptoDailyValuesRepository.findFirstDayBySymbol("BTC")).thenReturn(Optional.empty());
+        when(cryptoDailyValuesRepository.findLastDayBySymbol("BTC")).thenReturn(Optional.empty());
+
+        var cryptoValues = monthPartitionedTickStore.findCryptoValuesBySymbol("BTC");
+
+        assertNull(cryptoValues.getMinPrice());
+        verify(cryptoValuesRepository, never()).findCryptoValuesBySymbolAndMonth(anyString(), anyInt());
+    }
+
+    @Test
+    void findTimestampsBySymbolInInterval_MergeTheTimestampsOfTheOverlappingMonths() {
+        var start = Instant.parse("2022-01-31T00:00:00Z");
+        var end = Instant.parse("2022-02-01T12:00:00Z");
+        when(cryptoStatements.findTimestampsBySymbolAndMonthInInterval("BTC", 202201, start, end)).thenReturn(List.of(start));
+        when(cryptoStatements.findTimestampsBySymbolAndMonthInInterval("BTC", 202202, start, end)).thenReturn(List.of(end));
+
+        assertEquals(List.of(start, end), monthPartitionedTickStore.findTimestampsBySymbolInInterval("BTC", start, end));
+    }
+
+    @Test
+    void findAllSymbols_ReturnTheDistinctSymbolsOfTheMonthPartitions() {
+        when(cryptoBucketedRepository.findAllPartitions()).thenReturn(List.of(
+                CryptoBucketedEntity.builder().symbol("BTC").month(202201).build(),
+                CryptoBucketedEntity.builder().symbol("BTC").month(202202).build(),
+                CryptoBucketedEntity.builder().symbol("ETH").month(202201).build()));
+
+        assertEquals(List.of("BTC", "ETH"), monthPartitionedTickStore.findAllSymbols());
+    }
+}
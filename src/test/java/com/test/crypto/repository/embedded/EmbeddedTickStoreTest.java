@@ -0,0 +1,161 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedTickStoreTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2022-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+
+    private EmbeddedTickStore embeddedTickStore;
+
+    @BeforeEach
+    void setUp() {
+        cryptoProperties.getStorage().getEmbedded().setDirectory(directory);
+        cryptoProperties.getStorage().getEmbedded().setBlockSize(2);
+        embeddedTickStore = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        embeddedTickStore.close();
+    }
+
+    private EmbeddedTickStore open() {
+        return new EmbeddedTickStore(new CryptoMetrics(new SimpleMeterRegistry()), cryptoProperties);
+    }
+
+    private static CryptoEntity getPrice(String symbol, long seconds, double price) {
+        return getCryptoEntity(symbol, TIMESTAMP.plusSeconds(seconds), price);
+    }
+
+    private List<CryptoEntity> scan(String symbol, int pageSize) {
+        var cryptoList = new ArrayList<CryptoEntity>();
+        embeddedTickStore.scan(symbol, pageSize, page -> {
+            assertTrue(page.size() <= pageSize);
+            cryptoList.addAll(page);
+        });
+        return cryptoList;
+    }
+
+    @Test
+    void scan_MergeTheBlocksInChronologicalOrder_KeepingTheLatestPriceOfATimestamp() {
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 30, 3d), getPrice("BTC", 10, 1d), getPrice("ETH", 10, 100d), getPrice("BTC", 50, 5d)));
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 20, 2d), getPrice("BTC", 30, 33d), getPrice("BTC", 40, 4d)));
+
+        var cryptoList = scan("BTC", 2);
+
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L), cryptoList.stream().map(crypto -> crypto.getTimestamp().getEpochSecond() - TIMESTAMP.getEpochSecond()).toList());
+        assertEquals(List.of(1d, 2d, 33d, 4d, 5d), cryptoList.stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(List.of("BTC", "ETH"), embeddedTickStore.findAllSymbols().stream().sorted().toList());
+    }
+
+    @Test
+    void findPriceLimitsBySymbolInInterval_ReadThePricesOfThePartiallyCoveredBlocks() {
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 8d), getPrice("BTC", 30, 5d), getPrice("BTC", 40, 9d)));
+
+        var cryptoValues = embeddedTickStore.findPriceLimitsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(15), TIMESTAMP.plusSeconds(35));
+
+        assertEquals("BTC", cryptoValues.getSymbol());
+        assertEquals(5d, cryptoValues.getMinPrice());
+        assertEquals(8d, cryptoValues.getMaxPrice());
+        assertNull(embeddedTickStore.findPriceLimitsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(41), TIMESTAMP.plusSeconds(50)).getMinPrice());
+    }
+
+    @Test
+    void findTimestampsBySymbolInInterval_ReturnTheTimestampsWithinTheBounds() {
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d), getPrice("BTC", 30, 3d)));
+
+        assertEquals(List.of(TIMESTAMP.plusSeconds(20), TIMESTAMP.plusSeconds(30)),
+                embeddedTickStore.findTimestampsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(20), TIMESTAMP.plusSeconds(30)));
+    }
+
+    @Test
+    void open_RecoverTheIndexFromTheSegments() throws IOException {
+        cryptoProperties.getStorage().getEmbedded().setSegmentSize(DataSize.ofBytes(100));
+        embeddedTickStore.close();
+        embeddedTickStore = open();
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d)));
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 30, 3d)));
+        embeddedTickStore.close();
+
+        embeddedTickStore = open();
+
+        var cryptoValues = embeddedTickStore.findCryptoValuesBySymbol("BTC");
+        assertEquals(1d, cryptoValues.getMinPrice());
+        assertEquals(3d, cryptoValues.getMaxPrice());
+        assertEquals(TIMESTAMP.plusSeconds(10), cryptoValues.getOldest());
+        assertEquals(TIMESTAMP.plusSeconds(30), cryptoValues.getNewest());
+        assertEquals(3, scan("BTC", 10).size());
+        try (var segmentFiles = Files.list(directory)) {
+            assertEquals(2, segmentFiles.count());
+        }
+    }
+
+    @Test
+    void open_TruncateTheIncompleteLastBlock() throws IOException {
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d)));
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 20, 2d)));
+        embeddedTickStore.close();
+        Path segmentFile;
+        try (var segmentFiles = Files.list(directory)) {
+            segmentFile = segmentFiles.findFirst().orElseThrow();
+        }
+        try (var segment = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            segment.truncate(segment.size() - 3);
+        }
+
+        embeddedTickStore = open();
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 30, 3d)));
+
+        assertEquals(List.of(1d, 3d), scan("BTC", 10).stream().map(CryptoEntity::getPrice).toList());
+    }
+
+    @Test
+    void open_TruncateTheBlockWithACorruptedHeader() throws IOException {
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d)));
+        embeddedTickStore.saveAll(List.of(getPrice("BTC", 20, 2d)));
+        embeddedTickStore.close();
+        Path segmentFile;
+        try (var segmentFiles = Files.list(directory)) {
+            segmentFile = segmentFiles.findFirst().orElseThrow();
+        }
+        var blockSize = Files.size(segmentFile) / 2;
+        var maxPriceOffset = Integer.BYTES + Short.BYTES + "BTC".length() + Integer.BYTES + 2 * Long.BYTES + Double.BYTES;
+        try (var segment = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.allocate(Double.BYTES).putDouble(0, 100d), blockSize + maxPriceOffset);
+        }
+
+        embeddedTickStore = open();
+
+        assertEquals(List.of(1d), scan("BTC", 10).stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(1d, embeddedTickStore.findCryptoValuesBySymbol("BTC").getMaxPrice());
+    }
+}
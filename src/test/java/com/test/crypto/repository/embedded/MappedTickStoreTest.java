@@ -0,0 +1,192 @@
+package com.test.crypto.repository.embedded;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedTickStoreTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2022-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+
+    private MappedTickStore mappedTickStore;
+
+    @BeforeEach
+    void setUp() {
+        cryptoProperties.getStorage().getEmbedded().setDirectory(directory);
+        cryptoProperties.getStorage().getEmbedded().setBlockSize(2);
+        mappedTickStore = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mappedTickStore.close();
+    }
+
+    private MappedTickStore open() {
+        return new MappedTickStore(new CryptoMetrics(new SimpleMeterRegistry()), cryptoProperties);
+    }
+
+    private static CryptoEntity getPrice(String symbol, long seconds, double price) {
+        return getCryptoEntity(symbol, TIMESTAMP.plusSeconds(seconds), price);
+    }
+
+    private List<CryptoEntity> scan(String symbol, int pageSize) {
+        var cryptoList = new ArrayList<CryptoEntity>();
+        mappedTickStore.scan(symbol, pageSize, page -> {
+            assertTrue(page.size() <= pageSize);
+            cryptoList.addAll(page);
+        });
+        return cryptoList;
+    }
+
+    private Path symbolFile(String symbol) {
+        return directory.resolve(symbol + MappedTickFile.SUFFIX);
+    }
+
+    private Path overflowFile(String symbol) {
+        return directory.resolve(symbol + MappedTickFile.SUFFIX + MappedTickFile.OVERFLOW_SUFFIX);
+    }
+
+    private static Object fileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    @Test
+    void scan_ReturnThePricesInChronologicalOrder_MergingTheOlderSaves() {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 30, 3d), getPrice("BTC", 10, 1d), getPrice("ETH", 10, 100d), getPrice("BTC", 50, 5d)));
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 20, 2d), getPrice("BTC", 30, 33d), getPrice("BTC", 40, 4d)));
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 60, 6d)));
+
+        var cryptoList = scan("BTC", 2);
+
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L, 60L), cryptoList.stream().map(crypto -> crypto.getTimestamp().getEpochSecond() - TIMESTAMP.getEpochSecond()).toList());
+        assertEquals(List.of(1d, 2d, 33d, 4d, 5d, 6d), cryptoList.stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(List.of("BTC", "ETH"), mappedTickStore.findAllSymbols().stream().sorted().toList());
+    }
+
+    @Test
+    void findPriceLimitsBySymbolInInterval_ReadThePricesOfThePartiallyCoveredBlocks() {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 8d), getPrice("BTC", 30, 5d),
+                getPrice("BTC", 40, 9d), getPrice("BTC", 50, 7d)));
+
+        var cryptoValues = mappedTickStore.findPriceLimitsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(15), TIMESTAMP.plusSeconds(50));
+
+        assertEquals("BTC", cryptoValues.getSymbol());
+        assertEquals(5d, cryptoValues.getMinPrice());
+        assertEquals(9d, cryptoValues.getMaxPrice());
+        assertNull(mappedTickStore.findPriceLimitsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(51), TIMESTAMP.plusSeconds(60)).getMinPrice());
+        assertEquals(List.of(TIMESTAMP.plusSeconds(20), TIMESTAMP.plusSeconds(30)),
+                mappedTickStore.findTimestampsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(20), TIMESTAMP.plusSeconds(30)));
+    }
+
+    @Test
+    void open_ReadTheBlockIndexFromTheFooter_AfterACleanClose() throws IOException {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d), getPrice("BTC", 30, 3d)));
+        mappedTickStore.close();
+
+        assertEquals(64 + 3 * 16 + 16 + 2 * 24, Files.size(symbolFile("BTC")));
+        mappedTickStore = open();
+
+        var cryptoValues = mappedTickStore.findCryptoValuesBySymbol("BTC");
+        assertEquals(1d, cryptoValues.getMinPrice());
+        assertEquals(3d, cryptoValues.getMaxPrice());
+        assertEquals(TIMESTAMP.plusSeconds(10), cryptoValues.getOldest());
+        assertEquals(TIMESTAMP.plusSeconds(30), cryptoValues.getNewest());
+        assertEquals(3, scan("BTC", 10).size());
+    }
+
+    @Test
+    void open_RebuildTheBlockIndex_CuttingTheRecordsOutOfOrder_AfterACrash() throws IOException {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d), getPrice("BTC", 30, 3d)));
+        mappedTickStore.close();
+        try (var file = FileChannel.open(symbolFile("BTC"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(4).putInt(0).flip(), 8);
+            file.write(ByteBuffer.allocate(16).putLong(0).putDouble(9d).flip(), 64 + 3 * 16);
+        }
+
+        mappedTickStore = open();
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 40, 4d)));
+
+        assertEquals(List.of(1d, 2d, 3d, 4d), scan("BTC", 10).stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(4d, mappedTickStore.findCryptoValuesBySymbol("BTC").getMaxPrice());
+    }
+
+    @Test
+    void open_DeleteTheIncompleteMergedFile() throws IOException {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d)));
+        mappedTickStore.close();
+        var mergedFile = directory.resolve("BTC" + MappedTickFile.SUFFIX + MappedTickFile.TEMPORARY_SUFFIX);
+        Files.write(mergedFile, new byte[64]);
+
+        mappedTickStore = open();
+
+        assertFalse(Files.exists(mergedFile));
+        assertEquals(List.of("BTC"), mappedTickStore.findAllSymbols());
+        assertEquals(1, scan("BTC", 10).size());
+    }
+
+    @Test
+    void saveAll_KeepTheOlderPricesInTheOverflow_UntilItIsCompacted() throws IOException {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d), getPrice("BTC", 30, 3d), getPrice("BTC", 40, 4d)));
+        var fileKey = fileKey(symbolFile("BTC"));
+
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 15, 9d)));
+        mappedTickStore.close();
+        mappedTickStore = open();
+
+        assertEquals(fileKey, fileKey(symbolFile("BTC")));
+        assertEquals(List.of(1d, 9d, 2d, 3d, 4d), scan("BTC", 2).stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(9d, mappedTickStore.findPriceLimitsBySymbolInInterval("BTC", TIMESTAMP.plusSeconds(15), TIMESTAMP.plusSeconds(30)).getMaxPrice());
+        assertEquals(9d, mappedTickStore.findCryptoValuesBySymbol("BTC").getMaxPrice());
+
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 25, 0.5d), getPrice("BTC", 50, 5d)));
+
+        assertFalse(fileKey.equals(fileKey(symbolFile("BTC"))));
+        assertEquals(16, Files.size(overflowFile("BTC")));
+        assertEquals(List.of(1d, 9d, 2d, 0.5d, 3d, 4d, 5d), scan("BTC", 10).stream().map(CryptoEntity::getPrice).toList());
+        assertEquals(0.5d, mappedTickStore.findCryptoValuesBySymbol("BTC").getMinPrice());
+    }
+
+    @Test
+    void open_DropTheOverflowPricesAlreadyCompacted() throws IOException {
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 10, 1d), getPrice("BTC", 20, 2d)));
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 15, 9d)));
+        mappedTickStore.saveAll(List.of(getPrice("BTC", 20, 3d)));
+        mappedTickStore.close();
+        try (var file = FileChannel.open(overflowFile("BTC"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.allocate(16).putLong(TIMESTAMP.plusSeconds(15).toEpochMilli()).putDouble(9d).flip(), 16);
+            file.write(ByteBuffer.allocate(Long.BYTES).putLong(1).flip(), 8);
+        }
+
+        mappedTickStore = open();
+
+        assertEquals(List.of(1d, 9d, 3d), scan("BTC", 10).stream().map(CryptoEntity::getPrice).toList());
+    }
+}
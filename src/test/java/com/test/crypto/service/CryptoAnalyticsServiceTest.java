@@ -0,0 +1,156 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.domain.entity.CryptoAnalytics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.repository.CryptoTickStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoAnalyticsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final LocalDate END = LocalDate.of(2022, 1, 31);
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Mock
+    private CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+
+    private CryptoAnalyticsService cryptoAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        cryptoAnalyticsService = new CryptoAnalyticsService(cryptoTickStore, cryptoSymbolRegistry, cryptoProperties, Runnable::run);
+    }
+
+    @SafeVarargs
+    private void givenPages(String symbol, List<CryptoEntity>... pages) {
+        doAnswer(invocation -> {
+            Consumer<List<CryptoEntity>> pageConsumer = invocation.getArgument(4);
+            for (var page : pages) {
+                pageConsumer.accept(page);
+            }
+            return null;
+        }).when(cryptoTickStore).scanInterval(eq(symbol), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void getCryptoAnalytics_FoldTheScannedPagesOfEverySymbol() {
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("BTC", "DOGE", "ETH"));
+        givenPages("BTC",
+                List.of(getCryptoEntity("BTC", Instant.parse("2022-01-01T04:00:00Z"), 100d), getCryptoEntity("BTC", Instant.parse("2022-01-02T04:00:00Z"), 120d)),
+                List.of(getCryptoEntity("BTC", Instant.parse("2022-01-03T04:00:00Z"), 90d)));
+        givenPages("DOGE");
+        givenPages("ETH", List.of(getCryptoEntity("ETH", Instant.parse("2022-01-05T04:00:00Z"), 10d)));
+
+        var cryptoAnalytics = cryptoAnalyticsService.getCryptoAnalytics(START, END);
+
+        assertEquals(List.of("BTC", "ETH"), cryptoAnalytics.stream().map(CryptoAnalytics::getSymbol).toList());
+        var btcAnalytics = cryptoAnalytics.get(0);
+        assertEquals(3, btcAnalytics.getCount());
+        assertEquals(100d, btcAnalytics.getFirstPrice());
+        assertEquals(90d, btcAnalytics.getLastPrice());
+        assertEquals(0.25, btcAnalytics.getMaxDrawdown(), 1e-9);
+        assertEquals(1, cryptoAnalytics.get(1).getCount());
+    }
+
+    @Test
+    void getCryptoAnalyticsBySymbol_ScanTheWholeEndDay() {
+        givenPages("BTC", List.of(getCryptoEntity("BTC", Instant.parse("2022-01-31T23:00:00Z"), 100d)));
+
+        cryptoAnalyticsService.getCryptoAnalyticsBySymbol("BTC", START, END);
+
+        verify(cryptoTickStore).scanInterval(eq("BTC"), eq(Instant.parse("2022-01-01T00:00:00Z")), eq(Instant.parse("2022-01-31T23:59:59.999Z")),
+                eq(cryptoProperties.getAnalytics().getPageSize()), any());
+    }
+
+    @Test
+    void getCryptoAnalyticsBySymbol_ThrowsNotFoundException_WhenTheSymbolHasNoPriceInThePeriod() {
+        givenPages("BTC");
+
+        assertThrows(NotFoundException.class, () -> cryptoAnalyticsService.getCryptoAnalyticsBySymbol("BTC", START, END));
+    }
+
+    @Test
+    void getCryptoAnalytics_ThrowsInternalException_WhenAScanTakesTooLong() {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            cryptoProperties.getAnalytics().setTimeout(Duration.ofMillis(10));
+            cryptoAnalyticsService = new CryptoAnalyticsService(cryptoTickStore, cryptoSymbolRegistry, cryptoProperties, executor);
+            when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("BTC"));
+            doAnswer(invocation -> {
+                Thread.sleep(1_000);
+                return null;
+            }).when(cryptoTickStore).scanInterval(eq("BTC"), any(), any(), anyInt(), any());
+
+            assertThrows(InternalException.class, () -> cryptoAnalyticsService.getCryptoAnalytics(START, END));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getCryptoAnalyticsBySymbol_StopTheScanAtTheNextPage_WhenItTimesOut() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            cryptoProperties.getAnalytics().setTimeout(Duration.ofMillis(50));
+            cryptoAnalyticsService = new CryptoAnalyticsService(cryptoTickStore, cryptoSymbolRegistry, cryptoProperties, executor);
+            var stopped = new CountDownLatch(1);
+            var pages = new AtomicInteger();
+            doAnswer(invocation -> {
+                Consumer<List<CryptoEntity>> pageConsumer = invocation.getArgument(4);
+                try {
+                    for (int page = 0; page < 1_000; page++) {
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        pageConsumer.accept(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-10T00:00:00Z"), 1d)));
+                        pages.incrementAndGet();
+                    }
+                } finally {
+                    stopped.countDown();
+                }
+                return null;
+            }).when(cryptoTickStore).scanInterval(eq("BTC"), any(), any(), anyInt(), any());
+
+            assertThrows(InternalException.class, () -> cryptoAnalyticsService.getCryptoAnalyticsBySymbol("BTC", START, END));
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+            assertTrue(pages.get() < 1_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoDailyValues;
+import com.test.crypto.repository.CryptoDailyValuesStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoDailyValues;
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoDailyValuesServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2022, 1, 1);
+
+    @InjectMocks
+    private CryptoDailyValuesService cryptoDailyValuesService;
+
+    @Mock
+    private CryptoDailyValuesStore cryptoDailyValuesStore;
+
+    @Captor
+    private ArgumentCaptor<List<CryptoDailyValues>> dailyValuesArgumentCaptor;
+
+    @Test
+    void updateDailyValues_SaveOneRollupPerSymbolAndDay() {
+        var cryptoList = List.of(
+                getCryptoEntity("BTC", Instant.parse("2022-01-01T10:00:00Z"), 46813.21),
+                getCryptoEntity("BTC", Instant.parse("2022-01-01T08:00:00Z"), 46979.61),
+                getCryptoEntity("BTC", Instant.parse("2022-01-01T23:00:00Z"), 45922.01),
+                getCryptoEntity("BTC", Instant.parse("2022-01-02T01:00:00Z"), 47143.98));
+
+        when(cryptoDailyValuesStore.findBySymbolInInterval("BTC", DAY, DAY.plusDays(1))).thenReturn(List.of());
+
+        cryptoDailyValuesService.updateDailyValues(cryptoList);
+
+        verify(cryptoDailyValuesStore).saveAll(dailyValuesArgumentCaptor.capture());
+
+        var dailyValues = dailyValuesArgumentCaptor.getValue().stream().sorted(Comparator.comparing(CryptoDailyValues::getDay)).toList();
+        assertEquals(2, dailyValues.size());
+
+        var firstDay = dailyValues.get(0);
+        assertEquals(DAY, firstDay.getDay());
+        assertEquals(45922.01, firstDay.getMinPrice());
+        assertEquals(46979.61, firstDay.getMaxPrice());
+        assertEquals(Instant.parse("2022-01-01T08:00:00Z"), firstDay.getFirstTimestamp());
+        assertEquals(46979.61, firstDay.getFirstPrice());
+        assertEquals(Instant.parse("2022-01-01T23:00:00Z"), firstDay.getLastTimestamp());
+        assertEquals(45922.01, firstDay.getLastPrice());
+        assertEquals(3L, firstDay.getCount());
+
+        var secondDay = dailyValues.get(1);
+        assertEquals(DAY.plusDays(1), secondDay.getDay());
+        assertEquals(47143.98, secondDay.getMinPrice());
+        assertEquals(47143.98, secondDay.getMaxPrice());
+        assertEquals(1L, secondDay.getCount());
+    }
+
+    @Test
+    void rebuildDailyValues_ReplaceTheRollupsWithTheOnesOfTheWholeHistory() {
+        var history = List.of(
+                List.of(getCryptoEntity("BTC", Instant.parse("2022-01-01T10:00:00Z"), 2d), getCryptoEntity("BTC", Instant.parse("2022-01-01T20:00:00Z"), 5d)),
+                List.of(getCryptoEntity("BTC", Instant.parse("2022-01-01T22:00:00Z"), 1d), getCryptoEntity("BTC", Instant.parse("2022-01-02T01:00:00Z"), 7d)));
+
+        var dailyValues = cryptoDailyValuesService.rebuildDailyValues("BTC", pageConsumer -> history.forEach(pageConsumer));
+
+        verify(cryptoDailyValuesStore).saveAll(dailyValues);
+        assertEquals(List.of(DAY, DAY.plusDays(1)), dailyValues.stream().map(CryptoDailyValues::getDay).toList());
+        assertEquals(1d, dailyValues.get(0).getMinPrice());
+        assertEquals(5d, dailyValues.get(0).getMaxPrice());
+        assertEquals(2d, dailyValues.get(0).getFirstPrice());
+        assertEquals(1d, dailyValues.get(0).getLastPrice());
+        assertEquals(3L, dailyValues.get(0).getCount());
+        assertEquals(1L, dailyValues.get(1).getCount());
+    }
+
+    @Test
+    void updateDailyValues_MergeWithTheStoredRollup() {
+        var stored = getCryptoDailyValues("BTC", DAY, 100d, 200d);
+        var cryptoList = List.of(
+                getCryptoEntity("BTC", DAY.atStartOfDay().toInstant(ZoneOffset.UTC), 50d),
+                getCryptoEntity("BTC", stored.getFirstTimestamp().plusSeconds(1), 150d));
+
+        when(cryptoDailyValuesStore.findBySymbolInInterval("BTC", DAY, DAY)).thenReturn(List.of(stored));
+
+        cryptoDailyValuesService.updateDailyValues(cryptoList);
+
+        verify(cryptoDailyValuesStore).saveAll(dailyValuesArgumentCaptor.capture());
+
+        var dailyValues = dailyValuesArgumentCaptor.getValue();
+        assertEquals(1, dailyValues.size());
+
+        var merged = dailyValues.get(0);
+        assertEquals(50d, merged.getMinPrice());
+        assertEquals(200d, merged.getMaxPrice());
+        assertEquals(DAY.atStartOfDay().toInstant(ZoneOffset.UTC), merged.getFirstTimestamp());
+        assertEquals(50d, merged.getFirstPrice());
+        assertEquals(stored.getLastTimestamp(), merged.getLastTimestamp());
+        assertEquals(200d, merged.getLastPrice());
+        assertEquals(4L, merged.getCount());
+    }
+
+    @Test
+    void getCryptoValuesInInterval_MergeTheDailyRollups() {
+        var firstDay = getCryptoDailyValues("BTC", DAY, 100d, 200d);
+        var secondDay = getCryptoDailyValues("BTC", DAY.plusDays(1), 80d, 150d);
+
+        when(cryptoDailyValuesStore.findBySymbolInInterval(eq("BTC"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(firstDay, secondDay));
+
+        var cryptoValues = cryptoDailyValuesService.getCryptoValuesInInterval("BTC", DAY, DAY.plusDays(1));
+
+        assertEquals("BTC", cryptoValues.getSymbol());
+        assertEquals(80d, cryptoValues.getMinPrice());
+        assertEquals(200d, cryptoValues.getMaxPrice());
+        assertEquals(firstDay.getFirstTimestamp(), cryptoValues.getOldest());
+        assertEquals(secondDay.getLastTimestamp(), cryptoValues.getNewest());
+    }
+
+    @Test
+    void getCryptoValuesInInterval_ReturnEmptyValues_WhenThereIsNoRollup() {
+        when(cryptoDailyValuesStore.findBySymbolInInterval(eq("BTC"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+
+        var cryptoValues = cryptoDailyValuesService.getCryptoValuesInInterval("BTC", DAY, DAY);
+
+        assertNull(cryptoValues.getMinPrice());
+        assertNull(cryptoValues.getMaxPrice());
+    }
+}
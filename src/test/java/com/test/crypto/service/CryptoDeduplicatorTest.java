@@ -0,0 +1,131 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoTickStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoDeduplicatorTest {
+
+    private static final Instant OLDEST = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Instant NEWEST = Instant.parse("2022-01-31T00:00:00Z");
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Mock
+    private CryptoSummaryService cryptoSummaryService;
+
+    @Mock
+    private CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CryptoDeduplicator cryptoDeduplicator;
+
+    @BeforeEach
+    void setUp() {
+        cryptoDeduplicator = new CryptoDeduplicator(cryptoTickStore, cryptoSummaryService, cryptoSymbolRegistry, new CryptoMetrics(meterRegistry));
+    }
+
+    private double duplicates() {
+        return meterRegistry.get(CryptoMetrics.INGEST_ROWS).tag("outcome", "duplicate").counter().count();
+    }
+
+    @Test
+    void filterNew_DropTheDuplicatesOfTheList_WhenTheSymbolIsNew() {
+        var first = getCryptoEntity("BTC", OLDEST, 1d);
+        var repeated = getCryptoEntity("BTC", OLDEST, 2d);
+        var other = getCryptoEntity("BTC", NEWEST, 3d);
+        when(cryptoSymbolRegistry.contains("BTC")).thenReturn(false);
+
+        var newCryptoList = cryptoDeduplicator.filterNew(List.of(first, repeated, other));
+
+        assertEquals(List.of(first, other), newCryptoList);
+        assertEquals(1d, duplicates());
+        verify(cryptoTickStore, never()).findTimestampsBySymbolInInterval(anyString(), any(), any());
+    }
+
+    @Test
+    void filterNew_KeepTheCryptosOutsideTheStoredInterval_WithoutReadingTheDatabase() {
+        var before = getCryptoEntity("BTC", OLDEST.minusSeconds(60), 1d);
+        var after = getCryptoEntity("BTC", NEWEST.plusSeconds(60), 2d);
+        when(cryptoSymbolRegistry.contains("BTC")).thenReturn(true);
+        when(cryptoSummaryService.getVerifiedCryptoValues("BTC")).thenReturn(Optional.of(CryptoValues.builder()
+                .symbol("BTC").oldest(OLDEST).newest(NEWEST).minPrice(1d).maxPrice(2d).build()));
+
+        var newCryptoList = cryptoDeduplicator.filterNew(List.of(before, after));
+
+        assertEquals(List.of(before, after), newCryptoList);
+        verify(cryptoTickStore, never()).findTimestampsBySymbolInInterval(anyString(), any(), any());
+    }
+
+    @Test
+    void filterNew_DropTheStoredCryptos_WhenTheyOverlapTheStoredInterval() {
+        var stored = getCryptoEntity("BTC", OLDEST.plusSeconds(60), 1d);
+        var missing = getCryptoEntity("BTC", OLDEST.plusSeconds(120), 2d);
+        var after = getCryptoEntity("BTC", NEWEST.plusSeconds(60), 3d);
+        when(cryptoSymbolRegistry.contains("BTC")).thenReturn(true);
+        when(cryptoSummaryService.getVerifiedCryptoValues("BTC")).thenReturn(Optional.of(CryptoValues.builder()
+                .symbol("BTC").oldest(OLDEST).newest(NEWEST).minPrice(1d).maxPrice(2d).build()));
+        when(cryptoTickStore.findTimestampsBySymbolInInterval("BTC", stored.getTimestamp(), missing.getTimestamp()))
+                .thenReturn(List.of(stored.getTimestamp()));
+
+        var newCryptoList = cryptoDeduplicator.filterNew(List.of(stored, missing, after));
+
+        assertEquals(List.of(missing, after), newCryptoList);
+        assertEquals(1d, duplicates());
+    }
+
+    @Test
+    void filterNew_CheckAllTheCryptos_WhenTheSymbolHasNoSummary() {
+        var stored = getCryptoEntity("ETH", OLDEST, 1d);
+        var missing = getCryptoEntity("ETH", NEWEST, 2d);
+        when(cryptoSymbolRegistry.contains("ETH")).thenReturn(true);
+        when(cryptoSummaryService.getVerifiedCryptoValues("ETH")).thenReturn(Optional.empty());
+        when(cryptoTickStore.findTimestampsBySymbolInInterval("ETH", OLDEST, OLDEST)).thenReturn(List.of(OLDEST));
+        when(cryptoTickStore.findTimestampsBySymbolInInterval("ETH", NEWEST, NEWEST)).thenReturn(List.of());
+
+        var newCryptoList = cryptoDeduplicator.filterNew(List.of(stored, missing));
+
+        assertEquals(List.of(missing), newCryptoList);
+    }
+
+    @Test
+    void filterNew_ReadTheStoredTimestampsOneDayAtATime_WhenTheCryptosSpanSeveralDays() {
+        var firstDayStored = getCryptoEntity("BTC", OLDEST.plusSeconds(60), 1d);
+        var firstDayMissing = getCryptoEntity("BTC", OLDEST.plusSeconds(3600), 2d);
+        var lastDayStored = getCryptoEntity("BTC", NEWEST.minusSeconds(3600), 3d);
+        when(cryptoSymbolRegistry.contains("BTC")).thenReturn(true);
+        when(cryptoSummaryService.getVerifiedCryptoValues("BTC")).thenReturn(Optional.of(CryptoValues.builder()
+                .symbol("BTC").oldest(OLDEST).newest(NEWEST).minPrice(1d).maxPrice(2d).build()));
+        when(cryptoTickStore.findTimestampsBySymbolInInterval("BTC", firstDayStored.getTimestamp(), firstDayMissing.getTimestamp()))
+                .thenReturn(List.of(firstDayStored.getTimestamp(), OLDEST.plusSeconds(120)));
+        when(cryptoTickStore.findTimestampsBySymbolInInterval("BTC", lastDayStored.getTimestamp(), lastDayStored.getTimestamp()))
+                .thenReturn(List.of(lastDayStored.getTimestamp()));
+
+        var newCryptoList = cryptoDeduplicator.filterNew(List.of(firstDayStored, lastDayStored, firstDayMissing));
+
+        assertEquals(List.of(firstDayMissing), newCryptoList);
+        assertEquals(2d, duplicates());
+    }
+}
@@ -1,10 +1,16 @@
 package com.test.crypto.service;
 
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
 import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.PartialSaveException;
+import com.test.crypto.domain.entity.CryptoEntity;
 import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
 import com.test.crypto.domain.enums.SortingOrder;
-import com.test.crypto.repository.CryptoRepository;
-import com.test.crypto.repository.CryptoValuesRepository;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.service.cache.CryptoResultCache;
 import com.test.crypto.utils.CryptoNormalizer;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
@@ -13,17 +19,32 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.time.LocalDate;
-
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static com.test.crypto.helper.TestHelper.getCryptoDailyValues;
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
 import static com.test.crypto.helper.TestHelper.getCryptoEntityList;
+import static com.test.crypto.helper.TestHelper.getCryptoSymbols;
 import static com.test.crypto.helper.TestHelper.getCryptoValues;
 import static com.test.crypto.helper.TestHelper.getCryptoValuesDynamically;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,27 +56,133 @@ class CryptoServiceTest {
     private CryptoService cryptoService;
 
     @Mock
-    private CryptoRepository cryptoRepository;
+    private CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Mock
+    private CryptoDailyValuesService cryptoDailyValuesService;
 
     @Mock
-    private CryptoValuesRepository cryptoValuesRepository;
+    private CryptoSummaryService cryptoSummaryService;
+
+    @Mock
+    private CryptoDeduplicator cryptoDeduplicator;
 
     @Spy
     private CryptoNormalizer cryptoNormalizer = new CryptoNormalizer();
 
+    @Spy
+    private CryptoProperties cryptoProperties = new CryptoProperties();
+
+    @Spy
+    private Executor cryptoQueryExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private CryptoResultCache cryptoResultCache = new CryptoResultCache(new CryptoProperties());
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
 
     @Test
-    void getCryptoListOrderedByNormalization_ReturnListOfAscOrderedCryptos() {
+    void saveAll_SaveTheCryptosAndUpdateTheDailyValues() {
+        var cryptoEntityList = getCryptoEntityList();
+        when(cryptoDeduplicator.filterNew(cryptoEntityList)).thenReturn(cryptoEntityList);
+
+        var saved = cryptoService.saveAll(cryptoEntityList);
+
+        assertEquals(cryptoEntityList.size(), saved);
+        verify(cryptoTickStore).saveAll(cryptoEntityList);
+        verify(cryptoDailyValuesService).updateDailyValues(cryptoEntityList);
+        verify(cryptoSummaryService).updateSummaries(cryptoEntityList);
+        verify(applicationEventPublisher).publishEvent(new CryptoIngestedEvent(cryptoEntityList));
+    }
+
+    @Test
+    void saveAll_SaveOnlyTheNewCryptos() {
+        var cryptoEntityList = getCryptoEntityList();
+        var newCryptoList = cryptoEntityList.subList(0, 1);
+        when(cryptoDeduplicator.filterNew(cryptoEntityList)).thenReturn(newCryptoList);
+
+        var saved = cryptoService.saveAll(cryptoEntityList);
+
+        assertEquals(1, saved);
+        verify(cryptoTickStore).saveAll(newCryptoList);
+        verify(cryptoDailyValuesService).updateDailyValues(newCryptoList);
+        verify(cryptoSummaryService).updateSummaries(newCryptoList);
+        verify(applicationEventPublisher).publishEvent(new CryptoIngestedEvent(newCryptoList));
+    }
+
+    @Test
+    void saveAll_UpdateTheDailyValuesOfTheSavedCryptos_WhenTheSaveIsPartial() {
+        var cryptoEntityList = getCryptoEntityList();
+        var savedCryptoList = cryptoEntityList.subList(0, 1);
+        when(cryptoDeduplicator.filterNew(cryptoEntityList)).thenReturn(cryptoEntityList);
+        doThrow(new PartialSaveException("Crypto values could not be saved.", savedCryptoList)).when(cryptoTickStore).saveAll(cryptoEntityList);
+
+        Assert.assertThrows(PartialSaveException.class, () -> cryptoService.saveAll(cryptoEntityList));
+
+        verify(cryptoDailyValuesService).updateDailyValues(savedCryptoList);
+        verify(cryptoSummaryService).updateSummaries(savedCryptoList);
+        verify(applicationEventPublisher).publishEvent(new CryptoIngestedEvent(savedCryptoList));
+    }
+
+    @Test
+    void saveAll_RebuildTheDailyValuesAndSummary_WhenAStoredSymbolHasNoSummary() {
+        var btc = getCryptoEntity("BTC", 2d);
+        var eth = getCryptoEntity("ETH", 3d);
+        var storedBtc = getCryptoEntity("BTC", 1d);
+        var dailyValues = List.of(getCryptoDailyValues("BTC", LocalDate.now(), 1d, 2d));
+        when(cryptoDeduplicator.filterNew(List.of(btc, eth))).thenReturn(List.of(btc, eth));
+        when(cryptoSymbolRegistry.contains("BTC")).thenReturn(true);
+        when(cryptoSymbolRegistry.contains("ETH")).thenReturn(true);
+        when(cryptoSummaryService.hasSummary("BTC")).thenReturn(false);
+        when(cryptoSummaryService.hasSummary("ETH")).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<CryptoEntity>>>getArgument(2).accept(List.of(storedBtc, btc));
+            return null;
+        }).when(cryptoTickStore).scan(eq("BTC"), anyInt(), any());
+        when(cryptoDailyValuesService.rebuildDailyValues(eq("BTC"), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Consumer<List<CryptoEntity>>>>getArgument(1).accept(page -> assertEquals(List.of(storedBtc, btc), page));
+            return dailyValues;
+        });
+
+        cryptoService.saveAll(List.of(btc, eth));
+
+        verify(cryptoDailyValuesService).updateDailyValues(List.of(eth));
+        verify(cryptoSummaryService).updateSummaries(List.of(eth));
+        verify(cryptoSummaryService).replaceSummary("BTC", dailyValues);
+        verify(applicationEventPublisher).publishEvent(new CryptoIngestedEvent(List.of(btc, eth)));
+    }
+
+    @Test
+    void saveAll_SkipTheWrites_WhenAllTheCryptosAreAlreadyStored() {
         var cryptoEntityList = getCryptoEntityList();
+        when(cryptoDeduplicator.filterNew(cryptoEntityList)).thenReturn(List.of());
+
+        var saved = cryptoService.saveAll(cryptoEntityList);
+
+        assertEquals(0, saved);
+        verify(cryptoTickStore, never()).saveAll(any());
+        verify(cryptoDailyValuesService, never()).updateDailyValues(any());
+        verify(cryptoSummaryService, never()).updateSummaries(any());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void getCryptoListOrderedByNormalization_ReturnListOfAscOrderedCryptos() {
+        var cryptoSymbols = getCryptoSymbols();
         var cryptoValues1 = getCryptoValuesDynamically("LTE", 10d, 12d);
         var cryptoValues2 = getCryptoValuesDynamically("DOGE", 11d, 19d);
 
-        when(cryptoRepository.findAllSymbols()).thenReturn(cryptoEntityList);
-        when(cryptoValuesRepository.findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class)))
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(cryptoSymbols);
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(cryptoValues1)
                 .thenReturn(cryptoValues2);
 
-        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(LocalDate.now(), LocalDate.now(), SortingOrder.ASC);
+        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(LocalDate.now(), LocalDate.now(), SortingOrder.ASC, 0, Integer.MAX_VALUE);
 
         assertNotNull(cryptoListOrderedByNormalization);
         assertEquals(2, cryptoListOrderedByNormalization.size());
@@ -64,22 +191,22 @@ class CryptoServiceTest {
         assertEquals(cryptoValues1.getSymbol(), cryptoListOrderedByNormalization.get(0));
         assertEquals(cryptoValues2.getSymbol(), cryptoListOrderedByNormalization.get(1));
 
-        verify(cryptoRepository).findAllSymbols();
-        verify(cryptoValuesRepository, times(2)).findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class));
+        verify(cryptoSymbolRegistry).getSymbols();
+        verify(cryptoDailyValuesService, times(2)).getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class));
     }
 
     @Test
     void getCryptoListOrderedByNormalization_ReturnListOfDescOrderedCryptos() {
-        var cryptoEntityList = getCryptoEntityList();
+        var cryptoSymbols = getCryptoSymbols();
         var cryptoValues1 = getCryptoValuesDynamically("LTE", 10d, 12d);
         var cryptoValues2 = getCryptoValuesDynamically("DOGE", 11d, 19d);
 
-        when(cryptoRepository.findAllSymbols()).thenReturn(cryptoEntityList);
-        when(cryptoValuesRepository.findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class)))
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(cryptoSymbols);
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(cryptoValues1)
                 .thenReturn(cryptoValues2);
 
-        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(LocalDate.now(), LocalDate.now(), SortingOrder.DESC);
+        var cryptoListOrderedByNormalization = cryptoService.getCryptoListOrderedByNormalization(LocalDate.now(), LocalDate.now(), SortingOrder.DESC, 0, Integer.MAX_VALUE);
 
         assertNotNull(cryptoListOrderedByNormalization);
         assertEquals(2, cryptoListOrderedByNormalization.size());
@@ -88,18 +215,50 @@ class CryptoServiceTest {
         assertEquals(cryptoValues2.getSymbol(), cryptoListOrderedByNormalization.get(0));
         assertEquals(cryptoValues1.getSymbol(), cryptoListOrderedByNormalization.get(1));
 
-        verify(cryptoRepository).findAllSymbols();
-        verify(cryptoValuesRepository, times(2)).findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class));
+        verify(cryptoSymbolRegistry).getSymbols();
+        verify(cryptoDailyValuesService, times(2)).getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void getNormalizedCryptoList_ReturnTheRequestedPageWithTheNormalizedValues() {
+        var cryptoValues1 = getCryptoValuesDynamically("LTE", 10d, 12d);
+        var cryptoValues2 = getCryptoValuesDynamically("DOGE", 11d, 19d);
+        var cryptoValues3 = getCryptoValuesDynamically("BTC", 10d, 30d);
+
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("LTE", "DOGE", "BTC"));
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(cryptoValues1)
+                .thenReturn(cryptoValues2)
+                .thenReturn(cryptoValues3);
+
+        var normalizedCryptoList = cryptoService.getNormalizedCryptoList(LocalDate.now(), LocalDate.now(), SortingOrder.DESC, 1, 1);
+
+        assertEquals(List.of(NormalizedCrypto.builder().symbol("DOGE").normalizedValue(8d / 11d).build()), normalizedCryptoList);
+    }
+
+    @Test
+    void getNormalizedCryptoList_ComputeTheNormalizedValuesOnce_ForAllTheOrdersAndPages() {
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(getCryptoSymbols());
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(getCryptoValuesDynamically("LTE", 10d, 12d))
+                .thenReturn(getCryptoValuesDynamically("DOGE", 11d, 19d));
+        var date = LocalDate.now();
+
+        assertEquals(List.of("DOGE"), cryptoService.getCryptoListOrderedByNormalization(date, date, SortingOrder.DESC, 0, 1));
+        assertEquals(List.of("LTE"), cryptoService.getCryptoListOrderedByNormalization(date, date, SortingOrder.ASC, 0, 1));
+        assertEquals("DOGE", cryptoService.getHighestNormalizedCryptoByDate(date));
+
+        verify(cryptoDailyValuesService, times(2)).getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class));
     }
 
     @Test
     void getHighestNormalizedCryptoByDate_ReturnTheCryptoSymbol() {
-        var cryptoEntityList = getCryptoEntityList();
+        var cryptoSymbols = getCryptoSymbols();
         var cryptoValues1 = getCryptoValuesDynamically("LTE", 10d, 12d);
         var cryptoValues2 = getCryptoValuesDynamically("DOGE", 11d, 19d);
 
-        when(cryptoRepository.findAllSymbols()).thenReturn(cryptoEntityList);
-        when(cryptoValuesRepository.findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class)))
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(cryptoSymbols);
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(cryptoValues1)
                 .thenReturn(cryptoValues2);
 
@@ -108,47 +267,83 @@ class CryptoServiceTest {
         assertNotNull(highestNormalizedCryptoByDate);
         assertEquals("DOGE", highestNormalizedCryptoByDate);
 
-        verify(cryptoRepository).findAllSymbols();
-        verify(cryptoValuesRepository, times(2)).findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class));
+        verify(cryptoSymbolRegistry).getSymbols();
+        verify(cryptoDailyValuesService, times(2)).getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class));
     }
 
     @Test
     void getHighestNormalizedCryptoByDate_ThrowsRuntimeException_WhenCryptoNotFoundForTheDate() {
-        var cryptoEntityList = getCryptoEntityList();
+        var cryptoSymbols = getCryptoSymbols();
         var cryptoValues1 = getCryptoValuesDynamically(null, null, null);
         var date = LocalDate.now();
 
-        when(cryptoRepository.findAllSymbols()).thenReturn(cryptoEntityList);
-        when(cryptoValuesRepository.findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class)))
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(cryptoSymbols);
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(cryptoValues1);
 
         var message = Assert.assertThrows(NotFoundException.class, () -> cryptoService.getHighestNormalizedCryptoByDate(date)).getMessage();
         assertEquals(String.format("Could not found any crypto for this date %s", date), message);
 
-        verify(cryptoRepository).findAllSymbols();
-        verify(cryptoValuesRepository, times(2)).findPriceLimitsBySymbolInInterval(anyString(), any(Instant.class), any(Instant.class));
+        verify(cryptoSymbolRegistry).getSymbols();
+        verify(cryptoDailyValuesService, times(2)).getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void getCryptoListOrderedByNormalization_ThrowsInternalException_WhenSymbolQueryTimesOut() {
+        var executor = Executors.newFixedThreadPool(2);
+        var properties = new CryptoProperties();
+        properties.getQuery().setTimeout(Duration.ofMillis(50));
+        var service = new CryptoService(cryptoTickStore, cryptoDailyValuesService, cryptoSummaryService, cryptoDailyValuesService, cryptoSymbolRegistry, cryptoDeduplicator, cryptoNormalizer, properties,
+                new CryptoResultCache(properties), applicationEventPublisher, executor);
+
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(getCryptoSymbols());
+        when(cryptoDailyValuesService.getCryptoValuesInInterval(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(1000);
+                    return getCryptoValues();
+                });
+
+        try {
+            var date = LocalDate.now();
+            var message = Assert.assertThrows(InternalException.class, () -> service.getCryptoListOrderedByNormalization(date, date, SortingOrder.ASC, 0, Integer.MAX_VALUE)).getMessage();
+            assertEquals("Crypto values could not be retrieved in time.", message);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getCryptoValuesBySymbol_ReturnTheCryptoValuesOfTheSummary() {
+        var cryptoValues = getCryptoValues();
+        when(cryptoSummaryService.getCryptoValues("DOGE")).thenReturn(Optional.of(cryptoValues));
+
+        CryptoValues cryptoValuesBySymbol = cryptoService.getCryptoValuesBySymbol("DOGE");
+        assertEquals(cryptoValues, cryptoValuesBySymbol);
+
+        verify(cryptoTickStore, never()).findCryptoValuesBySymbol(anyString());
     }
 
     @Test
-    void getCryptoValuesBySymbol_ReturnTheCryptoValues() {
+    void getCryptoValuesBySymbol_AggregateTheCryptoValues_WhenTheSymbolHasNoSummary() {
         var cryptoValues = getCryptoValues();
-        when(cryptoValuesRepository.findCryptoValuesBySymbol(anyString())).thenReturn(cryptoValues);
+        when(cryptoTickStore.findCryptoValuesBySymbol(anyString())).thenReturn(cryptoValues);
 
         CryptoValues cryptoValuesBySymbol = cryptoService.getCryptoValuesBySymbol("DOGE");
         assertEquals(cryptoValues, cryptoValuesBySymbol);
 
-        verify(cryptoValuesRepository).findCryptoValuesBySymbol(anyString());
+        verify(cryptoTickStore).findCryptoValuesBySymbol(anyString());
+        verify(cryptoSummaryService, never()).replaceSummary(anyString(), any());
     }
 
     @Test
     void getCryptoValuesBySymbol_ThrowsRuntimeException_WhenCryptoSymbolNotFound() {
         var cryptoValues = CryptoValues.builder().build();
         var symbol = "DOGE";
-        when(cryptoValuesRepository.findCryptoValuesBySymbol(anyString())).thenReturn(cryptoValues);
+        when(cryptoTickStore.findCryptoValuesBySymbol(anyString())).thenReturn(cryptoValues);
 
         var message = Assert.assertThrows(NotFoundException.class, () -> cryptoService.getCryptoValuesBySymbol(symbol)).getMessage();
         assertEquals(String.format("Crypto currency with value %s could not be found.", symbol), message);
 
-        verify(cryptoValuesRepository).findCryptoValuesBySymbol(anyString());
+        verify(cryptoTickStore).findCryptoValuesBySymbol(anyString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.entity.CryptoBucketedEntity;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.repository.CryptoBatchWriter;
+import com.test.crypto.repository.CryptoBucketedRepository;
+import com.test.crypto.repository.CryptoDailyValuesRepository;
+import com.test.crypto.repository.CryptoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.cassandra.core.query.CassandraPageRequest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.test.crypto.helper.TestHelper.getCryptoDailyValues;
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoStorageMigrationTest {
+
+    @InjectMocks
+    private CryptoStorageMigration cryptoStorageMigration;
+
+    @Mock
+    private CryptoRepository cryptoRepository;
+
+    @Mock
+    private CryptoBatchWriter cryptoBatchWriter;
+
+    @Mock
+    private CryptoBucketedRepository cryptoBucketedRepository;
+
+    @Mock
+    private CryptoDailyValuesRepository cryptoDailyValuesRepository;
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Spy
+    private CryptoProperties cryptoProperties = new CryptoProperties();
+
+    private static CryptoBucketedEntity getBucketed(CryptoEntity cryptoEntity) {
+        return CryptoBucketedEntity.builder()
+                .symbol(cryptoEntity.getSymbol())
+                .month(CryptoBucketedEntity.monthOf(cryptoEntity.getTimestamp()))
+                .timestamp(cryptoEntity.getTimestamp())
+                .price(cryptoEntity.getPrice())
+                .build();
+    }
+
+    @Test
+    void migrate_CopyEveryPageOfTheSymbolPartition_AndRebuildItsRollupsWithTheEntriesIngestedInTheMonthLayout() {
+        var firstPage = List.of(getCryptoEntity("BTC", Instant.parse("2022-01-10T10:00:00Z"), 1d),
+                getCryptoEntity("BTC", Instant.parse("2022-01-11T10:00:00Z"), 2d));
+        var lastPage = List.of(getCryptoEntity("BTC", Instant.parse("2022-01-12T10:00:00Z"), 3d));
+        var ingested = getCryptoEntity("BTC", Instant.parse("2022-03-05T10:00:00Z"), 4d);
+        var pageRequest = CassandraPageRequest.of(PageRequest.of(0, 2), ByteBuffer.wrap(new byte[]{1}));
+        when(cryptoRepository.findBySymbol(eq("BTC"), any()))
+                .thenReturn(new SliceImpl<>(firstPage, pageRequest, true))
+                .thenReturn(new SliceImpl<>(lastPage, pageRequest.next(), false));
+        when(cryptoDailyValuesRepository.findFirstDayBySymbol("BTC"))
+                .thenReturn(Optional.of(getCryptoDailyValues("BTC", LocalDate.of(2022, 1, 12), 3d, 3d)));
+        when(cryptoDailyValuesRepository.findLastDayBySymbol("BTC"))
+                .thenReturn(Optional.of(getCryptoDailyValues("BTC", LocalDate.of(2022, 3, 5), 4d, 4d)));
+        when(cryptoBucketedRepository.findBySymbolAndMonth(eq("BTC"), eq(202201), any()))
+                .thenReturn(new SliceImpl<>(List.of(getBucketed(firstPage.get(0)), getBucketed(firstPage.get(1)), getBucketed(lastPage.get(0)))));
+        when(cryptoBucketedRepository.findBySymbolAndMonth(eq("BTC"), eq(202202), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(cryptoBucketedRepository.findBySymbolAndMonth(eq("BTC"), eq(202203), any()))
+                .thenReturn(new SliceImpl<>(List.of(getBucketed(ingested))));
+        var history = new ArrayList<CryptoEntity>();
+        doAnswer(invocation -> {
+            invocation.<Consumer<Consumer<List<CryptoEntity>>>>getArgument(1).accept(history::addAll);
+            return null;
+        }).when(cryptoService).backfill(eq("BTC"), any());
+
+        assertEquals(3, cryptoStorageMigration.migrate("BTC"));
+
+        verify(cryptoBatchWriter).writeBucketed(firstPage);
+        verify(cryptoBatchWriter).writeBucketed(lastPage);
+        assertEquals(List.of(firstPage.get(0), firstPage.get(1), lastPage.get(0), ingested), history);
+    }
+}
@@ -0,0 +1,120 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoSummary;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.repository.CryptoSummaryStore;
+import com.test.crypto.repository.CryptoTickStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoDailyValues;
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoSummaryServiceTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2022-01-10T12:00:00Z");
+
+    @InjectMocks
+    private CryptoSummaryService cryptoSummaryService;
+
+    @Mock
+    private CryptoSummaryStore cryptoSummaryStore;
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Test
+    void updateSummaries_MergeTheIngestedEntriesIntoTheLoadedSummary() {
+        when(cryptoSummaryStore.findAll()).thenReturn(List.of(CryptoSummary.builder()
+                .symbol("BTC").minPrice(10d).maxPrice(20d).oldest(TIMESTAMP).newest(TIMESTAMP.plusSeconds(60)).build()));
+        cryptoSummaryService.load();
+
+        cryptoSummaryService.updateSummaries(List.of(
+                getCryptoEntity("BTC", TIMESTAMP.minusSeconds(60), 15d),
+                getCryptoEntity("BTC", TIMESTAMP.plusSeconds(30), 25d)));
+
+        var expected = CryptoSummary.builder()
+                .symbol("BTC").minPrice(10d).maxPrice(25d).oldest(TIMESTAMP.minusSeconds(60)).newest(TIMESTAMP.plusSeconds(60)).build();
+        verify(cryptoSummaryStore).save(expected);
+
+        var cryptoValues = cryptoSummaryService.getCryptoValues("BTC").orElseThrow();
+        assertEquals(10d, cryptoValues.getMinPrice());
+        assertEquals(25d, cryptoValues.getMaxPrice());
+        assertEquals(TIMESTAMP.minusSeconds(60), cryptoValues.getOldest());
+        assertEquals(TIMESTAMP.plusSeconds(60), cryptoValues.getNewest());
+    }
+
+    @Test
+    void updateSummaries_CreateTheSummaryOfANewSymbol() {
+        when(cryptoTickStore.findCryptoValuesBySymbol("ETH")).thenReturn(CryptoValues.builder().build());
+
+        cryptoSummaryService.updateSummaries(List.of(
+                getCryptoEntity("ETH", TIMESTAMP, 3d),
+                getCryptoEntity("ETH", TIMESTAMP.plusSeconds(60), 1d)));
+
+        var expected = CryptoSummary.builder()
+                .symbol("ETH").minPrice(1d).maxPrice(3d).oldest(TIMESTAMP).newest(TIMESTAMP.plusSeconds(60)).build();
+        verify(cryptoSummaryStore).save(expected);
+    }
+
+    @Test
+    void updateSummaries_SeedTheSummaryWithTheStoredValues_WhenTheSymbolHasNoSummary() {
+        when(cryptoTickStore.findCryptoValuesBySymbol("BTC")).thenReturn(CryptoValues.builder()
+                .symbol("BTC").minPrice(1d).maxPrice(50d).oldest(TIMESTAMP.minusSeconds(3600)).newest(TIMESTAMP).build());
+
+        cryptoSummaryService.updateSummaries(List.of(getCryptoEntity("BTC", TIMESTAMP.plusSeconds(60), 60d)));
+
+        var expected = CryptoSummary.builder()
+                .symbol("BTC").minPrice(1d).maxPrice(60d).oldest(TIMESTAMP.minusSeconds(3600)).newest(TIMESTAMP.plusSeconds(60)).build();
+        verify(cryptoSummaryStore).save(expected);
+    }
+
+    @Test
+    void replaceSummary_ReplaceTheSummaryWithTheOneOfTheDailyRollups() {
+        var firstDay = getCryptoDailyValues("BTC", LocalDate.of(2022, 1, 1), 5d, 8d);
+        var secondDay = getCryptoDailyValues("BTC", LocalDate.of(2022, 1, 2), 3d, 6d);
+
+        cryptoSummaryService.replaceSummary("BTC", List.of(firstDay, secondDay));
+
+        var expected = CryptoSummary.builder()
+                .symbol("BTC").minPrice(3d).maxPrice(8d).oldest(firstDay.getFirstTimestamp()).newest(secondDay.getLastTimestamp()).build();
+        verify(cryptoSummaryStore).save(expected);
+        assertTrue(cryptoSummaryService.hasSummary("BTC"));
+    }
+
+    @Test
+    void getVerifiedCryptoValues_WidenTheLoadedSummaryToTheStoredValues_OnlyOnce() {
+        when(cryptoSummaryStore.findAll()).thenReturn(List.of(CryptoSummary.builder()
+                .symbol("BTC").minPrice(10d).maxPrice(20d).oldest(TIMESTAMP).newest(TIMESTAMP.plusSeconds(60)).build()));
+        when(cryptoTickStore.findCryptoValuesBySymbol("BTC")).thenReturn(CryptoValues.builder()
+                .symbol("BTC").minPrice(5d).maxPrice(20d).oldest(TIMESTAMP.minusSeconds(3600)).newest(TIMESTAMP.plusSeconds(60)).build());
+        cryptoSummaryService.load();
+
+        var cryptoValues = cryptoSummaryService.getVerifiedCryptoValues("BTC").orElseThrow();
+        cryptoSummaryService.getVerifiedCryptoValues("BTC");
+
+        assertEquals(5d, cryptoValues.getMinPrice());
+        assertEquals(TIMESTAMP.minusSeconds(3600), cryptoValues.getOldest());
+        verify(cryptoSummaryStore).save(CryptoSummary.builder()
+                .symbol("BTC").minPrice(5d).maxPrice(20d).oldest(TIMESTAMP.minusSeconds(3600)).newest(TIMESTAMP.plusSeconds(60)).build());
+        verify(cryptoTickStore, times(1)).findCryptoValuesBySymbol("BTC");
+    }
+
+    @Test
+    void getCryptoValues_ReturnEmpty_WhenTheSymbolHasNoSummary() {
+        assertTrue(cryptoSummaryService.getCryptoValues("BTC").isEmpty());
+    }
+}
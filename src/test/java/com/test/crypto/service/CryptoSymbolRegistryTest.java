@@ -0,0 +1,49 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CryptoSymbolRegistryTest {
+
+    @InjectMocks
+    private CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Test
+    void refresh_LoadTheSymbolsFromTheDatabase() {
+        when(cryptoTickStore.findAllSymbols()).thenReturn(List.of("LTE", "DOGE"));
+
+        cryptoSymbolRegistry.refresh();
+
+        assertEquals(List.of("DOGE", "LTE"), cryptoSymbolRegistry.getSymbols());
+        verify(cryptoTickStore).findAllSymbols();
+    }
+
+    @Test
+    void onCryptoIngested_AddTheIngestedSymbols() {
+        cryptoSymbolRegistry.onCryptoIngested(new CryptoIngestedEvent(List.of(getCryptoEntity("BTC", 1d), getCryptoEntity("BTC", 2d))));
+
+        assertEquals(List.of("BTC"), cryptoSymbolRegistry.getSymbols());
+    }
+
+    @Test
+    void getSymbols_ReturnEmptyList_WhenNothingWasLoaded() {
+        assertTrue(cryptoSymbolRegistry.getSymbols().isEmpty());
+    }
+}
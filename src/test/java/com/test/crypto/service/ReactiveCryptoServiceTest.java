@@ -0,0 +1,143 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.repository.ReactiveCryptoValuesRepository;
+import com.test.crypto.service.cache.CryptoResultCache;
+import com.test.crypto.utils.CryptoNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.test.crypto.helper.TestHelper.getCryptoValues;
+import static com.test.crypto.helper.TestHelper.getCryptoValuesDynamically;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCryptoServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final LocalDate END = LocalDate.of(2022, 1, 31);
+
+    @Mock
+    private ReactiveCryptoValuesRepository reactiveCryptoValuesRepository;
+
+    @Mock
+    private CryptoSummaryService cryptoSummaryService;
+
+    @Mock
+    private CryptoSymbolRegistry cryptoSymbolRegistry;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+
+    private CryptoResultCache cryptoResultCache;
+
+    private ReactiveCryptoService reactiveCryptoService;
+
+    @BeforeEach
+    void setUp() {
+        cryptoResultCache = new CryptoResultCache(cryptoProperties);
+        reactiveCryptoService = new ReactiveCryptoService(reactiveCryptoValuesRepository, cryptoSummaryService, cryptoSymbolRegistry,
+                new CryptoNormalizer(), cryptoProperties, cryptoResultCache);
+    }
+
+    @Test
+    void getCryptoListOrderedByNormalization_MergeTheSymbolsWithValuesInThePeriod() {
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("BTC", "DOGE", "ETH"));
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval("BTC", START, END)).thenReturn(Mono.just(getCryptoValuesDynamically("BTC", 10d, 20d)));
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval("DOGE", START, END)).thenReturn(Mono.just(CryptoValues.builder().build()));
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval("ETH", START, END)).thenReturn(Mono.just(getCryptoValuesDynamically("ETH", 10d, 40d)));
+
+        var cryptoList = reactiveCryptoService.getCryptoListOrderedByNormalization(START, END, SortingOrder.DESC, 0, Integer.MAX_VALUE).block();
+
+        assertEquals(List.of("ETH", "BTC"), cryptoList);
+    }
+
+    @Test
+    void getNormalizedCryptoList_ReadTheCachedValues_WhenThePeriodIsCached() {
+        cryptoResultCache.putNormalizedCryptos(START, END, cryptoResultCache.generation(), List.of(NormalizedCrypto.builder().symbol("BTC").normalizedValue(1d).build()));
+
+        var normalizedCryptoList = reactiveCryptoService.getNormalizedCryptoList(START, END, SortingOrder.DESC, 0, Integer.MAX_VALUE).block();
+
+        assertEquals(1, normalizedCryptoList.size());
+        verify(reactiveCryptoValuesRepository, never()).findCryptoValuesBySymbolInInterval(anyString(), any(), any());
+    }
+
+    @Test
+    void getNormalizedCryptoList_ReadAtMostParallelismSymbolsAtTheSameTime() {
+        cryptoProperties.getQuery().setParallelism(2);
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("BTC", "DOGE", "ETH", "LTC", "XRP"));
+
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval(anyString(), eq(START), eq(END)))
+                .thenAnswer(invocation -> Mono.just(getCryptoValuesDynamically(invocation.getArgument(0), 1d, 2d))
+                        .doOnSubscribe(subscription -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+                        .delayElement(Duration.ofMillis(10))
+                        .doOnTerminate(running::decrementAndGet));
+
+        var normalizedCryptoList = reactiveCryptoService.getNormalizedCryptoList(START, END, SortingOrder.DESC, 0, Integer.MAX_VALUE).block();
+
+        assertEquals(5, normalizedCryptoList.size());
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void getNormalizedCryptoList_ThrowsInternalException_WhenASymbolTakesTooLong() {
+        cryptoProperties.getQuery().setTimeout(Duration.ofMillis(10));
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of("BTC"));
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbolInInterval("BTC", START, END)).thenReturn(Mono.never());
+
+        var normalizedCryptoList = reactiveCryptoService.getNormalizedCryptoList(START, END, SortingOrder.DESC, 0, Integer.MAX_VALUE);
+
+        assertThrows(InternalException.class, normalizedCryptoList::block);
+    }
+
+    @Test
+    void getHighestNormalizedCryptoByDate_ThrowsNotFoundException_WhenNoCryptoHasValuesThatDay() {
+        when(cryptoSymbolRegistry.getSymbols()).thenReturn(List.of());
+
+        var highestNormalizedCrypto = reactiveCryptoService.getHighestNormalizedCryptoByDate(START);
+
+        assertThrows(NotFoundException.class, highestNormalizedCrypto::block);
+    }
+
+    @Test
+    void getCryptoValuesBySymbol_ReadTheRollups_WhenTheSymbolHasNoSummary() {
+        var cryptoValues = getCryptoValues();
+        when(cryptoSummaryService.getCryptoValues(cryptoValues.getSymbol())).thenReturn(Optional.empty());
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbol(cryptoValues.getSymbol())).thenReturn(Mono.just(cryptoValues));
+
+        assertEquals(cryptoValues, reactiveCryptoService.getCryptoValuesBySymbol(cryptoValues.getSymbol()).block());
+    }
+
+    @Test
+    void getCryptoValuesBySymbol_ThrowsNotFoundException_WhenTheSymbolHasNoRollup() {
+        when(cryptoSummaryService.getCryptoValues("BTC")).thenReturn(Optional.empty());
+        when(reactiveCryptoValuesRepository.findCryptoValuesBySymbol("BTC")).thenReturn(Mono.just(CryptoValues.builder().build()));
+
+        var cryptoValues = reactiveCryptoService.getCryptoValuesBySymbol("BTC");
+
+        assertThrows(NotFoundException.class, cryptoValues::block);
+    }
+}
@@ -0,0 +1,117 @@
+package com.test.crypto.service;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolMergingWriterTest {
+
+    private final List<List<CryptoEntity>> savedChunks = new ArrayList<>();
+
+    private static List<CryptoEntity> getCryptoList(String symbol, int rows) {
+        var cryptoList = new ArrayList<CryptoEntity>();
+        for (int row = 0; row < rows; row++) {
+            cryptoList.add(getCryptoEntity(symbol, (double) row));
+        }
+        return cryptoList;
+    }
+
+    private static List<String> symbols(List<CryptoEntity> chunk) {
+        return chunk.stream().map(CryptoEntity::getSymbol).distinct().toList();
+    }
+
+    @Test
+    void add_SaveOnlyFullSymbolBuffers() {
+        var rowsInFlight = new Semaphore(100);
+        var writer = new SymbolMergingWriter(3, rowsInFlight, savedChunks::add);
+
+        writer.add(List.of(getCryptoEntity("BTC", 1d), getCryptoEntity("ETH", 1d)));
+        writer.add(getCryptoList("BTC", 2));
+
+        assertEquals(1, savedChunks.size());
+        assertEquals(List.of("BTC"), symbols(savedChunks.get(0)));
+        assertEquals(3, savedChunks.get(0).size());
+        assertEquals(99, rowsInFlight.availablePermits());
+
+        writer.flushAll();
+
+        assertEquals(2, savedChunks.size());
+        assertEquals(List.of("ETH"), symbols(savedChunks.get(1)));
+        assertEquals(100, rowsInFlight.availablePermits());
+    }
+
+    @Test
+    void add_SaveTheLargestBuffer_WhenTheRowsInFlightAreAtTheCap() {
+        var rowsInFlight = new Semaphore(4);
+        var writer = new SymbolMergingWriter(10, rowsInFlight, savedChunks::add);
+
+        writer.add(getCryptoList("BTC", 3));
+        writer.add(getCryptoList("ETH", 1));
+        writer.add(getCryptoList("XRP", 2));
+
+        assertEquals(1, savedChunks.size());
+        assertEquals(List.of("BTC"), symbols(savedChunks.get(0)));
+        assertEquals(1, rowsInFlight.availablePermits());
+    }
+
+    @Test
+    void add_WaitForTheSaveInProgress_WhenNoRowIsBuffered() throws Exception {
+        var rowsInFlight = new Semaphore(4);
+        var saving = new CountDownLatch(1);
+        var saved = new CountDownLatch(1);
+        var writer = new SymbolMergingWriter(10, rowsInFlight, chunk -> {
+            saving.countDown();
+            await(saved);
+            savedChunks.add(chunk);
+        });
+        writer.add(getCryptoList("BTC", 3));
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(writer::flushAll);
+            await(saving);
+
+            var added = executor.submit(() -> writer.add(getCryptoList("ETH", 3)));
+            assertThrows(TimeoutException.class, () -> added.get(100, TimeUnit.MILLISECONDS));
+            saved.countDown();
+            added.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, savedChunks.size());
+        assertEquals(1, rowsInFlight.availablePermits());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void discard_ReleaseThePermitsOfTheBufferedRows() {
+        var rowsInFlight = new Semaphore(10);
+        var writer = new SymbolMergingWriter(10, rowsInFlight, savedChunks::add);
+        writer.add(getCryptoList("BTC", 4));
+
+        writer.discard();
+        writer.flushAll();
+
+        assertEquals(0, savedChunks.size());
+        assertEquals(10, rowsInFlight.availablePermits());
+    }
+}
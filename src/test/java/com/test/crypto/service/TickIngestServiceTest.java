@@ -0,0 +1,113 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TickIngestServiceTest {
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Captor
+    private ArgumentCaptor<List<CryptoEntity>> cryptoListArgumentCaptor;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScheduledExecutorService cryptoFeedExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    private TickIngestService tickIngestService;
+
+    @BeforeEach
+    void setUp() {
+        cryptoProperties.getFeed().setMaxBatchSize(3);
+        cryptoProperties.getFeed().setMaxLatency(Duration.ofHours(1));
+        tickIngestService = new TickIngestService(cryptoService, cryptoProperties, new CryptoMetrics(meterRegistry), cryptoFeedExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cryptoFeedExecutor.shutdownNow();
+    }
+
+    private static List<CryptoEntity> getTicks(int ticks) {
+        var tickList = new ArrayList<CryptoEntity>();
+        for (int tick = 0; tick < ticks; tick++) {
+            tickList.add(getCryptoEntity("BTC", Instant.ofEpochMilli(tick), (double) tick + 1));
+        }
+        return tickList;
+    }
+
+    @Test
+    void submit_SaveTheBatch_WhenItIsFull() {
+        tickIngestService.submit(getTicks(2));
+        tickIngestService.submit(getTicks(2));
+
+        verify(cryptoService, timeout(1_000)).saveAll(cryptoListArgumentCaptor.capture());
+        assertEquals(3, cryptoListArgumentCaptor.getValue().size());
+        assertEquals(4d, meterRegistry.get(CryptoMetrics.INGEST_ROWS).tag("outcome", "received").counter().count());
+    }
+
+    @Test
+    void submit_SaveTheBatch_WhenItsLatencyExpires() {
+        cryptoProperties.getFeed().setMaxLatency(Duration.ofMillis(10));
+
+        tickIngestService.submit(getTicks(1));
+
+        verify(cryptoService, timeout(1_000)).saveAll(cryptoListArgumentCaptor.capture());
+        assertEquals(1, cryptoListArgumentCaptor.getValue().size());
+        assertEquals(0, tickIngestService.getPendingTicks());
+    }
+
+    @Test
+    void submit_ThrowsServiceUnavailableException_WhenTooManyTicksArePending() {
+        cryptoProperties.getFeed().setMaxPendingTicks(2);
+        tickIngestService.submit(getTicks(2));
+
+        assertThrows(ServiceUnavailableException.class, () -> tickIngestService.submit(getTicks(1)));
+        assertEquals(2, tickIngestService.getPendingTicks());
+        verify(cryptoService, never()).saveAll(anyList());
+    }
+
+    @Test
+    void flush_SaveTheCurrentBatch_AndCountTheTicksLost_WhenTheSaveFails() {
+        when(cryptoService.saveAll(anyList())).thenThrow(new IllegalStateException("Cassandra is down"));
+        tickIngestService.submit(getTicks(2));
+
+        tickIngestService.flush();
+        tickIngestService.flush();
+
+        verify(cryptoService, times(1)).saveAll(anyList());
+        assertEquals(0, tickIngestService.getPendingTicks());
+        assertEquals(2d, meterRegistry.get(CryptoMetrics.INGEST_ROWS).tag("outcome", "failed").counter().count());
+    }
+}
@@ -0,0 +1,225 @@
+package com.test.crypto.service;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.NotFoundException;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.common.metrics.CryptoMetrics;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.enums.UploadJobStatus;
+import com.test.crypto.utils.csv.CryptoTickParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UploadJobServiceTest {
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Captor
+    private ArgumentCaptor<List<CryptoEntity>> cryptoListArgumentCaptor;
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UploadJobService uploadJobService;
+
+    @BeforeEach
+    void setUp() {
+        cryptoProperties.getUpload().setSpoolDirectory(spoolDirectory);
+        cryptoProperties.getUpload().setRejectedSamples(2);
+        uploadJobService = new UploadJobService(new CryptoTickParser(), cryptoService, cryptoProperties, new CryptoMetrics(meterRegistry), Runnable::run, Runnable::run);
+        lenient().when(cryptoService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+    }
+
+    private static MockMultipartFile getFile(String fileName) throws IOException {
+        return new MockMultipartFile("file", fileName, "text/csv", Files.readAllBytes(Path.of("src/test/resources", fileName)));
+    }
+
+    private static MockMultipartFile getZipFile(String fileName, String... entries) throws IOException {
+        var zip = new ByteArrayOutputStream();
+        try (var zipStream = new ZipOutputStream(zip)) {
+            for (var entry : entries) {
+                zipStream.putNextEntry(new ZipEntry(entry));
+                zipStream.write(Files.readAllBytes(Path.of("src/test/resources", entry)));
+                zipStream.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", fileName, "application/zip", zip.toByteArray());
+    }
+
+    @Test
+    void submit_SaveTheRowsInChunks() throws IOException {
+        cryptoProperties.getIngest().setChunkSize(4);
+
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        verify(cryptoService, times(3)).saveAll(cryptoListArgumentCaptor.capture());
+        var chunkSizes = cryptoListArgumentCaptor.getAllValues().stream().map(List::size).toList();
+        assertEquals(List.of(4, 4, 2), chunkSizes);
+
+        assertEquals(UploadJobStatus.COMPLETED, uploadJob.getStatus());
+        assertEquals(10L, uploadJob.getAccepted());
+        assertEquals(0L, uploadJob.getRejected());
+        assertNotNull(uploadJob.getFinishedAt());
+        assertEquals(10d, meterRegistry.get(CryptoMetrics.INGEST_ROWS).tag("outcome", "parsed").counter().count());
+    }
+
+    @Test
+    void submit_CountTheRowsAlreadyStored() throws IOException {
+        when(cryptoService.saveAll(anyList())).thenReturn(4);
+
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        assertEquals(UploadJobStatus.COMPLETED, uploadJob.getStatus());
+        assertEquals(4L, uploadJob.getAccepted());
+        assertEquals(6L, uploadJob.getDuplicates());
+    }
+
+    @Test
+    void submit_KeepTheFirstRejectedRows_WhenTheCsvIsCorrupted() throws IOException {
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_malformed_values.csv")));
+
+        verify(cryptoService).saveAll(cryptoListArgumentCaptor.capture());
+        assertEquals(6, cryptoListArgumentCaptor.getValue().size());
+
+        assertEquals(UploadJobStatus.COMPLETED, uploadJob.getStatus());
+        assertEquals(6L, uploadJob.getAccepted());
+        assertEquals(4L, uploadJob.getRejected());
+        assertEquals(2, uploadJob.getRejectedSamples().size());
+    }
+
+    @Test
+    void submit_ParseAllTheFilesAndZipEntries_AndSaveTheRowsMergedPerSymbol() throws IOException {
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv"),
+                getZipFile("BTC_archive.zip", "BTC_values.csv", "BTC_malformed_values.csv", "BTC_values.notCsv")));
+
+        verify(cryptoService).saveAll(cryptoListArgumentCaptor.capture());
+        assertEquals(26, cryptoListArgumentCaptor.getValue().size());
+
+        assertEquals(UploadJobStatus.COMPLETED, uploadJob.getStatus());
+        assertEquals(3, uploadJob.getParsedFiles());
+        assertEquals(26L, uploadJob.getAccepted());
+        assertEquals(4L, uploadJob.getRejected());
+        assertEquals("BTC_archive.zip/BTC_malformed_values.csv", uploadJob.getRejectedSamples().get(0).file());
+    }
+
+    @Test
+    void submit_FailTheJob_WhenTheZipArchiveIsCorrupted() throws IOException {
+        var corruptedZip = new MockMultipartFile("file", "BTC_archive.zip", "application/zip", "not a zip".getBytes());
+
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv"), corruptedZip));
+
+        assertEquals(UploadJobStatus.FAILED, uploadJob.getStatus());
+        assertEquals("BTC_archive.zip: ZIP archive could not be read.", uploadJob.getError());
+
+        verify(cryptoService, never()).saveAll(anyList());
+    }
+
+    @Test
+    void submit_FailTheJob_WhenTheSaveThrowsAnUnexpectedException() throws IOException {
+        when(cryptoService.saveAll(anyList())).thenThrow(new IllegalStateException("Unexpected"));
+
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        assertEquals(UploadJobStatus.FAILED, uploadJob.getStatus());
+        assertEquals("Upload could not be processed.", uploadJob.getError());
+        assertNotNull(uploadJob.getFinishedAt());
+    }
+
+    @Test
+    void submit_FailTheJob_WhenTheCsvHeaderIsWrong() throws IOException {
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_wrong_header.csv")));
+
+        assertEquals(UploadJobStatus.FAILED, uploadJob.getStatus());
+        assertEquals("BTC_wrong_header.csv: The CSV header must contain the timestamp, symbol and price columns.", uploadJob.getError());
+
+        verify(cryptoService, never()).saveAll(anyList());
+    }
+
+    @Test
+    void submit_DeleteTheSpooledFile_WhenTheJobIsFinished() throws IOException {
+        uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        try (var spooledFiles = Files.list(spoolDirectory)) {
+            assertEquals(0, spooledFiles.count());
+        }
+    }
+
+    @Test
+    void submit_ThrowsServiceUnavailableException_WhenTheQueueIsFull() throws IOException {
+        uploadJobService = new UploadJobService(new CryptoTickParser(), cryptoService, cryptoProperties, new CryptoMetrics(meterRegistry),
+                command -> {
+                    throw new RejectedExecutionException();
+                }, Runnable::run);
+        var file = getFile("BTC_values.csv");
+
+        assertThrows(ServiceUnavailableException.class, () -> uploadJobService.submit(List.of(file)));
+
+        try (var spooledFiles = Files.list(spoolDirectory)) {
+            assertEquals(0, spooledFiles.count());
+        }
+    }
+
+    @Test
+    void getJob_ReturnTheSubmittedJob() throws IOException {
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        assertEquals(uploadJob, uploadJobService.getJob(uploadJob.getJobId()));
+    }
+
+    @Test
+    void getJob_ThrowsNotFoundException_WhenTheJobDoesNotExist() {
+        var jobId = UUID.randomUUID();
+
+        assertThrows(NotFoundException.class, () -> uploadJobService.getJob(jobId));
+    }
+
+    @Test
+    void removeExpiredJobs_RemoveTheJobsFinishedForLongerThanTheRetention() throws IOException {
+        var uploadJob = uploadJobService.submit(List.of(getFile("BTC_values.csv")));
+
+        cryptoProperties.getUpload().setRetention(Duration.ofHours(1));
+        uploadJobService.removeExpiredJobs();
+        assertEquals(uploadJob, uploadJobService.getJob(uploadJob.getJobId()));
+
+        cryptoProperties.getUpload().setRetention(Duration.ofMillis(-1));
+        uploadJobService.removeExpiredJobs();
+        assertThrows(NotFoundException.class, () -> uploadJobService.getJob(uploadJob.getJobId()));
+        assertTrue(uploadJob.isFinished());
+    }
+}
@@ -0,0 +1,111 @@
+package com.test.crypto.service.cache;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.InternalException;
+import com.test.crypto.domain.entity.NormalizedCrypto;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoResultCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2022, 1, 10);
+
+    private final CryptoResultCache cryptoResultCache = new CryptoResultCache(new CryptoProperties());
+
+    private static CryptoIngestedEvent ingestedEvent(String symbol, LocalDate day) {
+        return new CryptoIngestedEvent(List.of(getCryptoEntity(symbol, day.atTime(12, 0).toInstant(ZoneOffset.UTC), 1d)));
+    }
+
+    private int loadNormalizedCryptos(LocalDate start, LocalDate end, AtomicInteger loads) {
+        cryptoResultCache.getNormalizedCryptos(start, end, () -> {
+            loads.incrementAndGet();
+            return List.of(NormalizedCrypto.builder().symbol("BTC").normalizedValue(1d).build());
+        });
+        return loads.get();
+    }
+
+    @Test
+    void getNormalizedCryptos_ComputeTheNormalizedValuesOnce() {
+        var loads = new AtomicInteger();
+
+        loadNormalizedCryptos(DAY, DAY.plusDays(5), loads);
+        loadNormalizedCryptos(DAY, DAY.plusDays(5), loads);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getNormalizedCryptos_ComputeTheNormalizedValuesAgain_WhenTheComputationFailed() {
+        var loads = new AtomicInteger();
+
+        assertThrows(InternalException.class, () -> cryptoResultCache.getNormalizedCryptos(DAY, DAY.plusDays(5), () -> {
+            loads.incrementAndGet();
+            throw new InternalException("Query timed out.");
+        }));
+
+        assertEquals(2, loadNormalizedCryptos(DAY, DAY.plusDays(5), loads));
+        assertTrue(cryptoResultCache.getCachedNormalizedCryptos(DAY, DAY.plusDays(5)).isPresent());
+    }
+
+    @Test
+    void onCryptoIngested_EvictOnlyThePeriodsContainingTheIngestedDay() {
+        var overlappingLoads = new AtomicInteger();
+        var disjointLoads = new AtomicInteger();
+        loadNormalizedCryptos(DAY, DAY.plusDays(5), overlappingLoads);
+        loadNormalizedCryptos(DAY.plusDays(6), DAY.plusDays(9), disjointLoads);
+
+        cryptoResultCache.onCryptoIngested(ingestedEvent("BTC", DAY.plusDays(5)));
+
+        assertEquals(2, loadNormalizedCryptos(DAY, DAY.plusDays(5), overlappingLoads));
+        assertEquals(1, loadNormalizedCryptos(DAY.plusDays(6), DAY.plusDays(9), disjointLoads));
+    }
+
+    @Test
+    void getNormalizedCryptos_DoNotCacheTheValues_WhenAnOverlappingIngestionRanDuringTheirComputation() {
+        var loads = new AtomicInteger();
+        cryptoResultCache.getNormalizedCryptos(DAY, DAY.plusDays(5), () -> {
+            loads.incrementAndGet();
+            cryptoResultCache.onCryptoIngested(ingestedEvent("BTC", DAY.plusDays(2)));
+            return List.of(NormalizedCrypto.builder().symbol("BTC").normalizedValue(1d).build());
+        });
+
+        assertEquals(2, loadNormalizedCryptos(DAY, DAY.plusDays(5), loads));
+        assertEquals(2, loadNormalizedCryptos(DAY, DAY.plusDays(5), loads));
+    }
+
+    @Test
+    void putNormalizedCryptos_DropTheValues_WhenAnOverlappingIngestionRanSinceTheirGeneration() {
+        var normalizedCryptos = List.of(NormalizedCrypto.builder().symbol("BTC").normalizedValue(1d).build());
+        var generation = cryptoResultCache.generation();
+        cryptoResultCache.onCryptoIngested(ingestedEvent("BTC", DAY.plusDays(9)));
+
+        cryptoResultCache.putNormalizedCryptos(DAY, DAY.plusDays(5), generation, normalizedCryptos);
+        cryptoResultCache.putNormalizedCryptos(DAY, DAY.plusDays(9), generation, normalizedCryptos);
+
+        assertTrue(cryptoResultCache.getCachedNormalizedCryptos(DAY, DAY.plusDays(5)).isPresent());
+        assertTrue(cryptoResultCache.getCachedNormalizedCryptos(DAY, DAY.plusDays(9)).isEmpty());
+    }
+
+    @Test
+    void bindTo_ExposeTheHitRatio() {
+        var meterRegistry = new SimpleMeterRegistry();
+        cryptoResultCache.bindTo(meterRegistry);
+        var loads = new AtomicInteger();
+
+        loadNormalizedCryptos(DAY, DAY.plusDays(5), loads);
+        loadNormalizedCryptos(DAY, DAY.plusDays(5), loads);
+
+        assertEquals(0.5d, meterRegistry.get("crypto.cache.hit.ratio").gauge().value());
+    }
+}
@@ -0,0 +1,74 @@
+package com.test.crypto.service.memory;
+
+import com.test.crypto.domain.entity.CryptoEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoPriceSeriesTest {
+
+    private static final long START = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+
+    private final CryptoPriceSeries cryptoPriceSeries = new CryptoPriceSeries();
+
+    private static Instant at(int minute) {
+        return Instant.ofEpochMilli(START + minute * 60_000L);
+    }
+
+    private static long millis(int minute) {
+        return at(minute).toEpochMilli();
+    }
+
+    @Test
+    void getPriceRange_ReturnTheLimitsOfTheInterval() {
+        cryptoPriceSeries.addAll(List.of(
+                getCryptoEntity("BTC", at(0), 10d),
+                getCryptoEntity("BTC", at(1), 5d),
+                getCryptoEntity("BTC", at(2), 20d),
+                getCryptoEntity("BTC", at(3), 1d)));
+
+        assertEquals(new PriceRange(5d, 20d, millis(1), millis(2)), cryptoPriceSeries.getPriceRange(millis(1), millis(2)).orElseThrow());
+        assertEquals(new PriceRange(1d, 20d, millis(0), millis(3)), cryptoPriceSeries.getPriceRange(Long.MIN_VALUE, Long.MAX_VALUE).orElseThrow());
+    }
+
+    @Test
+    void getPriceRange_ReturnEmpty_WhenThereIsNoPriceInTheInterval() {
+        cryptoPriceSeries.addAll(List.of(getCryptoEntity("BTC", at(0), 10d), getCryptoEntity("BTC", at(5), 10d)));
+
+        assertTrue(cryptoPriceSeries.getPriceRange(millis(1), millis(4)).isEmpty());
+    }
+
+    @Test
+    void addAll_MergeOlderEntriesAndReplaceTheExistingTimestamps() {
+        cryptoPriceSeries.addAll(List.of(getCryptoEntity("BTC", at(2), 10d), getCryptoEntity("BTC", at(4), 10d)));
+
+        cryptoPriceSeries.addAll(List.of(
+                getCryptoEntity("BTC", at(3), 30d),
+                getCryptoEntity("BTC", at(4), 40d),
+                getCryptoEntity("BTC", at(0), 1d)));
+
+        assertEquals(4, cryptoPriceSeries.size());
+        assertEquals(new PriceRange(40d, 40d, millis(4), millis(4)), cryptoPriceSeries.getPriceRange(millis(4), millis(4)).orElseThrow());
+        assertEquals(new PriceRange(1d, 40d, millis(0), millis(4)), cryptoPriceSeries.getPriceRange(millis(0), millis(4)).orElseThrow());
+    }
+
+    @Test
+    void addAll_GrowTheColumns() {
+        for (int minute = 0; minute < 5_000; minute += 100) {
+            var chunk = new ArrayList<CryptoEntity>();
+            for (int offset = 0; offset < 100; offset++) {
+                chunk.add(getCryptoEntity("BTC", at(minute + offset), (double) minute + offset));
+            }
+            cryptoPriceSeries.addAll(chunk);
+        }
+
+        assertEquals(5_000, cryptoPriceSeries.size());
+        assertEquals(new PriceRange(1_000d, 2_000d, millis(1_000), millis(2_000)), cryptoPriceSeries.getPriceRange(millis(1_000), millis(2_000)).orElseThrow());
+    }
+}
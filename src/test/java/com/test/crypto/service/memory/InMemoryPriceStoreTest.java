@@ -0,0 +1,112 @@
+package com.test.crypto.service.memory;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.domain.entity.CryptoEntity;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.repository.CryptoTickStore;
+import com.test.crypto.service.CryptoDailyValuesService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static com.test.crypto.helper.TestHelper.getCryptoValues;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryPriceStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2022, 1, 10);
+
+    @InjectMocks
+    private InMemoryPriceStore inMemoryPriceStore;
+
+    @Mock
+    private CryptoTickStore cryptoTickStore;
+
+    @Mock
+    private CryptoDailyValuesService cryptoDailyValuesService;
+
+    @Spy
+    private CryptoProperties cryptoProperties = new CryptoProperties();
+
+    @Test
+    void hydrate_LoadThePricesOfEverySymbol() {
+        when(cryptoTickStore.findAllSymbols()).thenReturn(List.of("BTC"));
+        doAnswer(invocation -> {
+            Consumer<List<CryptoEntity>> pageConsumer = invocation.getArgument(2);
+            pageConsumer.accept(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-10T10:00:00Z"), 10d)));
+            pageConsumer.accept(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-11T10:00:00Z"), 30d)));
+            return null;
+        }).when(cryptoTickStore).scan(eq("BTC"), anyInt(), any());
+
+        inMemoryPriceStore.hydrate();
+
+        var cryptoValues = inMemoryPriceStore.getCryptoValuesInInterval("BTC", DAY, DAY.plusDays(1));
+        assertEquals(10d, cryptoValues.getMinPrice());
+        assertEquals(30d, cryptoValues.getMaxPrice());
+        assertEquals(Instant.parse("2022-01-10T10:00:00Z"), cryptoValues.getOldest());
+        assertEquals(Instant.parse("2022-01-11T10:00:00Z"), cryptoValues.getNewest());
+    }
+
+    @Test
+    void getCryptoValuesInInterval_IncludeTheWholeLastDayAndTheIngestedPrices() {
+        inMemoryPriceStore.hydrate();
+        inMemoryPriceStore.onCryptoIngested(new CryptoIngestedEvent(List.of(
+                getCryptoEntity("BTC", Instant.parse("2022-01-10T00:00:00Z"), 10d),
+                getCryptoEntity("BTC", Instant.parse("2022-01-10T23:59:59.999Z"), 20d),
+                getCryptoEntity("BTC", Instant.parse("2022-01-11T00:00:00Z"), 30d))));
+
+        var cryptoValues = inMemoryPriceStore.getCryptoValuesInInterval("BTC", DAY, DAY);
+
+        assertEquals("BTC", cryptoValues.getSymbol());
+        assertEquals(10d, cryptoValues.getMinPrice());
+        assertEquals(20d, cryptoValues.getMaxPrice());
+    }
+
+    @Test
+    void getCryptoValuesInInterval_ReturnEmptyValues_WhenTheSymbolIsUnknown() {
+        inMemoryPriceStore.hydrate();
+
+        assertNull(inMemoryPriceStore.getCryptoValuesInInterval("BTC", DAY, DAY).getMinPrice());
+    }
+
+    @Test
+    void getCryptoValuesInInterval_ReadTheDailyValues_UntilThePricesAreLoaded() {
+        var cryptoValues = getCryptoValues();
+        when(cryptoDailyValuesService.getCryptoValuesInInterval("BTC", DAY, DAY)).thenReturn(cryptoValues);
+
+        assertEquals(cryptoValues, inMemoryPriceStore.getCryptoValuesInInterval("BTC", DAY, DAY));
+    }
+
+    @Test
+    void hydrate_KeepThePricesIngestedDuringTheLoad() {
+        when(cryptoTickStore.findAllSymbols()).thenReturn(List.of("BTC"));
+        doAnswer(invocation -> {
+            inMemoryPriceStore.onCryptoIngested(new CryptoIngestedEvent(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-10T12:00:00Z"), 50d))));
+            Consumer<List<CryptoEntity>> pageConsumer = invocation.getArgument(2);
+            pageConsumer.accept(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-10T10:00:00Z"), 10d)));
+            return null;
+        }).when(cryptoTickStore).scan(eq("BTC"), anyInt(), any());
+
+        inMemoryPriceStore.hydrate();
+
+        var cryptoValues = inMemoryPriceStore.getCryptoValuesInInterval("BTC", DAY, DAY);
+        assertEquals(10d, cryptoValues.getMinPrice());
+        assertEquals(50d, cryptoValues.getMaxPrice());
+    }
+}
@@ -0,0 +1,42 @@
+package com.test.crypto.service.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangeMinMaxIndexTest {
+
+    private final RangeMinMaxIndex rangeMinMaxIndex = new RangeMinMaxIndex();
+
+    @Test
+    void minAndMax_MatchTheLinearScan_WhileTheIndexGrows() {
+        var random = new SplittableRandom(7);
+        var values = new double[5_000];
+        for (int position = 0; position < values.length; position++) {
+            values[position] = random.nextDouble(1_000);
+            rangeMinMaxIndex.append(values[position]);
+        }
+
+        for (int query = 0; query < 1_000; query++) {
+            int first = random.nextInt(values.length);
+            int last = first + 1 + random.nextInt(values.length - first);
+
+            var window = Arrays.copyOfRange(values, first, last);
+            assertEquals(Arrays.stream(window).min().orElseThrow(), rangeMinMaxIndex.min(first, last));
+            assertEquals(Arrays.stream(window).max().orElseThrow(), rangeMinMaxIndex.max(first, last));
+        }
+    }
+
+    @Test
+    void set_ReplaceTheIndexedValue() {
+        rangeMinMaxIndex.rebuild(new double[]{5, 3, 9}, 3);
+
+        rangeMinMaxIndex.set(2, 1);
+
+        assertEquals(1, rangeMinMaxIndex.min(0, 3));
+        assertEquals(5, rangeMinMaxIndex.max(0, 3));
+    }
+}
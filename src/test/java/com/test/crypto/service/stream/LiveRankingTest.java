@@ -0,0 +1,133 @@
+package com.test.crypto.service.stream;
+
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.RankedCrypto;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.service.CryptoService;
+import com.test.crypto.utils.CryptoNormalizer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveRankingTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final LocalDate END = LocalDate.of(2022, 1, 31);
+    private static final Instant IN_PERIOD = Instant.parse("2022-01-15T10:00:00Z");
+
+    private final LiveRanking liveRanking = new LiveRanking(START, END, CryptoService.normalizationComparator(SortingOrder.DESC), new CryptoNormalizer());
+
+    private static CryptoValues getCryptoValues(String symbol, double minPrice, double maxPrice) {
+        return CryptoValues.builder().symbol(symbol).minPrice(minPrice).maxPrice(maxPrice).build();
+    }
+
+    private void seed() {
+        liveRanking.seed(() -> List.of(getCryptoValues("BTC", 10d, 20d), getCryptoValues("ETH", 10d, 15d)), symbol -> null);
+    }
+
+    private static List<String> symbols(List<RankedCrypto> snapshot) {
+        return snapshot.stream().map(RankedCrypto::getSymbol).toList();
+    }
+
+    @Test
+    void seed_RankTheStoredValues() {
+        seed();
+
+        var snapshot = liveRanking.snapshot();
+
+        assertEquals(List.of("BTC", "ETH"), symbols(snapshot));
+        assertEquals(1d, snapshot.get(0).getNormalizedValue());
+        assertEquals(1, snapshot.get(0).getRank());
+        assertEquals(15d, snapshot.get(1).getMaxPrice());
+        assertEquals(2, snapshot.get(1).getRank());
+    }
+
+    @Test
+    void apply_MoveTheSymbol_WhenItsPricesReachANewExtreme() {
+        seed();
+
+        var updates = liveRanking.apply(List.of(getCryptoEntity("ETH", IN_PERIOD, 30d)));
+
+        assertEquals(1, updates.size());
+        var update = updates.get(0);
+        assertEquals("ETH", update.getSymbol());
+        assertEquals(2d, update.getNormalizedValue());
+        assertEquals(1, update.getRank());
+        assertEquals(2, update.getPreviousRank());
+        assertTrue(update.isNewMaxPrice());
+        assertFalse(update.isNewMinPrice());
+        assertEquals(List.of("ETH", "BTC"), symbols(liveRanking.snapshot()));
+    }
+
+    @Test
+    void apply_ReturnNoUpdate_WhenThePricesStayWithinTheMinAndMax() {
+        seed();
+
+        var updates = liveRanking.apply(List.of(getCryptoEntity("BTC", IN_PERIOD, 15d), getCryptoEntity("ETH", IN_PERIOD, 10d)));
+
+        assertEquals(List.of(), updates);
+    }
+
+    @Test
+    void apply_IgnoreTheEntriesOutsideThePeriod() {
+        seed();
+
+        var updates = liveRanking.apply(List.of(getCryptoEntity("BTC", Instant.parse("2022-02-01T00:00:00Z"), 100d)));
+
+        assertEquals(List.of(), updates);
+    }
+
+    @Test
+    void apply_AddTheSymbol_WhenItEntersThePeriod() {
+        seed();
+
+        var updates = liveRanking.apply(List.of(getCryptoEntity("XRP", IN_PERIOD, 1d), getCryptoEntity("XRP", IN_PERIOD, 2d)));
+
+        var update = updates.get(0);
+        assertEquals("XRP", update.getSymbol());
+        assertEquals(2, update.getRank());
+        assertNull(update.getPreviousRank());
+        assertTrue(update.isNewMinPrice());
+        assertTrue(update.isNewMaxPrice());
+        assertEquals(List.of("BTC", "XRP", "ETH"), symbols(liveRanking.snapshot()));
+    }
+
+    @Test
+    void seed_MergeTheEntriesIngestedWhileTheSeedIsRead() {
+        var pendingUpdates = liveRanking.apply(List.of(getCryptoEntity("ETH", IN_PERIOD, 40d)));
+
+        liveRanking.seed(() -> List.of(getCryptoValues("BTC", 10d, 20d)), symbol -> getCryptoValues(symbol, 10d, 15d));
+
+        assertEquals(List.of(), pendingUpdates);
+        var snapshot = liveRanking.snapshot();
+        assertEquals(List.of("ETH", "BTC"), symbols(snapshot));
+        assertEquals(40d, snapshot.get(0).getMaxPrice());
+    }
+
+    @Test
+    void seed_ReadThePendingSymbolsOutsideTheRanking_UntilNoneIsPending() {
+        liveRanking.apply(List.of(getCryptoEntity("ETH", IN_PERIOD, 40d)));
+        var reads = new ArrayList<String>();
+
+        liveRanking.seed(() -> List.of(getCryptoValues("BTC", 10d, 20d)), symbol -> {
+            assertFalse(Thread.holdsLock(liveRanking));
+            reads.add(symbol);
+            if (reads.size() == 1) {
+                liveRanking.apply(List.of(getCryptoEntity("XRP", IN_PERIOD, 5d), getCryptoEntity("XRP", IN_PERIOD, 50d)));
+            }
+            return getCryptoValues(symbol, 10d, 15d);
+        });
+
+        assertEquals(List.of("ETH", "XRP"), reads);
+        assertEquals(List.of("XRP", "ETH", "BTC"), symbols(liveRanking.snapshot()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.test.crypto.service.stream;
+
+import com.test.crypto.common.config.CryptoProperties;
+import com.test.crypto.common.exceptions.ServiceUnavailableException;
+import com.test.crypto.domain.entity.CryptoValues;
+import com.test.crypto.domain.entity.RankingUpdate;
+import com.test.crypto.domain.enums.SortingOrder;
+import com.test.crypto.domain.event.CryptoIngestedEvent;
+import com.test.crypto.service.CryptoService;
+import com.test.crypto.service.CryptoValuesReader;
+import com.test.crypto.service.mapper.CryptoMapper;
+import com.test.crypto.service.mapper.CryptoMapperImpl;
+import com.test.crypto.utils.CryptoNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.test.crypto.helper.TestHelper.getCryptoEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RankingStreamServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final LocalDate END = LocalDate.of(2022, 1, 31);
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Mock
+    private CryptoValuesReader cryptoValuesReader;
+
+    private final CryptoMapper cryptoMapper = spy(new CryptoMapperImpl());
+    private final CryptoProperties cryptoProperties = new CryptoProperties();
+    private final List<Runnable> queuedEvents = new ArrayList<>();
+
+    private RankingStreamService rankingStreamService;
+
+    @BeforeEach
+    void setUp() {
+        rankingStreamService = new RankingStreamService(cryptoService, cryptoValuesReader, new CryptoNormalizer(), cryptoMapper, cryptoProperties, queuedEvents::add);
+    }
+
+    private static CryptoValues getCryptoValues(String symbol, double minPrice, double maxPrice) {
+        return CryptoValues.builder().symbol(symbol).minPrice(minPrice).maxPrice(maxPrice).build();
+    }
+
+    @Test
+    void subscribe_ReadTheRankingOnce_ForTheClientsOfTheSamePeriod() {
+        when(cryptoService.getCryptoValuesInInterval(START, END)).thenReturn(List.of(getCryptoValues("BTC", 10d, 20d)));
+
+        rankingStreamService.subscribe(START, END, SortingOrder.DESC);
+        rankingStreamService.subscribe(START, END, SortingOrder.DESC);
+
+        verify(cryptoService, times(1)).getCryptoValuesInInterval(START, END);
+        assertEquals(2, rankingStreamService.getSubscribers());
+        assertEquals(2, queuedEvents.size());
+    }
+
+    @Test
+    void onCryptoIngested_QueueAnUpdatePerClient_WhenASymbolMoves() {
+        when(cryptoService.getCryptoValuesInInterval(START, END)).thenReturn(List.of(getCryptoValues("BTC", 10d, 20d)));
+        rankingStreamService.subscribe(START, END, SortingOrder.DESC);
+        rankingStreamService.subscribe(START, END, SortingOrder.DESC);
+        queuedEvents.clear();
+
+        rankingStreamService.onCryptoIngested(new CryptoIngestedEvent(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-15T10:00:00Z"), 5d))));
+        rankingStreamService.onCryptoIngested(new CryptoIngestedEvent(List.of(getCryptoEntity("BTC", Instant.parse("2022-01-15T11:00:00Z"), 15d))));
+
+        assertEquals(2, queuedEvents.size());
+        verify(cryptoMapper, times(1)).toDto(any(RankingUpdate.class));
+    }
+
+    @Test
+    void subscribe_ThrowsServiceUnavailableException_WhenTooManyStreamsAreOpen() {
+        cryptoProperties.getStream().setMaxSubscribers(1);
+        when(cryptoService.getCryptoValuesInInterval(START, END)).thenReturn(List.of());
+        rankingStreamService.subscribe(START, END, SortingOrder.DESC);
+
+        assertThrows(ServiceUnavailableException.class, () -> rankingStreamService.subscribe(START, END, SortingOrder.ASC));
+        assertEquals(1, rankingStreamService.getSubscribers());
+    }
+
+    @Test
+    void subscribe_ReleaseTheClient_WhenTheRankingCannotBeRead() {
+        when(cryptoService.getCryptoValuesInInterval(START, END)).thenThrow(new IllegalStateException("Cassandra is down"));
+
+        assertThrows(IllegalStateException.class, () -> rankingStreamService.subscribe(START, END, SortingOrder.DESC));
+        assertEquals(0, rankingStreamService.getSubscribers());
+    }
+}
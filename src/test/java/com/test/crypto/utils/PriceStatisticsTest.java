@@ -0,0 +1,70 @@
+package com.test.crypto.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceStatisticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static PriceStatistics getPriceStatistics(List<Double> prices) {
+        var priceStatistics = new PriceStatistics();
+        for (int index = 0; index < prices.size(); index++) {
+            priceStatistics.add(Instant.ofEpochMilli(index), prices.get(index));
+        }
+        return priceStatistics;
+    }
+
+    @Test
+    void toAnalytics_ReturnTheStatisticsOfThePrices() {
+        var analytics = getPriceStatistics(List.of(100d, 110d, 99d, 120d)).toAnalytics("BTC");
+
+        assertEquals("BTC", analytics.getSymbol());
+        assertEquals(4, analytics.getCount());
+        assertEquals(Instant.ofEpochMilli(0), analytics.getFirst());
+        assertEquals(100d, analytics.getFirstPrice());
+        assertEquals(Instant.ofEpochMilli(3), analytics.getLast());
+        assertEquals(120d, analytics.getLastPrice());
+        assertEquals(99d, analytics.getMinPrice());
+        assertEquals(120d, analytics.getMaxPrice());
+        assertEquals(0.2, analytics.getTotalReturn(), DELTA);
+        assertEquals(107.25, analytics.getMeanPrice(), DELTA);
+        assertEquals(0.1, analytics.getMaxDrawdown(), DELTA);
+    }
+
+    @Test
+    void toAnalytics_MatchTheTwoPassFormulas() {
+        var prices = List.of(46813.21, 46979.61, 47143.98, 46871.09, 47023.24, 46100.5, 47650.25);
+        var analytics = getPriceStatistics(prices).toAnalytics("BTC");
+
+        var returns = new double[prices.size() - 1];
+        for (int index = 1; index < prices.size(); index++) {
+            returns[index - 1] = (prices.get(index) - prices.get(index - 1)) / prices.get(index - 1);
+        }
+
+        var expectedMeanPrice = prices.stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+        var expectedPriceVariance = prices.stream().mapToDouble(price -> Math.pow(price - expectedMeanPrice, 2)).sum() / (prices.size() - 1);
+        var expectedMeanReturn = Arrays.stream(returns).average().orElseThrow();
+        var expectedReturnVariance = Arrays.stream(returns).map(value -> Math.pow(value - expectedMeanReturn, 2)).sum() / (returns.length - 1);
+
+        assertEquals(expectedMeanPrice, analytics.getMeanPrice(), DELTA);
+        assertEquals(Math.sqrt(expectedPriceVariance), analytics.getPriceStandardDeviation(), DELTA);
+        assertEquals(expectedMeanReturn, analytics.getMeanReturn(), DELTA);
+        assertEquals(Math.sqrt(expectedReturnVariance), analytics.getVolatility(), DELTA);
+    }
+
+    @Test
+    void toAnalytics_ReturnZeroDeviations_WhenThereIsASinglePrice() {
+        var analytics = getPriceStatistics(List.of(100d)).toAnalytics("BTC");
+
+        assertEquals(0d, analytics.getPriceStandardDeviation());
+        assertEquals(0d, analytics.getVolatility());
+        assertEquals(0d, analytics.getMaxDrawdown());
+        assertEquals(0d, analytics.getTotalReturn());
+    }
+}
@@ -0,0 +1,86 @@
+package com.test.crypto.utils;
+
+import com.test.crypto.common.exceptions.InternalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeoutTasksTest {
+
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void supplyWithTimeout_ReturnTheResultOfTheTask() {
+        var future = TimeoutTasks.supplyWithTimeout(executor, Duration.ofSeconds(5), () -> "BTC");
+
+        assertEquals("BTC", TimeoutTasks.join(future, "Too late."));
+    }
+
+    @Test
+    void supplyWithTimeout_CountTheTimeWaitingForAWorker_AndSkipTheTask() throws InterruptedException {
+        var blocker = TimeoutTasks.supplyWithTimeout(executor, Duration.ofSeconds(5), () -> {
+            awaitRelease();
+            return null;
+        });
+        var started = new AtomicBoolean();
+        var future = TimeoutTasks.supplyWithTimeout(executor, Duration.ofMillis(50), () -> started.getAndSet(true));
+
+        assertEquals("Too late.", assertThrows(InternalException.class, () -> TimeoutTasks.join(future, "Too late.")).getMessage());
+        released.countDown();
+        blocker.join();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(started.get());
+    }
+
+    @Test
+    void supplyWithTimeout_InterruptTheRunningTask_WhenTheTimeoutFires() throws InterruptedException {
+        var interrupted = new CountDownLatch(1);
+        var future = TimeoutTasks.supplyWithTimeout(executor, Duration.ofMillis(50), () -> {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertThrows(InternalException.class, () -> TimeoutTasks.join(future, "Too late."));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void join_ThrowTheFailureOfTheTask() {
+        var future = TimeoutTasks.supplyWithTimeout(executor, Duration.ofSeconds(5), () -> {
+            throw new IllegalStateException("Failed");
+        });
+
+        assertEquals("Failed", assertThrows(IllegalStateException.class, () -> TimeoutTasks.join(future, "Too late.")).getMessage());
+    }
+
+    private void awaitRelease() {
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.test.crypto.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKSelectorTest {
+
+    private static final List<Integer> ITEMS = List.of(5, 3, 9, 1, 7, 2, 8);
+
+    @Test
+    void select_ReturnTheBestItemsSorted() {
+        assertEquals(List.of(9, 8, 7), TopKSelector.select(ITEMS, Comparator.reverseOrder(), 0, 3));
+    }
+
+    @Test
+    void select_SkipTheOffset() {
+        assertEquals(List.of(3, 5), TopKSelector.select(ITEMS, Comparator.naturalOrder(), 2, 2));
+    }
+
+    @Test
+    void select_ReturnAllTheItemsSorted_WhenTheLimitIsLargerThanTheItems() {
+        assertEquals(List.of(1, 2, 3, 5, 7, 8, 9), TopKSelector.select(ITEMS, Comparator.naturalOrder(), 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void select_ReturnEmptyList_WhenTheOffsetIsAfterTheItems() {
+        assertTrue(TopKSelector.select(ITEMS, Comparator.naturalOrder(), 7, 1).isEmpty());
+    }
+
+    @Test
+    void select_MatchTheFullSort() {
+        var items = IntStream.range(0, 1000).map(index -> (index * 7919) % 1000).boxed().toList();
+
+        var sorted = items.stream().sorted(Comparator.reverseOrder()).toList();
+        assertEquals(sorted.subList(100, 150), TopKSelector.select(items, Comparator.reverseOrder(), 100, 50));
+    }
+}
@@ -0,0 +1,125 @@
+package com.test.crypto.utils.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CryptoTickParserTest {
+
+    private final CryptoTickParser cryptoTickParser = new CryptoTickParser();
+
+    private record Tick(long timestamp, String symbol, double price) {
+    }
+
+    private List<Tick> parse(String csv, CsvParseResult expectedResult) throws IOException {
+        var ticks = new ArrayList<Tick>();
+        var parseResult = cryptoTickParser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                (timestamp, symbol, price) -> ticks.add(new Tick(timestamp, symbol, price)));
+
+        assertEquals(expectedResult, parseResult);
+        return ticks;
+    }
+
+    @Test
+    void parse_ReturnTheRows() throws IOException {
+        var ticks = parse("timestamp,symbol,price\n1641009600000,BTC,46813.21\r\n1641020400000,ETH,3715.32\n", new CsvParseResult(2, 0));
+
+        assertEquals(List.of(new Tick(1641009600000L, "BTC", 46813.21), new Tick(1641020400000L, "ETH", 3715.32)), ticks);
+    }
+
+    @Test
+    void parse_BindTheColumnsByHeaderName() throws IOException {
+        var ticks = parse("Price, SYMBOL, timestamp\n 46813.21, \"BTC\",  1641009600000", new CsvParseResult(1, 0));
+
+        assertEquals(List.of(new Tick(1641009600000L, "BTC", 46813.21)), ticks);
+    }
+
+    @Test
+    void parse_ReturnTheSameSymbolInstance() throws IOException {
+        var ticks = parse("timestamp,symbol,price\n1,BTC,1\n2,BTC,2", new CsvParseResult(2, 0));
+
+        assertSame(ticks.get(0).symbol(), ticks.get(1).symbol());
+    }
+
+    @Test
+    void parse_ReturnTheCorrectlyRoundedPrices() throws IOException {
+        var prices = List.of("0.1", "-2.5", "0.000000000000000000000001", "1234567890.123456789", "1e3", "5", "+7.");
+        var csv = new StringBuilder("timestamp,symbol,price\n");
+        prices.forEach(price -> csv.append("1,BTC,").append(price).append('\n'));
+
+        var ticks = parse(csv.toString(), new CsvParseResult(prices.size(), 0));
+
+        for (int index = 0; index < prices.size(); index++) {
+            assertEquals(Double.parseDouble(prices.get(index)), ticks.get(index).price());
+        }
+    }
+
+    @Test
+    void parse_ReturnTheRowsSpanningSeveralReadBlocks() throws IOException {
+        var rows = 20_000;
+        var csv = new StringBuilder("timestamp,symbol,price\n");
+        for (int row = 0; row < rows; row++) {
+            csv.append(1641009600000L + row).append(",SYMBOL").append(row % 7).append(',').append(row).append(".25\n");
+        }
+
+        var ticks = parse(csv.toString(), new CsvParseResult(rows, 0));
+
+        for (int row = 0; row < rows; row++) {
+            assertEquals(new Tick(1641009600000L + row, "SYMBOL" + row % 7, row + 0.25), ticks.get(row));
+        }
+    }
+
+    @Test
+    void parse_RejectTheMalformedRows() throws IOException {
+        var ticks = parse("timestamp,symbol,price\n1,BTC\n2,BTC,1,extra\n3,,1\nfour,BTC,1\n5,BTC,1.2.3\n6,BTC,7", new CsvParseResult(1, 5));
+
+        assertEquals(List.of(new Tick(6, "BTC", 7)), ticks);
+    }
+
+    @Test
+    void parse_RejectTheRowsLongerThanTheReadBuffer() throws IOException {
+        var longRow = "1,BTC," + "1".repeat(200_000);
+
+        var ticks = parse("timestamp,symbol,price\n" + longRow + "\n2,BTC,2\n" + longRow, new CsvParseResult(1, 2));
+
+        assertEquals(List.of(new Tick(2, "BTC", 2)), ticks);
+    }
+
+    @Test
+    void parse_ThrowsIllegalArgumentException_WhenTheHeaderIsMissingColumns() {
+        assertThrows(IllegalArgumentException.class, () -> parse("time,coin,value\n1,BTC,1", new CsvParseResult(0, 0)));
+    }
+
+    @Test
+    void parseInChunks_ReturnTheCryptoEntitiesInChunks() throws IOException {
+        var chunkSizes = new ArrayList<Integer>();
+
+        try (var input = new FileInputStream("src/test/resources/BTC_values.csv")) {
+            var parseResult = cryptoTickParser.parseInChunks(input, 3, chunk -> chunkSizes.add(chunk.size()));
+            assertEquals(new CsvParseResult(10, 0), parseResult);
+        }
+
+        assertEquals(List.of(3, 3, 3, 1), chunkSizes);
+    }
+
+    @Test
+    void parseInChunks_HandTheRejectedRowsWithTheirLineNumber() throws IOException {
+        var rejectedRows = new ArrayList<String>();
+        var csv = "timestamp,symbol,price\n1,BTC,1\n\n2,BTC\n3,BTC,three\n";
+
+        var parseResult = cryptoTickParser.parseInChunks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 10,
+                chunk -> { }, (line, row) -> rejectedRows.add(line + ":" + row));
+
+        assertEquals(new CsvParseResult(1, 2), parseResult);
+        assertEquals(List.of("4:2,BTC", "5:3,BTC,three"), rejectedRows);
+    }
+}